@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("application")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.servermanager.minecraft"
@@ -48,6 +49,12 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// Benchmarks en src/jmh/java: ./gradlew jmh
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+}
+
 tasks.named<JavaExec>("run") {
     doFirst {
         jvmArgs = listOf(
@@ -0,0 +1,102 @@
+package com.servermanager.minecraft.console;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compara {@link AlertEngine}, que busca todas las palabras clave a la vez con
+ * {@link KeywordAutomaton}, con la búsqueda regla a regla que sustituye: una
+ * expresión regular por regla (sus palabras clave unidas con {@code |}, sin
+ * distinguir mayúsculas) evaluada sobre cada línea.
+ * <p>
+ * Las reglas son las de {@link AlertRule#defaults()} más palabras aleatorias
+ * hasta llegar a {@code rules}; el resultado se da en líneas/s.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertEngineBenchmark {
+
+    private static final String[] SAMPLES = {
+            "[12:34:56] [Server thread/INFO]: Steve joined the game",
+            "[12:34:57] [Server thread/INFO]: <Steve> alguien ha quemado mi casa",
+            "[08:00:01 WARN]: Can't keep up! Is the server overloaded? Running 2034ms or 40 ticks behind",
+            "[08:00:02 INFO]: Steve issued server command: /gamemode creative",
+            "[12:35:00] [Server thread/INFO]: Steve lost connection: Disconnected",
+            "[12:35:01] [Server thread/INFO]: Saving chunks for level 'ServerLevel[world]'/minecraft:overworld",
+            "[26Jan2024 23:59:58.7] [Server thread/ERROR] [minecraft/DedicatedServer]: Encountered an unexpected exception",
+            "\tat net.minecraft.server.MinecraftServer.runServer(MinecraftServer.java:689)",
+    };
+
+    @Param({"100", "1000", "5000"})
+    public int rules;
+
+    private AlertEngine engine;
+    private LogLine[] lines;
+    private String[] messages;
+    private Pattern[] patterns;
+
+    @Setup
+    public void setup() {
+        List<AlertRule> list = new ArrayList<>(AlertRule.defaults());
+        Random random = new Random(42);
+        while (list.size() < rules) {
+            List<String> keywords = new ArrayList<>();
+            int count = 1 + random.nextInt(3);
+            for (int k = 0; k < count; k++) keywords.add(word(random));
+            list.add(new AlertRule("regla " + list.size(), keywords, null, 60));
+        }
+        engine = new AlertEngine("benchmark", list);
+
+        patterns = new Pattern[list.size()];
+        for (int r = 0; r < patterns.length; r++) {
+            StringJoiner alternatives = new StringJoiner("|");
+            for (String keyword : list.get(r).getKeywords()) alternatives.add(Pattern.quote(keyword));
+            patterns[r] = Pattern.compile(alternatives.toString(), Pattern.CASE_INSENSITIVE);
+        }
+
+        lines = new LogLine[SAMPLES.length];
+        messages = new String[SAMPLES.length];
+        LogLine line = new LogLine();
+        for (int i = 0; i < SAMPLES.length; i++) {
+            byte[] bytes = SAMPLES[i].getBytes(StandardCharsets.UTF_8);
+            LogLineParser.parse(bytes, 0, bytes.length, line);
+            lines[i] = line.copy();
+            messages[i] = line.getMessage();
+        }
+    }
+
+    private static String word(Random random) {
+        char[] chars = new char[5 + random.nextInt(8)];
+        for (int i = 0; i < chars.length; i++) chars[i] = (char) ('a' + random.nextInt(26));
+        return new String(chars);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void automaton() {
+        for (LogLine line : lines) engine.onLogLine(line);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void perRuleScan(Blackhole blackhole) {
+        for (String message : messages) {
+            for (Pattern pattern : patterns) {
+                blackhole.consume(pattern.matcher(message).find());
+            }
+        }
+    }
+}
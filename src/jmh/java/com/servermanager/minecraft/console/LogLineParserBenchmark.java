@@ -0,0 +1,69 @@
+package com.servermanager.minecraft.console;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide cuántas líneas por segundo analiza {@link LogLineParser} con una mezcla
+ * de formatos: vanilla, Paper, Forge, Fabric y líneas sin cabecera (trazas).
+ * <p>
+ * Las líneas se guardan seguidas en un único buffer, como las entrega la bomba
+ * de salida, y se reutiliza la misma {@link LogLine}. El objetivo es superar
+ * el millón de líneas por segundo; el resultado se da en líneas/s.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogLineParserBenchmark {
+
+    private static final String[] SAMPLES = {
+            "[12:34:56] [Server thread/INFO]: Done (3.2s)! For help, type \"help\"",
+            "[12:34:57] [Server thread/INFO]: Steve joined the game",
+            "[08:00:01 WARN]: Can't keep up! Is the server overloaded? Running 2034ms or 40 ticks behind",
+            "[08:00:02 INFO]: Steve issued server command: /gamemode creative",
+            "[26Jan2024 23:59:58.7] [Server thread/ERROR] [minecraft/DedicatedServer]: Encountered an unexpected exception",
+            "[26Jan2024 23:59:58.712] [modloading-worker-0/INFO] [net.minecraftforge.common.ForgeMod/FORGEMOD]: Forge mod loading",
+            "[10:00:00] [main/INFO] (Minecraft) Loading 12 mods",
+            "[10:00:00] [Worker-Main/3/WARNING]: Legacy level",
+            "java.lang.IllegalStateException: boom",
+            "\tat net.minecraft.server.MinecraftServer.runServer(MinecraftServer.java:689)",
+    };
+
+    /** Número de líneas del buffer; cada invocación las analiza todas */
+    private static final int LINES = 1000;
+
+    private byte[] data;
+    private final int[] offsets = new int[LINES];
+    private final int[] lengths = new int[LINES];
+    private final LogLine line = new LogLine();
+
+    @Setup
+    public void setup() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        for (int i = 0; i < LINES; i++) {
+            byte[] bytes = SAMPLES[i % SAMPLES.length].getBytes(StandardCharsets.UTF_8);
+            offsets[i] = buffer.size();
+            lengths[i] = bytes.length;
+            buffer.writeBytes(bytes);
+            buffer.write('\n');
+        }
+        data = buffer.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void mixedFormats(Blackhole blackhole) {
+        for (int i = 0; i < LINES; i++) {
+            blackhole.consume(LogLineParser.parse(data, offsets[i], lengths[i], line));
+            blackhole.consume(line.getSecondOfDay());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.servermanager.minecraft.net;
+
+import com.servermanager.minecraft.console.CommandChannel;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el envío de comandos por RCON ({@link RconClient}) con el envío por
+ * la entrada estándar del proceso ({@link CommandChannel}).
+ * <p>
+ * Cada invocación envía {@value #COMMANDS} comandos seguidos y espera todas las
+ * respuestas. Por RCON responde un servidor de prueba local que devuelve el
+ * texto de {@code echo}; por la entrada estándar, un proceso hijo que repite
+ * cada línea por su salida, de modo que en los dos casos se mide el viaje
+ * completo. El resultado se da en comandos/s.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandTransportBenchmark {
+
+    private static final int COMMANDS = 1000;
+    private static final String PASSWORD = "benchmark";
+
+    private NioEventLoop loop;
+    private RconStub stub;
+    private RconClient client;
+
+    private Process child;
+    private CommandChannel channel;
+    private InputStream echoes;
+    private final byte[] readBuffer = new byte[64 * 1024];
+
+    @Setup
+    public void setup() throws Exception {
+        loop = new NioEventLoop("Benchmark-Loop");
+        stub = new RconStub();
+        client = new RconClient("127.0.0.1", stub.port(), PASSWORD, loop);
+        client.connect().get(5, TimeUnit.SECONDS);
+
+        Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        child = new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"), Echo.class.getName())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        channel = new CommandChannel(child.getOutputStream(), StandardCharsets.UTF_8, 2 * COMMANDS, "Benchmark-Stdin");
+        echoes = child.getInputStream();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.close();
+        loop.close();
+        stub.close();
+        channel.close();
+        child.getOutputStream().close();
+        child.waitFor(5, TimeUnit.SECONDS);
+        child.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public String rcon() throws Exception {
+        CompletableFuture<String> last = null;
+        for (int i = 0; i < COMMANDS; i++) last = client.command("echo " + i);
+        // Las respuestas se completan en orden: basta con esperar la última
+        return last.get(30, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public int stdin() throws IOException {
+        for (int i = 0; i < COMMANDS; i++) {
+            if (!channel.submit("echo " + i, false)) throw new IllegalStateException("cola llena");
+        }
+        // Se espera a que el proceso devuelva todas las líneas
+        int lines = 0;
+        while (lines < COMMANDS) {
+            int read = echoes.read(readBuffer);
+            if (read < 0) throw new IOException("El proceso de prueba ha terminado");
+            for (int i = 0; i < read; i++) {
+                if (readBuffer[i] == '\n') lines++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Proceso hijo que repite su entrada por su salida, volcando cuando no
+     * queda nada más por leer, como un servidor que responde a cada lote.
+     */
+    public static final class Echo {
+        public static void main(String[] args) throws IOException {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = System.in.read(buffer)) >= 0) {
+                System.out.write(buffer, 0, read);
+                if (System.in.available() == 0) System.out.flush();
+            }
+            System.out.flush();
+        }
+    }
+
+    /**
+     * Servidor RCON mínimo que solo entiende {@code echo}, con el mismo formato
+     * de paquetes que Minecraft: la respuesta y el paquete final por cada comando.
+     */
+    private static final class RconStub {
+        private final ServerSocket server;
+        private volatile Socket socket;
+
+        RconStub() throws IOException {
+            server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::serve, "Rcon-Stub");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        void close() throws IOException {
+            server.close();
+            Socket s = socket;
+            if (s != null) s.close();
+        }
+
+        private void serve() {
+            try (Socket s = server.accept()) {
+                socket = s;
+                DataInputStream in = new DataInputStream(s.getInputStream());
+                OutputStream out = s.getOutputStream();
+                ByteBuffer packet = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+                while (true) {
+                    int length = Integer.reverseBytes(in.readInt());
+                    int id = Integer.reverseBytes(in.readInt());
+                    int type = Integer.reverseBytes(in.readInt());
+                    byte[] body = new byte[length - 10];
+                    in.readFully(body);
+                    in.readFully(new byte[2]);
+                    String text = new String(body, StandardCharsets.UTF_8);
+
+                    if (type == 3) {
+                        write(packet, PASSWORD.equals(text) ? id : -1, 2, "");
+                    } else if (type == 2) {
+                        write(packet, id, 0, text.startsWith("echo ") ? text.substring(5) : "Unknown command");
+                    } else {
+                        write(packet, id, 0, "Unknown request " + Integer.toHexString(type));
+                    }
+                    if (in.available() == 0 || packet.position() > packet.capacity() / 2) {
+                        out.write(packet.array(), 0, packet.position());
+                        out.flush();
+                        packet.clear();
+                    }
+                }
+            } catch (IOException e) {
+                // Conexión o servidor cerrados
+            }
+        }
+
+        private static void write(ByteBuffer packet, int id, int type, String body) {
+            byte[] payload = body.getBytes(StandardCharsets.UTF_8);
+            packet.putInt(10 + payload.length).putInt(id).putInt(type).put(payload).put((byte) 0).put((byte) 0);
+        }
+    }
+}
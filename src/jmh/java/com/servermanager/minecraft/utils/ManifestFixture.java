@@ -0,0 +1,83 @@
+package com.servermanager.minecraft.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Genera un manifiesto de versiones con la forma y el tamaño del de Mojang
+ * (unas 700 entradas con todos sus campos), para que los benchmarks no
+ * dependan de la red ni de la caché en disco.
+ */
+public final class ManifestFixture {
+
+    private ManifestFixture() {}
+
+    /**
+     * Ids en el orden en que los publica Mojang: de la más reciente a la más antigua,
+     * mezclando finales, pre-releases, release candidates, snapshots y versiones antiguas.
+     */
+    public static List<String> ids() {
+        List<String> ids = new ArrayList<>(1024);
+        for (int minor = 21; minor >= 0; minor--) {
+            int patches = minor >= 14 ? 6 : 3;
+            for (int patch = patches; patch >= 0; patch--) {
+                String release = patch == 0 ? "1." + minor : "1." + minor + "." + patch;
+                ids.add(release);
+                if (patch == 0 && minor >= 3) {
+                    for (int rc = 2; rc >= 1; rc--) ids.add(release + "-rc" + rc);
+                    for (int pre = 4; pre >= 1; pre--) ids.add(release + "-pre" + pre);
+                    if (minor >= 14) ids.add(release + " Pre-Release " + 1);
+                }
+            }
+        }
+        for (int year = 24; year >= 12; year--) {
+            for (int week = 50; week >= 1; week -= 2) {
+                ids.add(String.format("%02dw%02da", year, week));
+                if (week % 6 == 0) ids.add(String.format("%02dw%02db", year, week));
+            }
+        }
+        ids.add("24w14potato");
+        ids.add("23w13a_or_b");
+        ids.add("3D Shareware v1.34");
+        ids.add("1.RV-Pre1");
+        for (int i = 8; i >= 0; i--) ids.add("b1." + i + (i % 2 == 0 ? ".1" : ""));
+        for (int i = 2; i >= 0; i--) ids.add("a1.2." + i);
+        for (int i = 6; i >= 0; i--) ids.add("a1.0." + i);
+        ids.add("inf-20100618");
+        ids.add("c0.30_01c");
+        ids.add("c0.0.13a");
+        ids.add("rd-161348");
+        ids.add("rd-132211");
+        return ids;
+    }
+
+    /**
+     * Manifiesto JSON completo con los ids de {@link #ids()}.
+     */
+    public static String json() {
+        List<String> ids = ids();
+        StringBuilder json = new StringBuilder(ids.size() * 320);
+        json.append("{\"latest\": {\"release\": \"1.21\", \"snapshot\": \"24w50a\"}, \"versions\": [");
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            String type = type(id);
+            String sha1 = String.format("%040x", id.hashCode() & 0xffffffffL);
+            if (i > 0) json.append(", ");
+            json.append("{\"id\": \"").append(id)
+                    .append("\", \"type\": \"").append(type)
+                    .append("\", \"url\": \"https://piston-meta.mojang.com/v1/packages/").append(sha1).append('/').append(id).append(".json")
+                    .append("\", \"time\": \"2024-06-13T08:24:03+00:00\", \"releaseTime\": \"2024-06-13T08:24:03+00:00\"")
+                    .append(", \"sha1\": \"").append(sha1)
+                    .append("\", \"complianceLevel\": ").append(type.equals("release") || type.equals("snapshot") ? 1 : 0)
+                    .append('}');
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    private static String type(String id) {
+        if (id.startsWith("b1.")) return "old_beta";
+        if (id.startsWith("a1.") || id.startsWith("inf-") || id.startsWith("c0.") || id.startsWith("rd-")) return "old_alpha";
+        return id.matches("1\\.\\d+(\\.\\d+)?") ? "release" : "snapshot";
+    }
+}
@@ -0,0 +1,76 @@
+package com.servermanager.minecraft.utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.servermanager.minecraft.versions.MinecraftVersion;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la lectura en flujo del manifiesto de versiones
+ * ({@link MinecraftVersionLoader#parse(Path)}) con la lectura anterior, que cargaba
+ * el archivo entero en un String y construía el árbol JSON completo.
+ * <p>
+ * Ejecutar con {@code ./gradlew jmh}; el perfilador {@code gc} está activado en
+ * {@code build.gradle.kts} y añade {@code gc.alloc.rate.norm} (bytes por lectura).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManifestParseBenchmark {
+
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("version_manifest_v2", ".json");
+        Files.writeString(file, ManifestFixture.json(), StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<MinecraftVersion> streaming() throws IOException {
+        return MinecraftVersionLoader.parse(file);
+    }
+
+    /**
+     * Lectura anterior: el archivo completo en memoria y el árbol de Gson.
+     */
+    @Benchmark
+    public List<MinecraftVersion> dom() throws IOException {
+        String json = Files.readString(file, StandardCharsets.UTF_8);
+        List<MinecraftVersion> versions = new ArrayList<>();
+        JsonObject root = JsonParser.parseString(json).getAsJsonObject();
+        JsonArray versionArray = root.getAsJsonArray("versions");
+
+        for (JsonElement element : versionArray) {
+            JsonObject obj = element.getAsJsonObject();
+            String id = obj.get("id").getAsString();
+            String type = obj.get("type").getAsString();
+            String versionUrl = obj.get("url").getAsString();
+            boolean isStable = type.equals("release");
+
+            versions.add(new MinecraftVersion(id, isStable, versionUrl));
+        }
+        versions.sort(new MinecraftVersionComparator());
+        return Collections.unmodifiableList(versions);
+    }
+}
@@ -0,0 +1,95 @@
+package com.servermanager.minecraft.utils;
+
+import com.servermanager.minecraft.versions.MinecraftVersion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara ordenar el manifiesto completo con {@link MinecraftVersionComparator},
+ * que compara claves precalculadas, y con el comparador anterior, que partía
+ * las cadenas de versión en cada comparación.
+ * <p>
+ * {@code sortKeyWithConstruction} incluye además la creación de las versiones,
+ * que es donde se calcula la clave, para que la comparación sea justa.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VersionSortBenchmark {
+
+    private String[] ids;
+    private MinecraftVersion[] manifest;
+
+    @Setup
+    public void setup() {
+        List<String> list = ManifestFixture.ids();
+        ids = list.toArray(new String[0]);
+        manifest = new MinecraftVersion[ids.length];
+        for (int i = 0; i < ids.length; i++) manifest[i] = new MinecraftVersion(ids[i], false);
+    }
+
+    @Benchmark
+    public MinecraftVersion[] sortKey() {
+        MinecraftVersion[] versions = manifest.clone();
+        Arrays.sort(versions, new MinecraftVersionComparator());
+        return versions;
+    }
+
+    @Benchmark
+    public MinecraftVersion[] sortKeyWithConstruction() {
+        MinecraftVersion[] versions = new MinecraftVersion[ids.length];
+        for (int i = 0; i < ids.length; i++) versions[i] = new MinecraftVersion(ids[i], false);
+        Arrays.sort(versions, new MinecraftVersionComparator());
+        return versions;
+    }
+
+    @Benchmark
+    public MinecraftVersion[] splitStrings() {
+        MinecraftVersion[] versions = manifest.clone();
+        Arrays.sort(versions, new OldComparator());
+        return versions;
+    }
+
+    /**
+     * Comparador anterior: parte las dos cadenas en cada comparación.
+     */
+    static class OldComparator implements Comparator<MinecraftVersion> {
+
+        @Override
+        public int compare(MinecraftVersion v1, MinecraftVersion v2) {
+            return compareVersions(v2.getVersion(), v1.getVersion()); // orden descendente
+        }
+
+        private int compareVersions(String a, String b) {
+            String[] partsA = a.replace("Snapshot", "").trim().split("\\.");
+            String[] partsB = b.replace("Snapshot", "").trim().split("\\.");
+
+            int length = Math.max(partsA.length, partsB.length);
+            for (int i = 0; i < length; i++) {
+                int numA = i < partsA.length ? parseVersionPart(partsA[i]) : 0;
+                int numB = i < partsB.length ? parseVersionPart(partsB[i]) : 0;
+
+                if (numA != numB) {
+                    return Integer.compare(numA, numB);
+                }
+            }
+            return 0;
+        }
+
+        private int parseVersionPart(String part) {
+            try {
+                return Integer.parseInt(part);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+}
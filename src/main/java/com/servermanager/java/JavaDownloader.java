@@ -1,26 +1,61 @@
 package com.servermanager.java;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.servermanager.minecraft.net.DownloadProgress;
+import com.servermanager.minecraft.net.Downloads;
+import com.servermanager.minecraft.net.Http;
+import okhttp3.Response;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 
 import java.io.*;
-import java.net.*;
 import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermission;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Set;
 import java.util.zip.*;
 /**
  * Clase encargada de descargar e instalar automáticamente versiones de JDK desde Adoptium API.
- * Detecta el sistema operativo y arquitectura, descarga el archivo correspondiente, lo descomprime
- * y organiza la estructura de carpetas de forma estandarizada.
+ * Detecta el sistema operativo y arquitectura, descarga el archivo correspondiente y lo
+ * descomprime directamente desde la red en su carpeta definitiva.
  *
  * Requiere Apache Commons Compress para extraer archivos tar.gz en sistemas Unix.
  *
  * <p>Soporta Windows (ZIP) y Unix (tar.gz).</p>
  */
 public class JavaDownloader {
+
+    /** Metadatos de los paquetes de Adoptium: enlace y SHA-256 */
+    private static final String ASSETS_URL =
+            "https://api.adoptium.net/v3/assets/latest/%d/hotspot?architecture=%s&image_type=jdk&os=%s&vendor=eclipse";
+
+    /**
+     * Paquete de Adoptium a instalar.
+     */
+    private static class JdkPackage {
+        String name;
+        String link;
+        String checksum;
+        long size = -1;
+    }
+
     /**
      * Descarga e instala un JDK en el directorio objetivo.
+     * <p>
+     * El archivo no se guarda en disco: se descomprime y se extrae según llega,
+     * quitando la carpeta raíz del archivo (p. ej. {@code jdk-21.0.4+7/}) para que
+     * {@code bin/java} quede directamente en {@code targetDir}. La suma SHA-256 se
+     * calcula sobre el mismo flujo y se compara con la publicada por Adoptium; si
+     * no coincide, se borra lo extraído.
+     * </p>
      *
      * @param version   versión del JDK (por ejemplo, 17).
      * @param targetDir directorio destino donde se instalará el JDK.
@@ -29,33 +64,57 @@ public class JavaDownloader {
     public static void downloadJdk(int version, Path targetDir) throws IOException {
         String os = getOs();
         String arch = getArch();
-        String extension = os.equals("windows") ? "zip" : "tar.gz";
+        JdkPackage pkg = findPackage(version, os, arch);
 
-        String apiUrl = String.format(
-                "https://api.adoptium.net/v3/binary/latest/%d/ga/%s/%s/jdk/hotspot/normal/eclipse",
-                version, os, arch
-        );
-        // Descarga
-        System.out.println("[JavaDownloader] Descargando JDK desde: " + apiUrl);
-        Path downloadPath = Files.createTempFile("jdk", "." + extension);
-        try (InputStream in = new URL(apiUrl).openStream()) {
-            Files.copy(in, downloadPath, StandardCopyOption.REPLACE_EXISTING);
-        }
+        DownloadProgress progress = Downloads.start(DownloadProgress.Stage.JDK, String.valueOf(version), pkg.link);
+        progress.setTotalBytes(pkg.size);
+        // Restos de una instalación interrumpida
+        deleteRecursively(targetDir);
+        Files.createDirectories(targetDir);
 
-        // Extrae
-        if (os.equals("windows")) {
-            unzip(downloadPath, targetDir);
-        } else {
-            untar(downloadPath, targetDir);
+        MessageDigest digest = sha256();
+        try (Response response = Http.get(pkg.link, progress);
+             InputStream in = new DigestInputStream(new BufferedInputStream(progress.track(response.body().byteStream()), 64 * 1024), digest)) {
+            if (pkg.name.endsWith(".zip")) {
+                unzip(in, targetDir);
+            } else {
+                untar(in, targetDir);
+            }
+            // Lo que quede tras el final del archivo también cuenta para la suma
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException | RuntimeException e) {
+            Downloads.fail(progress, e);
+            deleteRecursively(targetDir);
+            throw e;
         }
-        renameExtractedJdkDir(targetDir, version);
 
-        // Corrige la estructura: mueve JDK interno a jres/jdk<version>
-        moveToRootJdkDir(targetDir);
-
-        // Limpia
-        Files.deleteIfExists(downloadPath);
-        System.out.println("[JavaDownloader] JDK " + version + " descargado y listo en: " + targetDir.toAbsolutePath());
+        String actual = HexFormat.of().formatHex(digest.digest());
+        if (pkg.checksum != null && !actual.equalsIgnoreCase(pkg.checksum)) {
+            deleteRecursively(targetDir);
+            IOException mismatch = new IOException("SHA-256 incorrecto para " + pkg.name + ": se esperaba " + pkg.checksum + " y se obtuvo " + actual);
+            Downloads.fail(progress, mismatch);
+            throw mismatch;
+        }
+        Downloads.finish(progress);
+    }
+    // Consulta a Adoptium el paquete más reciente para esta versión, sistema y arquitectura
+    private static JdkPackage findPackage(int version, String os, String arch) throws IOException {
+        String url = String.format(ASSETS_URL, version, arch, os);
+        try (Response response = Http.get(url);
+             Reader reader = response.body().charStream()) {
+            JsonArray releases = JsonParser.parseReader(reader).getAsJsonArray();
+            if (releases.isEmpty()) throw new IOException("Adoptium no tiene JDK " + version + " para " + os + "/" + arch);
+            JsonObject json = releases.get(0).getAsJsonObject()
+                    .getAsJsonObject("binary").getAsJsonObject("package");
+            JdkPackage pkg = new JdkPackage();
+            pkg.name = json.get("name").getAsString();
+            pkg.link = json.get("link").getAsString();
+            pkg.checksum = json.has("checksum") ? json.get("checksum").getAsString() : null;
+            if (json.has("size")) pkg.size = json.get("size").getAsLong();
+            return pkg;
+        } catch (IllegalStateException | NullPointerException e) {
+            throw new IOException("Respuesta de Adoptium no válida para JDK " + version, e);
+        }
     }
     // Detecta el sistema operativo actual
     private static String getOs() {
@@ -69,112 +128,116 @@ public class JavaDownloader {
         String arch = System.getProperty("os.arch");
         return (arch.contains("64") || arch.equals("amd64")) ? "x64" : "x32";
     }
-    // Descomprime un archivo ZIP en el directorio destino
-    private static void unzip(Path zipFile, Path targetDir) throws IOException {
-        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFile.toFile()))) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                Path filePath = targetDir.resolve(entry.getName());
-                if (entry.isDirectory()) {
-                    Files.createDirectories(filePath);
-                } else {
-                    Files.createDirectories(filePath.getParent());
-                    Files.copy(zis, filePath, StandardCopyOption.REPLACE_EXISTING);
-                }
+    // Descomprime un flujo ZIP en el directorio destino, sin la carpeta raíz
+    private static void unzip(InputStream in, Path targetDir) throws IOException {
+        ZipInputStream zis = new ZipInputStream(in);
+        ZipEntry entry;
+        while ((entry = zis.getNextEntry()) != null) {
+            Path filePath = resolveStripped(targetDir, entry.getName());
+            if (filePath == null) continue;
+            if (entry.isDirectory()) {
+                Files.createDirectories(filePath);
+            } else {
+                Files.createDirectories(filePath.getParent());
+                Files.copy(zis, filePath, StandardCopyOption.REPLACE_EXISTING);
             }
         }
     }
     /**
-     * Extrae un archivo .tar.gz al directorio destino. Protege contra ataques ZipSlip.
+     * Extrae un flujo .tar.gz al directorio destino, sin la carpeta raíz. Conserva
+     * los permisos de ejecución y los enlaces. Protege contra ataques ZipSlip.
      *
-     * @param tarGzFile archivo a descomprimir.
+     * @param in flujo comprimido.
      * @param targetDir carpeta destino.
      * @throws IOException si ocurre un error durante la extracción.
      */
-    public static void untar(Path tarGzFile, Path targetDir) throws IOException {
-        try (InputStream fi = Files.newInputStream(tarGzFile);
-             InputStream gzi = new GzipCompressorInputStream(fi);
-             TarArchiveInputStream tarIn = new TarArchiveInputStream(gzi)) {
-
-            TarArchiveEntry entry;
-            while ((entry = tarIn.getNextEntry()) != null) {
-                Path outputPath = targetDir.resolve(entry.getName()).normalize();
+    private static void untar(InputStream in, Path targetDir) throws IOException {
+        TarArchiveInputStream tarIn = new TarArchiveInputStream(new GzipCompressorInputStream(in));
+        boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
 
-                if (!outputPath.startsWith(targetDir)) {
-                    // Evita paths fuera del destino (ataque ZipSlip)
-                    throw new IOException("Entrada fuera del directorio objetivo: " + entry.getName());
-                }
+        TarArchiveEntry entry;
+        while ((entry = tarIn.getNextEntry()) != null) {
+            Path outputPath = resolveStripped(targetDir, entry.getName());
+            if (outputPath == null) continue;
 
-                if (entry.isDirectory()) {
-                    Files.createDirectories(outputPath);
-                } else {
-                    if (outputPath.getParent() != null) {
-                        Files.createDirectories(outputPath.getParent());
-                    }
-                    Files.copy(tarIn, outputPath);
-                }
+            if (entry.isDirectory()) {
+                Files.createDirectories(outputPath);
+                continue;
             }
-        }
-    }
-    // Mueve el contenido del JDK extraído directamente a la raíz del destino
-    private static void moveToRootJdkDir(Path targetDir) throws IOException {
-        // A veces el ZIP crea un subdirectorio jdk-17.x.x dentro de jres/jdk17
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(targetDir)) {
-            for (Path sub : stream) {
-                if (Files.isDirectory(sub) && sub.getFileName().toString().startsWith("jdk")) {
-                    Path temp = sub.resolve("bin").getParent();
-                    if (Files.exists(temp)) {
-                        moveDirectoryContents(sub, targetDir);
-                        Files.walk(sub)
-                                .sorted(Comparator.reverseOrder())
-                                .map(Path::toFile)
-                                .forEach(File::delete);
-                        break;
-                    }
+            Files.createDirectories(outputPath.getParent());
+            if (entry.isSymbolicLink()) {
+                Path link = Paths.get(entry.getLinkName());
+                if (!outputPath.getParent().resolve(link).normalize().startsWith(targetDir.normalize())) {
+                    throw new IOException("Enlace fuera del directorio objetivo: " + entry.getName());
                 }
+                Files.deleteIfExists(outputPath);
+                Files.createSymbolicLink(outputPath, link);
+            } else if (entry.isLink()) {
+                Path existing = resolveStripped(targetDir, entry.getLinkName());
+                if (existing == null) throw new IOException("Enlace no válido: " + entry.getName());
+                Files.deleteIfExists(outputPath);
+                Files.createLink(outputPath, existing);
+            } else {
+                Files.copy(tarIn, outputPath, StandardCopyOption.REPLACE_EXISTING);
+                if (posix) Files.setPosixFilePermissions(outputPath, toPermissions(entry.getMode()));
             }
         }
     }
-    // Mueve archivos de un directorio a otro
-    private static void moveDirectoryContents(Path src, Path dest) throws IOException {
-        Files.walk(src).forEach(sourcePath -> {
-            try {
-                Path targetPath = dest.resolve(src.relativize(sourcePath));
-                if (Files.isDirectory(sourcePath)) {
-                    Files.createDirectories(targetPath);
-                } else {
-                    Files.move(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
-                }
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        });
-    }
     /**
-     * Renombra el directorio JDK extraído a un nombre estándar como "jdk17".
+     * Resuelve una entrada del archivo dentro del destino, quitando su primer
+     * componente (la carpeta raíz del JDK).
      *
-     * @param jresDir     directorio base donde se extrajo el JDK.
-     * @param javaVersion versión de Java.
-     * @throws IOException si el JDK no se encuentra o hay errores al moverlo.
+     * @return la ruta, o null si la entrada es la propia carpeta raíz.
+     * @throws IOException si la entrada queda fuera del destino (ataque ZipSlip).
      */
-    public static void renameExtractedJdkDir(Path jresDir, int javaVersion) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(jresDir)) {
-            for (Path subDir : stream) {
-                if (Files.isDirectory(subDir) && subDir.getFileName().toString().startsWith("jdk")) {
-                    Path target = jresDir.resolve("jdk" + javaVersion);
-                    if (Files.exists(target)) {
-                        // Borrar el destino si ya existía (puedes adaptar esto si quieres conservarlo)
-                        Files.walk(target)
-                                .sorted(Comparator.reverseOrder())
-                                .map(Path::toFile)
-                                .forEach(File::delete);
-                    }
-                    Files.move(subDir, target);
-                    return;
+    private static Path resolveStripped(Path targetDir, String name) throws IOException {
+        String normalized = name.replace('\\', '/');
+        while (normalized.startsWith("./")) normalized = normalized.substring(2);
+        int slash = normalized.indexOf('/');
+        if (slash < 0 || slash == normalized.length() - 1) return null;
+        Path root = targetDir.normalize();
+        Path path = root.resolve(normalized.substring(slash + 1)).normalize();
+        if (!path.startsWith(root)) {
+            throw new IOException("Entrada fuera del directorio objetivo: " + name);
+        }
+        return path;
+    }
+    // Convierte el modo Unix de una entrada en permisos POSIX
+    private static Set<PosixFilePermission> toPermissions(int mode) {
+        Set<PosixFilePermission> permissions = EnumSet.noneOf(PosixFilePermission.class);
+        PosixFilePermission[] bits = {
+                PosixFilePermission.OTHERS_EXECUTE, PosixFilePermission.OTHERS_WRITE, PosixFilePermission.OTHERS_READ,
+                PosixFilePermission.GROUP_EXECUTE, PosixFilePermission.GROUP_WRITE, PosixFilePermission.GROUP_READ,
+                PosixFilePermission.OWNER_EXECUTE, PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_READ
+        };
+        for (int i = 0; i < bits.length; i++) {
+            if ((mode & (1 << i)) != 0) permissions.add(bits[i]);
+        }
+        // El propietario siempre puede leer y escribir lo que ha extraído
+        permissions.add(PosixFilePermission.OWNER_READ);
+        permissions.add(PosixFilePermission.OWNER_WRITE);
+        return permissions;
+    }
+    // Borra un directorio y todo su contenido, si existe
+    static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) return;
+        try (var paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-            }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        throw new IOException("No se encontró carpeta JDK tras descomprimir.");
     }
-
 }
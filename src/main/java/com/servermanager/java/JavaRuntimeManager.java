@@ -1,14 +1,31 @@
 package com.servermanager.java;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 /**
  * Clase de utilidad para gestionar ejecuciones con versiones específicas del JDK.
  * Asegura que la versión requerida esté instalada, y si no lo está, la descarga usando {@link JavaDownloader}.
+ * <p>
+ * Cada versión se instala una sola vez aunque la pidan varios servidores a la vez:
+ * dentro del proceso, todos esperan a la misma descarga; entre varios gestores
+ * sobre la misma carpeta, un cerrojo de archivo deja instalar solo a uno. El JDK
+ * se extrae en una carpeta temporal y se renombra a su sitio al terminar, así que
+ * nunca se ve una instalación a medias.
+ * </p>
  */
 public class JavaRuntimeManager {
 
     private static final String BASE_DIR = "jres";
+
+    /** Instalaciones en curso por versión de Java */
+    private static final Map<Integer, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
     /**
      * Retorna la ruta al ejecutable de Java para una versión específica.
      * Si no está instalado, lo descarga automáticamente.
@@ -18,20 +35,72 @@ public class JavaRuntimeManager {
      * @throws IOException si ocurre un error durante la descarga o verificación.
      */
     public static Path getJavaExecutable(int version) throws IOException {
-        Path jdkDir = Paths.get(BASE_DIR, "jdk" + version);
-        String executableName = isWindows() ? "java.exe" : "java";
-        Path javaExecutable = jdkDir.resolve("bin").resolve(executableName);
+        Path javaExecutable = executableIn(jdkDir(version));
+        if (Files.exists(javaExecutable)) return javaExecutable;
 
-        if (!Files.exists(javaExecutable)) {
-            JavaDownloader.downloadJdk(version, jdkDir);// tu lógica de descarga
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(version, created);
+        if (existing == null) {
+            // Este hilo instala; los demás que pidan la misma versión esperan su resultado
+            try {
+                created.complete(provision(version));
+            } catch (IOException | RuntimeException e) {
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(version, created);
+            }
         }
-
-        if (!Files.exists(javaExecutable)) {
-            throw new IOException("java no encontrado tras intentar descargar JDK " + version);
+        try {
+            return (existing != null ? existing : created).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando a la instalación del JDK " + version);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException("No se pudo instalar el JDK " + version, e.getCause());
         }
+    }
+    /**
+     * Instala una versión bajo el cerrojo de archivo compartido con otros gestores.
+     */
+    private static Path provision(int version) throws IOException {
+        Path jdkDir = jdkDir(version);
+        Path javaExecutable = executableIn(jdkDir);
+        Files.createDirectories(jdkDir.getParent());
+
+        try (FileChannel lockChannel = FileChannel.open(jdkDir.resolveSibling("jdk" + version + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = lockChannel.lock();
+            try {
+                // Otro gestor pudo instalarlo mientras se esperaba el cerrojo
+                if (Files.exists(javaExecutable)) return javaExecutable;
 
+                Path staging = jdkDir.resolveSibling("jdk" + version + ".tmp");
+                JavaDownloader.downloadJdk(version, staging);
+                if (!Files.exists(executableIn(staging))) {
+                    JavaDownloader.deleteRecursively(staging);
+                    throw new IOException("java no encontrado tras intentar descargar JDK " + version);
+                }
+                // Restos de una instalación anterior sin ejecutable
+                JavaDownloader.deleteRecursively(jdkDir);
+                try {
+                    Files.move(staging, jdkDir, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(staging, jdkDir);
+                }
+            } finally {
+                lock.release();
+            }
+        }
         return javaExecutable;
     }
+    private static Path jdkDir(int version) {
+        return Paths.get(BASE_DIR, "jdk" + version);
+    }
+    private static Path executableIn(Path jdkDir) {
+        String executableName = isWindows() ? "java.exe" : "java";
+        return jdkDir.resolve("bin").resolve(executableName);
+    }
     // Detecta si el sistema operativo es Windows
     private static boolean isWindows() {
         return System.getProperty("os.name").toLowerCase().contains("win");
@@ -0,0 +1,213 @@
+package com.servermanager.minecraft.console;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Motor de reglas de alerta sobre la salida de consola de un servidor.
+ * <p>
+ * Todas las palabras clave de todas las reglas se compilan en un único
+ * {@link KeywordAutomaton}, de modo que cada línea se recorre una sola vez sea
+ * cual sea el número de reglas. Solo las reglas cuyas palabras aparecen en la
+ * línea pasan a la segunda fase, la expresión regular, si la tienen.
+ * </p>
+ * <p>
+ * Cada regla lleva un contador de activaciones y un tiempo mínimo entre avisos:
+ * las activaciones dentro de ese tiempo se cuentan pero no se notifican, y el
+ * siguiente aviso indica cuántas se silenciaron.
+ * </p>
+ */
+public class AlertEngine implements LogLineListener {
+
+    /** Hilo compartido por todos los servidores para entregar avisos. */
+    private static final ExecutorService DELIVERY = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Server-Alerts");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String server;
+    private final List<AlertListener> listeners = new CopyOnWriteArrayList<>();
+
+    /** Reglas compiladas; se sustituyen enteras al cambiar las reglas. */
+    private volatile Compiled compiled;
+
+    /**
+     * Reglas ya compiladas junto con su estado. El estado de aviso solo lo toca
+     * el hilo de la bomba; los contadores se leen desde cualquier hilo.
+     */
+    private static final class Compiled implements KeywordAutomaton.MatchVisitor {
+        final AlertRule[] rules;
+        final int[] keywordRule;
+        final KeywordAutomaton automaton;
+        final AtomicLongArray hits;
+        final long[] lastAlert;
+        final long[] suppressed;
+
+        /** Reglas candidatas de la línea actual, sin repetir. */
+        final int[] candidates;
+        final int[] seen;
+        int candidateCount;
+        int stamp;
+
+        Compiled(List<AlertRule> rules) {
+            this.rules = rules.toArray(new AlertRule[0]);
+            List<byte[]> keywords = new ArrayList<>();
+            List<Integer> owners = new ArrayList<>();
+            for (int r = 0; r < this.rules.length; r++) {
+                for (String keyword : this.rules[r].getKeywords()) {
+                    keywords.add(keyword.getBytes(StandardCharsets.UTF_8));
+                    owners.add(r);
+                }
+            }
+            keywordRule = owners.stream().mapToInt(Integer::intValue).toArray();
+            automaton = new KeywordAutomaton(keywords);
+            hits = new AtomicLongArray(this.rules.length);
+            lastAlert = new long[this.rules.length];
+            suppressed = new long[this.rules.length];
+            candidates = new int[this.rules.length];
+            seen = new int[this.rules.length];
+        }
+
+        @Override
+        public void onMatch(int keyword) {
+            int rule = keywordRule[keyword];
+            if (seen[rule] != stamp) {
+                seen[rule] = stamp;
+                candidates[candidateCount++] = rule;
+            }
+        }
+    }
+
+    /**
+     * Crea el motor de un servidor.
+     *
+     * @param server nombre del servidor, que se incluye en los avisos.
+     * @param rules  reglas iniciales.
+     */
+    public AlertEngine(String server, List<AlertRule> rules) {
+        this.server = server;
+        setRules(rules);
+    }
+
+    /**
+     * Sustituye las reglas. Las reglas sin palabras clave no vacías o con una expresión
+     * regular inválida se descartan. Los contadores vuelven a cero.
+     *
+     * @param rules nuevas reglas.
+     */
+    public void setRules(List<AlertRule> rules) {
+        List<AlertRule> valid = new ArrayList<>();
+        for (AlertRule rule : rules) {
+            if (rule.getKeywords().isEmpty()) {
+                System.err.println("Regla de alerta sin palabras clave ignorada: " + rule.getName());
+                continue;
+            }
+            try {
+                rule.getPattern();
+            } catch (PatternSyntaxException e) {
+                System.err.println("Regla de alerta con expresión inválida ignorada: " + rule.getName() + ": " + e.getMessage());
+                continue;
+            }
+            valid.add(rule);
+        }
+        compiled = new Compiled(valid);
+    }
+
+    @Override
+    public void onLogLine(LogLine line) {
+        Compiled c = compiled;
+        if (c.rules.length == 0) return;
+        if (++c.stamp == 0) {
+            // El sello ha dado la vuelta: se limpian las marcas para no confundirlas
+            Arrays.fill(c.seen, 0);
+            c.stamp = 1;
+        }
+        c.candidateCount = 0;
+        c.automaton.scan(line.getData(), line.getMessageStart(), line.getMessageEnd(), c);
+        if (c.candidateCount == 0) return;
+
+        String text = null;
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < c.candidateCount; i++) {
+            int r = c.candidates[i];
+            AlertRule rule = c.rules[r];
+            if (rule.getPattern() != null) {
+                if (text == null) text = line.getMessage();
+                if (!rule.getPattern().matcher(text).find()) continue;
+            }
+            c.hits.incrementAndGet(r);
+            if (c.lastAlert[r] != 0 && now - c.lastAlert[r] < rule.getCooldownMillis()) {
+                c.suppressed[r]++;
+                continue;
+            }
+            c.lastAlert[r] = now;
+            long skipped = c.suppressed[r];
+            c.suppressed[r] = 0;
+            notifyListeners(rule, line.toString(), skipped);
+        }
+    }
+
+    private void notifyListeners(AlertRule rule, String line, long suppressed) {
+        if (listeners.isEmpty()) return;
+        DELIVERY.execute(() -> {
+            for (AlertListener listener : listeners) {
+                try {
+                    listener.onAlert(rule, server, line, suppressed);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /**
+     * Registra un receptor de avisos.
+     *
+     * @param listener receptor a añadir.
+     */
+    public void addListener(AlertListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Elimina un receptor de avisos.
+     *
+     * @param listener receptor a quitar.
+     */
+    public void removeListener(AlertListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Obtiene el número de activaciones de cada regla, avisadas o silenciadas.
+     *
+     * @return mapa de nombre de regla a activaciones, en el orden de las reglas.
+     */
+    public Map<String, Long> getHits() {
+        Compiled c = compiled;
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int r = 0; r < c.rules.length; r++) {
+            result.merge(c.rules[r].getName(), c.hits.get(r), Long::sum);
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene las reglas activas.
+     *
+     * @return lista de reglas.
+     */
+    public List<AlertRule> getRules() {
+        return List.of(compiled.rules);
+    }
+}
@@ -0,0 +1,22 @@
+package com.servermanager.minecraft.console;
+
+/**
+ * Receptor de los avisos de un {@link AlertEngine}.
+ * <p>
+ * Se invoca desde el hilo de avisos compartido; si necesita tocar la interfaz
+ * debe pasar al hilo de JavaFX.
+ * </p>
+ */
+@FunctionalInterface
+public interface AlertListener {
+
+    /**
+     * Recibe un aviso.
+     *
+     * @param rule       regla que se ha activado.
+     * @param server     nombre del servidor.
+     * @param line       línea que la activó.
+     * @param suppressed activaciones de la regla silenciadas desde el aviso anterior.
+     */
+    void onAlert(AlertRule rule, String server, String line, long suppressed);
+}
@@ -0,0 +1,128 @@
+package com.servermanager.minecraft.console;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Regla de alerta sobre la salida de consola de un servidor.
+ * <p>
+ * Una línea activa la regla si contiene alguna de sus palabras clave (sin
+ * distinguir mayúsculas) y, si la regla tiene expresión regular, además la
+ * cumple. Las palabras clave son obligatorias: la expresión solo se evalúa
+ * sobre las líneas que ya las contienen. Se guarda en la configuración del
+ * servidor.
+ * </p>
+ */
+public class AlertRule {
+
+    /** Nombre de la regla, que aparece en los avisos. */
+    private String name;
+
+    /** Palabras clave; basta con que aparezca una. */
+    private List<String> keywords = new ArrayList<>();
+
+    /** Expresión regular opcional de segunda fase. */
+    private String regex;
+
+    /** Tiempo mínimo entre avisos de la regla, en segundos. */
+    private int cooldownSegundos = 60;
+
+    /** Expresión compilada (no se guarda). */
+    private transient Pattern pattern;
+
+    /**
+     * Constructor vacío para la deserialización.
+     */
+    public AlertRule() {
+    }
+
+    /**
+     * Crea una regla.
+     *
+     * @param name             nombre de la regla.
+     * @param keywords         palabras clave.
+     * @param regex            expresión regular de segunda fase, o null.
+     * @param cooldownSegundos segundos mínimos entre avisos.
+     */
+    public AlertRule(String name, List<String> keywords, String regex, int cooldownSegundos) {
+        this.name = name;
+        this.keywords = new ArrayList<>(keywords);
+        this.regex = regex;
+        this.cooldownSegundos = cooldownSegundos;
+    }
+
+    /**
+     * Reglas que se usan cuando el servidor no tiene ninguna configurada.
+     *
+     * @return lista de reglas por defecto.
+     */
+    public static List<AlertRule> defaults() {
+        List<AlertRule> rules = new ArrayList<>();
+        rules.add(new AlertRule("Memoria agotada", List.of("OutOfMemoryError"), null, 60));
+        rules.add(new AlertRule("Servidor sobrecargado", List.of("Can't keep up!"), null, 300));
+        rules.add(new AlertRule("Fallo del servidor",
+                List.of("This crash report has been saved to", "Encountered an unexpected exception"), null, 60));
+        rules.add(new AlertRule("Cliente expulsado por error", List.of("lost connection: Internal Exception"), null, 60));
+        return rules;
+    }
+
+    /**
+     * Obtiene el nombre de la regla.
+     *
+     * @return el nombre.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Obtiene las palabras clave. Las vacías o nulas (posibles en una
+     * configuración editada a mano) se omiten, porque nunca aparecerían.
+     *
+     * @return lista de palabras clave no vacías.
+     */
+    public List<String> getKeywords() {
+        if (keywords == null) return List.of();
+        List<String> valid = new ArrayList<>(keywords.size());
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isEmpty()) valid.add(keyword);
+        }
+        return valid;
+    }
+
+    /**
+     * Obtiene la expresión regular de segunda fase.
+     *
+     * @return la expresión, o null si la regla no tiene.
+     */
+    public String getRegex() {
+        return regex;
+    }
+
+    /**
+     * Obtiene la expresión regular compilada.
+     *
+     * @return el patrón, o null si la regla no tiene expresión.
+     */
+    public Pattern getPattern() {
+        if (pattern == null && regex != null && !regex.isEmpty()) {
+            pattern = Pattern.compile(regex);
+        }
+        return pattern;
+    }
+
+    /**
+     * Obtiene el tiempo mínimo entre avisos.
+     *
+     * @return milisegundos entre avisos.
+     */
+    public long getCooldownMillis() {
+        return Math.max(0, cooldownSegundos) * 1000L;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
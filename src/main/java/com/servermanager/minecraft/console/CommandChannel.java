@@ -0,0 +1,190 @@
+package com.servermanager.minecraft.console;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Canal asíncrono de comandos hacia la entrada estándar de un servidor.
+ * <p>
+ * Quien envía un comando solo lo encola, sin bloquearse. Un hilo escritor
+ * propio junta todos los comandos pendientes en una sola escritura y un solo
+ * volcado. Hay una vía prioritaria para los comandos que no deben esperar
+ * detrás de una carga masiva ({@code stop}, {@code kick}...). Ambas colas
+ * están acotadas: si se llenan, el comando se rechaza y se cuenta.
+ * </p>
+ */
+public class CommandChannel {
+
+    /** Capacidad por defecto de cada cola. */
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    /** Máximo de bytes escritos de una vez. */
+    private static final int MAX_BATCH_BYTES = 64 * 1024;
+
+    private final OutputStream out;
+    private final Charset charset;
+    private final int capacity;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<String> priority = new ArrayDeque<>();
+    private final ArrayDeque<String> bulk = new ArrayDeque<>();
+    private boolean closed;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * Crea el canal y arranca su hilo escritor.
+     *
+     * @param out      entrada estándar del proceso.
+     * @param charset  codificación con la que el servidor lee su entrada.
+     * @param capacity máximo de comandos pendientes en cada vía.
+     * @param name     nombre del hilo escritor.
+     */
+    public CommandChannel(OutputStream out, Charset charset, int capacity, String name) {
+        this.out = out;
+        this.charset = charset;
+        this.capacity = capacity;
+        Thread thread = new Thread(this::writeLoop, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Indica si un comando va por la vía prioritaria.
+     *
+     * @param command comando, con o sin barra inicial.
+     * @return true para {@code stop}, {@code kick}, {@code ban} y {@code ban-ip}.
+     */
+    public static boolean isPriority(String command) {
+        String c = command.startsWith("/") ? command.substring(1) : command;
+        int space = c.indexOf(' ');
+        String name = (space < 0 ? c : c.substring(0, space)).toLowerCase(Locale.ROOT);
+        return name.equals("stop") || name.equals("kick") || name.equals("ban") || name.equals("ban-ip");
+    }
+
+    /**
+     * Encola un comando, por la vía que le corresponda según {@link #isPriority(String)}.
+     *
+     * @param command comando a enviar.
+     * @return true si se encoló; false si la cola está llena o el canal cerrado.
+     */
+    public boolean submit(String command) {
+        return submit(command, isPriority(command));
+    }
+
+    /**
+     * Encola un comando.
+     *
+     * @param command  comando a enviar.
+     * @param urgent   true para adelantarlo a los comandos normales pendientes.
+     * @return true si se encoló; false si la cola está llena o el canal cerrado.
+     */
+    public boolean submit(String command, boolean urgent) {
+        synchronized (lock) {
+            ArrayDeque<String> lane = urgent ? priority : bulk;
+            if (closed || lane.size() >= capacity) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            lane.add(command);
+            submitted.incrementAndGet();
+            lock.notifyAll();
+        }
+        return true;
+    }
+
+    private void writeLoop() {
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(4 * 1024);
+        try {
+            while (true) {
+                int count = 0;
+                synchronized (lock) {
+                    while (priority.isEmpty() && bulk.isEmpty() && !closed) lock.wait();
+                    if (priority.isEmpty() && bulk.isEmpty()) return;
+                    while (batch.size() < MAX_BATCH_BYTES && (!priority.isEmpty() || !bulk.isEmpty())) {
+                        String command = !priority.isEmpty() ? priority.poll() : bulk.poll();
+                        batch.writeBytes(command.getBytes(charset));
+                        batch.write('\n');
+                        count++;
+                    }
+                }
+                batch.writeTo(out);
+                out.flush();
+                batch.reset();
+                written.addAndGet(count);
+                batches.incrementAndGet();
+            }
+        } catch (IOException e) {
+            // El proceso ha cerrado su entrada: lo pendiente ya no se puede entregar
+            close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Cierra el canal. Los comandos ya encolados se siguen escribiendo si el
+     * proceso los acepta; los nuevos se rechazan.
+     */
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Obtiene el número de comandos pendientes de escribir.
+     *
+     * @return comandos en cola.
+     */
+    public int getPending() {
+        synchronized (lock) {
+            return priority.size() + bulk.size();
+        }
+    }
+
+    /**
+     * Obtiene el número de comandos aceptados.
+     *
+     * @return comandos encolados desde la creación del canal.
+     */
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    /**
+     * Obtiene el número de comandos rechazados por cola llena o canal cerrado.
+     *
+     * @return comandos rechazados.
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Obtiene el número de comandos escritos en el proceso.
+     *
+     * @return comandos escritos.
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * Obtiene el número de escrituras hechas; cada una agrupa uno o más comandos.
+     *
+     * @return escrituras realizadas.
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+}
@@ -0,0 +1,133 @@
+package com.servermanager.minecraft.console;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Asocia los comandos enviados por la entrada estándar con las líneas de salida
+ * que producen.
+ * <p>
+ * La consola no tiene identificadores de petición, así que cada consulta
+ * declara con un {@link ResponseMatcher} qué líneas forman su respuesta. Cada
+ * línea se ofrece a las consultas pendientes por orden de llegada y se la
+ * queda la primera que la acepta. Una consulta termina cuando su reconocedor la
+ * da por completa, cuando pasa un intervalo de silencio tras su última línea o,
+ * si no llegó ninguna, cuando se agota su tiempo.
+ * </p>
+ */
+public class CommandCorrelator implements LogLineListener {
+
+    /** Intervalo de silencio por defecto que cierra una respuesta de varias líneas. */
+    public static final long DEFAULT_QUIET_MILLIS = 250;
+
+    /** Hilo compartido para los plazos de todas las consultas. */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Console-Queries");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Consulta a la espera de su respuesta.
+     */
+    private final class Pending {
+        final ResponseMatcher matcher;
+        final long quietMillis;
+        final CompletableFuture<List<String>> future = new CompletableFuture<>();
+        final List<String> lines = new ArrayList<>();
+        long lastLineAt;
+        boolean done;
+
+        Pending(ResponseMatcher matcher, long quietMillis) {
+            this.matcher = matcher;
+            this.quietMillis = quietMillis;
+        }
+
+        /** Solo lo llama el hilo de la bomba. */
+        boolean offer(LogLine line) {
+            if (!matcher.accepts(line)) return false;
+            synchronized (this) {
+                if (done) return false;
+                lines.add(line.getMessage());
+                lastLineAt = System.nanoTime();
+                if (matcher.completes(line, lines.size())) {
+                    finish();
+                } else {
+                    TIMER.schedule(this::checkQuiet, quietMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+            return true;
+        }
+
+        synchronized void checkQuiet() {
+            if (System.nanoTime() - lastLineAt >= TimeUnit.MILLISECONDS.toNanos(quietMillis)) finish();
+        }
+
+        synchronized void timeout() {
+            if (done) return;
+            if (lines.isEmpty()) {
+                done = true;
+                pending.remove(this);
+                future.completeExceptionally(new TimeoutException("El servidor no respondió al comando"));
+            } else {
+                finish();
+            }
+        }
+
+        /**
+         * Cierra la respuesta. El futuro se completa en el hilo de plazos para que
+         * lo que encadene quien consulta no se ejecute en el hilo de la bomba.
+         */
+        synchronized void finish() {
+            if (done) return;
+            done = true;
+            pending.remove(this);
+            List<String> response = new ArrayList<>(lines);
+            TIMER.execute(() -> future.complete(response));
+        }
+    }
+
+    /**
+     * Registra una consulta. Debe llamarse justo antes de enviar el comando, para
+     * que ninguna línea de la respuesta llegue antes de estar registrada.
+     *
+     * @param matcher       reconocedor de las líneas de la respuesta.
+     * @param timeoutMillis tiempo máximo de espera.
+     * @param quietMillis   silencio que da por terminada una respuesta de varias líneas.
+     * @return futuro que se completa con los mensajes de la respuesta, o falla con
+     *         {@link TimeoutException} si no llegó ninguna línea.
+     */
+    public CompletableFuture<List<String>> expect(ResponseMatcher matcher, long timeoutMillis, long quietMillis) {
+        Pending request = new Pending(matcher, quietMillis);
+        pending.add(request);
+        TIMER.schedule(request::timeout, timeoutMillis, TimeUnit.MILLISECONDS);
+        // Si se cancela desde fuera deja de recibir líneas
+        request.future.whenComplete((lines, error) -> pending.remove(request));
+        return request.future;
+    }
+
+    @Override
+    public void onLogLine(LogLine line) {
+        if (pending.isEmpty()) return;
+        for (Pending request : pending) {
+            if (request.offer(line)) return;
+        }
+    }
+
+    /**
+     * Obtiene el número de consultas a la espera de respuesta.
+     *
+     * @return consultas pendientes.
+     */
+    public int getPending() {
+        return pending.size();
+    }
+}
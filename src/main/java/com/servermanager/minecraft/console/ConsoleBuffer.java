@@ -0,0 +1,236 @@
+package com.servermanager.minecraft.console;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffer circular acotado para las líneas de la consola de un servidor.
+ * <p>
+ * Las líneas se guardan como bytes UTF-8 empaquetados en bloques de tamaño fijo
+ * y cada una recibe un número de secuencia creciente (la primera es la 1).
+ * Cuando se supera el límite de líneas o de bytes se descartan las más antiguas.
+ * Las lecturas piden "todo lo posterior a la secuencia N", de modo que nunca
+ * se copia el log completo.
+ * </p>
+ * <p>Es seguro para un escritor y varios lectores concurrentes.</p>
+ */
+public class ConsoleBuffer {
+
+    /** Tamaño por defecto de cada bloque de almacenamiento. */
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Visitante de líneas almacenadas. El array solo es válido durante la llamada.
+     */
+    @FunctionalInterface
+    public interface LineVisitor {
+        /**
+         * Recibe una línea del buffer.
+         *
+         * @param seq    número de secuencia de la línea.
+         * @param data   bloque que contiene la línea en UTF-8.
+         * @param offset inicio de la línea dentro del bloque.
+         * @param length longitud en bytes.
+         */
+        void visit(long seq, byte[] data, int offset, int length);
+    }
+
+    private final int maxLines;
+    private final long maxBytes;
+    private final int chunkSize;
+
+    /** Bloques vivos, del más antiguo al más reciente. */
+    private final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+
+    /** Bloque en el que se escribe actualmente y posición libre dentro de él. */
+    private byte[] current;
+    private int currentPos;
+
+    /** Bytes reservados por todos los bloques vivos. */
+    private long allocatedBytes;
+
+    /** Índice de líneas: bloque, desplazamiento y longitud, indexados por secuencia módulo maxLines. */
+    private final byte[][] lineChunk;
+    private final int[] lineOffset;
+    private final int[] lineLength;
+
+    /** Secuencia de la línea más antigua retenida y de la siguiente a escribir. */
+    private long firstSeq = 1;
+    private long nextSeq = 1;
+
+    /**
+     * Crea un buffer con los límites indicados.
+     *
+     * @param maxLines número máximo de líneas retenidas.
+     * @param maxBytes número máximo de bytes retenidos.
+     */
+    public ConsoleBuffer(int maxLines, long maxBytes) {
+        if (maxLines <= 0) throw new IllegalArgumentException("maxLines debe ser positivo");
+        if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes debe ser positivo");
+        this.maxLines = maxLines;
+        this.maxBytes = maxBytes;
+        this.chunkSize = (int) Math.min(DEFAULT_CHUNK_SIZE, maxBytes);
+        this.lineChunk = new byte[maxLines][];
+        this.lineOffset = new int[maxLines];
+        this.lineLength = new int[maxLines];
+    }
+
+    /**
+     * Añade una línea al buffer. Las líneas mayores que el límite de bytes se truncan.
+     *
+     * @param data   buffer con la línea en UTF-8.
+     * @param offset inicio de la línea.
+     * @param length longitud en bytes.
+     * @return número de secuencia asignado a la línea.
+     */
+    public synchronized long append(byte[] data, int offset, int length) {
+        length = (int) Math.min(length, maxBytes);
+        if (current == null || current.length - currentPos < length) {
+            current = new byte[Math.max(chunkSize, length)];
+            currentPos = 0;
+            chunks.addLast(current);
+            allocatedBytes += current.length;
+        }
+        if (nextSeq - firstSeq == maxLines) {
+            evictOldestLine();
+        }
+
+        System.arraycopy(data, offset, current, currentPos, length);
+        int slot = slot(nextSeq);
+        lineChunk[slot] = current;
+        lineOffset[slot] = currentPos;
+        lineLength[slot] = length;
+        currentPos += length;
+
+        while (allocatedBytes > maxBytes && chunks.size() > 1) {
+            evictOldestChunk();
+        }
+        return nextSeq++;
+    }
+
+    /**
+     * Añade una línea de texto al buffer.
+     *
+     * @param line línea a añadir.
+     * @return número de secuencia asignado.
+     */
+    public long append(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return append(bytes, 0, bytes.length);
+    }
+
+    private void evictOldestLine() {
+        int slot = slot(firstSeq);
+        byte[] chunk = lineChunk[slot];
+        lineChunk[slot] = null;
+        firstSeq++;
+        // Libera el bloque si ya no quedan líneas en él
+        if (chunk != current && (firstSeq == nextSeq || lineChunk[slot(firstSeq)] != chunk)) {
+            chunks.pollFirst();
+            allocatedBytes -= chunk.length;
+        }
+    }
+
+    private void evictOldestChunk() {
+        byte[] oldest = chunks.pollFirst();
+        allocatedBytes -= oldest.length;
+        while (firstSeq < nextSeq && lineChunk[slot(firstSeq)] == oldest) {
+            lineChunk[slot(firstSeq)] = null;
+            firstSeq++;
+        }
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % maxLines);
+    }
+
+    /**
+     * Recorre las líneas posteriores a una secuencia dada, en orden.
+     * <p>
+     * El visitante se ejecuta con el buffer bloqueado, por lo que debe ser rápido.
+     * Si {@code afterSeq} es anterior a la línea más antigua retenida, se empieza
+     * por esta.
+     *
+     * @param afterSeq secuencia a partir de la cual leer (exclusiva); 0 para todo.
+     * @param limit    número máximo de líneas a visitar.
+     * @param visitor  visitante de cada línea.
+     * @return secuencia de la última línea visitada, o {@code afterSeq} si no había nada nuevo.
+     */
+    public synchronized long forEachAfter(long afterSeq, int limit, LineVisitor visitor) {
+        long seq = Math.max(afterSeq + 1, firstSeq);
+        long end = Math.min(nextSeq, seq + limit);
+        long last = afterSeq;
+        for (; seq < end; seq++) {
+            int slot = slot(seq);
+            visitor.visit(seq, lineChunk[slot], lineOffset[slot], lineLength[slot]);
+            last = seq;
+        }
+        return last;
+    }
+
+    /**
+     * Devuelve como texto las líneas posteriores a una secuencia dada.
+     *
+     * @param afterSeq secuencia a partir de la cual leer (exclusiva); 0 para todo.
+     * @param limit    número máximo de líneas a devolver.
+     * @return lista con las líneas nuevas.
+     */
+    public List<String> linesAfter(long afterSeq, int limit) {
+        List<String> lines = new ArrayList<>();
+        forEachAfter(afterSeq, limit, (seq, data, offset, length) ->
+                lines.add(new String(data, offset, length, StandardCharsets.UTF_8)));
+        return lines;
+    }
+
+    /**
+     * Obtiene la secuencia de la línea más antigua retenida.
+     *
+     * @return secuencia más antigua; si el buffer está vacío, la de la próxima línea.
+     */
+    public synchronized long getFirstSeq() {
+        return firstSeq;
+    }
+
+    /**
+     * Obtiene la secuencia de la última línea escrita.
+     *
+     * @return última secuencia, o 0 si aún no se ha escrito nada.
+     */
+    public synchronized long getLastSeq() {
+        return nextSeq - 1;
+    }
+
+    /**
+     * Obtiene el número de líneas retenidas.
+     *
+     * @return líneas en el buffer.
+     */
+    public synchronized int size() {
+        return (int) (nextSeq - firstSeq);
+    }
+
+    /**
+     * Obtiene los bytes reservados por el buffer.
+     *
+     * @return bytes reservados.
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Descarta todas las líneas. La numeración de secuencias continúa.
+     */
+    public synchronized void clear() {
+        while (firstSeq < nextSeq) {
+            lineChunk[slot(firstSeq)] = null;
+            firstSeq++;
+        }
+        chunks.clear();
+        current = null;
+        currentPos = 0;
+        allocatedBytes = 0;
+    }
+}
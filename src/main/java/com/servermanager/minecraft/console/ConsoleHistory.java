@@ -0,0 +1,341 @@
+package com.servermanager.minecraft.console;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Acceso de lectura al historial de consola volcado en disco por {@link ConsoleSpool}.
+ * <p>
+ * El historial se compone de segmentos {@code console-<primeraLinea>.log}, cada uno
+ * con un índice disperso {@code .idx} que guarda, cada {@link #INDEX_INTERVAL} líneas,
+ * la posición en bytes de la línea y el instante en que se recibió. El índice se
+ * copia a memoria (leyendo solo lo añadido desde la última vez, y comprobando su
+ * tamaño una sola vez por consulta), de modo que saltar
+ * a cualquier línea u hora solo requiere una búsqueda en el índice y leer como mucho
+ * {@link #INDEX_INTERVAL} líneas. No se mapean ficheros ni se dejan abiertos, así que
+ * los segmentos pueden borrarse en cualquier momento.
+ * </p>
+ */
+public class ConsoleHistory {
+
+    /** Cada cuántas líneas se guarda una entrada en el índice. */
+    public static final int INDEX_INTERVAL = 64;
+
+    /** Tamaño de cada entrada del índice: posición (long) e instante (long). */
+    static final int INDEX_ENTRY_SIZE = 16;
+
+    private static final String PREFIX = "console-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    /** Directorio que contiene los segmentos. */
+    private final File directory;
+
+    /** Segmentos conocidos, ordenados por primera línea. */
+    private Segment[] segments = new Segment[0];
+
+    /** Número de la consulta en curso; cada segmento mira su índice en disco una vez por consulta. */
+    private long query;
+
+    /**
+     * Segmento del historial: fichero de líneas más una copia en memoria de su índice.
+     */
+    private static final class Segment {
+        /** Capacidad inicial de la copia del índice, en bytes. */
+        private static final int INITIAL_CAPACITY = 64 * INDEX_ENTRY_SIZE;
+
+        final long firstLine;
+        final File log;
+        final File index;
+
+        /** Copia del índice; solo son válidos los primeros {@code size} bytes. */
+        ByteBuffer loaded = ByteBuffer.allocate(0);
+        int size;
+
+        /** Consulta en la que se comprobó el índice por última vez. */
+        long checkedAt = -1;
+
+        Segment(long firstLine, File log, File index) {
+            this.firstLine = firstLine;
+            this.log = log;
+            this.index = index;
+        }
+
+        /**
+         * Devuelve el número de entradas completas del índice. La primera vez en
+         * cada consulta se mira el tamaño del fichero y se leen solo las entradas
+         * añadidas (el índice únicamente crece); la copia crece al doble cuando
+         * no caben, así que copiarla cuesta en total un tiempo lineal.
+         *
+         * @param query número de la consulta en curso.
+         */
+        int entries(long query) throws IOException {
+            if (checkedAt != query) {
+                checkedAt = query;
+                load();
+            }
+            return size / INDEX_ENTRY_SIZE;
+        }
+
+        private void load() throws IOException {
+            long length = index.length();
+            length -= length % INDEX_ENTRY_SIZE;
+            if (length <= size) return;
+            if (length > Integer.MAX_VALUE - INDEX_ENTRY_SIZE) throw new IOException("Índice de historial demasiado grande: " + index);
+
+            if (length > loaded.capacity()) {
+                long capacity = Math.max(length, Math.max(INITIAL_CAPACITY, 2L * loaded.capacity()));
+                ByteBuffer grown = ByteBuffer.allocate((int) Math.min(capacity, Integer.MAX_VALUE - INDEX_ENTRY_SIZE));
+                grown.put(loaded.array(), 0, size);
+                loaded = grown;
+            }
+            ByteBuffer tail = loaded.duplicate();
+            tail.limit((int) length).position(size);
+            try (FileChannel channel = FileChannel.open(index.toPath(), StandardOpenOption.READ)) {
+                long position = size;
+                int read;
+                while (tail.hasRemaining() && (read = channel.read(tail, position)) > 0) {
+                    position += read;
+                }
+            }
+            size = tail.position() - tail.position() % INDEX_ENTRY_SIZE;
+        }
+
+        /** Posición de una entrada; {@link #entries(long)} debe haberse llamado en la consulta. */
+        long offsetAt(int entry) {
+            return loaded.getLong(entry * INDEX_ENTRY_SIZE);
+        }
+
+        /** Instante de una entrada; {@link #entries(long)} debe haberse llamado en la consulta. */
+        long timeAt(int entry) {
+            return loaded.getLong(entry * INDEX_ENTRY_SIZE + 8);
+        }
+    }
+
+    /**
+     * Crea un lector sobre el directorio de historial indicado.
+     *
+     * @param directory directorio con los segmentos.
+     */
+    public ConsoleHistory(File directory) {
+        this.directory = directory;
+        refresh();
+    }
+
+    /**
+     * Vuelve a listar los segmentos del directorio, conservando los índices ya leídos.
+     */
+    public synchronized void refresh() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(LOG_SUFFIX));
+        if (files == null) {
+            segments = new Segment[0];
+            return;
+        }
+        List<Segment> found = new ArrayList<>();
+        for (File file : files) {
+            long first = parseFirstLine(file.getName());
+            if (first < 0) continue;
+            Segment known = find(first);
+            found.add(known != null ? known : new Segment(first, file, indexFile(directory, first)));
+        }
+        found.sort((a, b) -> Long.compare(a.firstLine, b.firstLine));
+        segments = found.toArray(new Segment[0]);
+    }
+
+    private Segment find(long firstLine) {
+        for (Segment segment : segments) {
+            if (segment.firstLine == firstLine) return segment;
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene el número de la primera línea disponible (las anteriores se borraron por retención).
+     *
+     * @return primera línea disponible, o 0 si no hay historial.
+     */
+    public synchronized long getFirstLine() {
+        return segments.length == 0 ? 0 : segments[0].firstLine;
+    }
+
+    /**
+     * Obtiene el número total de líneas escritas, es decir, el número de la siguiente línea.
+     *
+     * @return número de líneas del historial.
+     * @throws IOException si no se pueden leer los segmentos.
+     */
+    public synchronized long getLineCount() throws IOException {
+        if (segments.length == 0) return 0;
+        query++;
+        Segment last = segments[segments.length - 1];
+        return last.firstLine + countLines(last);
+    }
+
+    /**
+     * Cuenta las líneas de un segmento: las cubiertas por el índice más las que
+     * quedan tras la última entrada.
+     */
+    private long countLines(Segment segment) throws IOException {
+        int entries = segment.entries(query);
+        if (entries == 0) return 0;
+        long offset = segment.offsetAt(entries - 1);
+        long lines = (long) (entries - 1) * INDEX_INTERVAL;
+        try (FileChannel channel = FileChannel.open(segment.log.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long position = offset;
+            int read;
+            while ((read = channel.read(buffer, position)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') lines++;
+                }
+                position += read;
+                buffer.clear();
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Lee un rango de líneas del historial.
+     *
+     * @param fromLine número de la primera línea a leer.
+     * @param count    número máximo de líneas.
+     * @return las líneas leídas (puede devolver menos si el historial termina antes).
+     * @throws IOException si no se pueden leer los segmentos.
+     */
+    public synchronized List<String> readLines(long fromLine, int count) throws IOException {
+        query++;
+        List<String> lines = new ArrayList<>(count);
+        int index = segmentFor(fromLine);
+        if (index < 0) {
+            if (segments.length == 0) return lines;
+            index = 0;
+            fromLine = segments[0].firstLine;
+        }
+        while (lines.size() < count && index < segments.length) {
+            readFromSegment(segments[index], fromLine, count - lines.size(), lines);
+            index++;
+            if (index < segments.length) fromLine = segments[index].firstLine;
+        }
+        return lines;
+    }
+
+    private void readFromSegment(Segment segment, long fromLine, int count, List<String> out) throws IOException {
+        int entries = segment.entries(query);
+        if (entries == 0) return;
+        long relative = fromLine - segment.firstLine;
+        int entry = (int) Math.min(relative / INDEX_INTERVAL, entries - 1);
+        long skip = relative - (long) entry * INDEX_INTERVAL;
+        long position = segment.offsetAt(entry);
+
+        try (FileChannel channel = FileChannel.open(segment.log.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            byte[] line = new byte[256];
+            int lineLength = 0;
+            int read;
+            while (out.size() < count && (read = channel.read(buffer, position)) > 0) {
+                byte[] array = buffer.array();
+                for (int i = 0; i < read && out.size() < count; i++) {
+                    byte b = array[i];
+                    if (b != '\n') {
+                        if (skip == 0) {
+                            if (lineLength == line.length) line = Arrays.copyOf(line, line.length * 2);
+                            line[lineLength++] = b;
+                        }
+                        continue;
+                    }
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        out.add(new String(line, 0, lineLength, StandardCharsets.UTF_8));
+                        lineLength = 0;
+                    }
+                }
+                position += read;
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * Busca el segmento que contiene una línea.
+     *
+     * @return posición del segmento, o -1 si la línea es anterior al historial retenido.
+     */
+    private int segmentFor(long line) {
+        int low = 0, high = segments.length - 1, result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (segments[mid].firstLine <= line) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Busca la primera línea recibida en o después de un instante dado.
+     * La precisión es de un bloque del índice ({@link #INDEX_INTERVAL} líneas).
+     *
+     * @param epochMillis instante en milisegundos desde la época.
+     * @return número de línea aproximado; si el instante es posterior a todo, el último bloque indexado.
+     * @throws IOException si no se pueden leer los índices.
+     */
+    public synchronized long findLineAt(long epochMillis) throws IOException {
+        query++;
+        for (Segment segment : segments) {
+            int entries = segment.entries(query);
+            if (entries == 0 || segment.timeAt(entries - 1) < epochMillis) continue;
+            // Primera entrada con instante >= objetivo; se devuelve el bloque anterior para no saltarla
+            int low = 0, high = entries - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (segment.timeAt(mid) < epochMillis) low = mid + 1;
+                else high = mid;
+            }
+            int entry = Math.max(0, low - 1);
+            return segment.firstLine + (long) entry * INDEX_INTERVAL;
+        }
+        if (segments.length > 0) {
+            Segment last = segments[segments.length - 1];
+            int entries = last.entries(query);
+            if (entries > 0) return last.firstLine + (long) (entries - 1) * INDEX_INTERVAL;
+        }
+        return getLineCount();
+    }
+
+    /**
+     * Obtiene el directorio del historial.
+     *
+     * @return el directorio.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    static File logFile(File directory, long firstLine) {
+        return new File(directory, String.format("%s%020d%s", PREFIX, firstLine, LOG_SUFFIX));
+    }
+
+    static File indexFile(File directory, long firstLine) {
+        return new File(directory, String.format("%s%020d%s", PREFIX, firstLine, INDEX_SUFFIX));
+    }
+
+    static long parseFirstLine(String name) {
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - LOG_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
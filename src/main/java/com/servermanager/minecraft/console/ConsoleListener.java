@@ -0,0 +1,31 @@
+package com.servermanager.minecraft.console;
+
+import java.util.List;
+
+/**
+ * Receptor de las líneas nuevas de una consola, entregadas por lotes.
+ * <p>
+ * Las llamadas de una misma suscripción nunca se solapan, pero se hacen desde
+ * un hilo de reparto compartido: el receptor no debe bloquearse y, si necesita
+ * tocar la interfaz, debe pasar al hilo de JavaFX por su cuenta.
+ * </p>
+ */
+@FunctionalInterface
+public interface ConsoleListener {
+
+    /**
+     * Recibe un lote de líneas nuevas, en orden.
+     *
+     * @param lines   líneas del lote.
+     * @param lastSeq secuencia de la última línea del lote.
+     */
+    void onLines(List<String> lines, long lastSeq);
+
+    /**
+     * Se invoca cuando el receptor se ha quedado tan atrás que el buffer ya
+     * descartó líneas que no llegó a recibir.
+     *
+     * @param count número de líneas perdidas.
+     */
+    default void onSkipped(long count) {}
+}
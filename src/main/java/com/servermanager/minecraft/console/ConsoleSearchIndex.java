@@ -0,0 +1,510 @@
+package com.servermanager.minecraft.console;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Índice de búsqueda de texto sobre el historial de consola.
+ * <p>
+ * Es un índice invertido de palabras: para cada palabra guarda los bloques de
+ * {@link ConsoleHistory#INDEX_INTERVAL} líneas en los que aparece. Una búsqueda
+ * cruza las listas de sus palabras y solo lee del disco los bloques candidatos,
+ * comprobando en ellos el texto exacto. Las palabras incompletas se resuelven
+ * con un índice de bigramas y trigramas del diccionario, sin recorrerlo entero.
+ * Una búsqueda sin palabras indexables (solo números o símbolos) se limita a
+ * los bloques más recientes.
+ * </p>
+ * <p>
+ * Se alimenta como destino de la bomba de salida, registrado después del
+ * {@link ConsoleSpool} cuya numeración de líneas comparte. El trabajo de
+ * indexado se hace en un hilo propio; si ese hilo se queda atrás las líneas
+ * se descartan del índice (nunca se bloquea la bomba). Al arrancar indexa el
+ * final del historial ya existente. La memoria está acotada por un número
+ * máximo de entradas, que cuenta tanto las (palabra, bloque) como las
+ * (fragmento, palabra) del índice de fragmentos: al superarlo, y cuando el
+ * volcado borra segmentos, se descartan los bloques más antiguos junto con las
+ * palabras que solo aparecían en ellos. Al cerrarse la salida del proceso
+ * ({@link #close()}) se detiene el hilo de indexado.
+ * </p>
+ */
+public class ConsoleSearchIndex implements ConsoleSink {
+
+    /** Número máximo de entradas (palabra, bloque) más (fragmento, palabra) por defecto. */
+    public static final int DEFAULT_MAX_POSTINGS = 4_000_000;
+
+    /** Líneas del historial existente que se indexan al arrancar. */
+    private static final int BACKFILL_LINES = 1_000_000;
+
+    /** Líneas indexadas entre comprobaciones de la retención del historial. */
+    private static final int RETENTION_CHECK_LINES = 64 * 1024;
+
+    /** Bloques más recientes que se revisan en una búsqueda sin palabras indexables. */
+    private static final int UNINDEXED_QUERY_BLOCKS = 1024;
+
+    private static final int MIN_TOKEN = 2;
+    private static final int MAX_TOKEN = 64;
+
+    /** Longitud máxima de los fragmentos del índice de fragmentos (bigramas y trigramas). */
+    private static final int GRAM = 3;
+
+    /**
+     * Resultado de una búsqueda.
+     */
+    public static final class Hit {
+        private final long line;
+        private final String text;
+
+        Hit(long line, String text) {
+            this.line = line;
+            this.text = text;
+        }
+
+        /**
+         * Obtiene el número de línea en el historial.
+         *
+         * @return número de línea.
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * Obtiene el texto de la línea.
+         *
+         * @return texto de la línea.
+         */
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public String toString() {
+            return line + ": " + text;
+        }
+    }
+
+    /** Lista creciente de bloques en orden ascendente, con recorte barato por delante. */
+    private static final class Postings {
+        int[] blocks = new int[4];
+        int start;
+        int end;
+
+        /** @return true si se añadió una entrada nueva (los bloques ya cubiertos se ignoran). */
+        boolean add(int block) {
+            if (end > start && blocks[end - 1] >= block) return false;
+            if (end == blocks.length) {
+                if (start > blocks.length / 2) {
+                    System.arraycopy(blocks, start, blocks, 0, end - start);
+                    end -= start;
+                    start = 0;
+                } else {
+                    blocks = Arrays.copyOf(blocks, blocks.length * 2);
+                }
+            }
+            blocks[end++] = block;
+            return true;
+        }
+
+        /** Descarta los bloques anteriores a {@code minBlock}; devuelve cuántos se quitaron. */
+        int trimBefore(int minBlock) {
+            int removed = 0;
+            while (start < end && blocks[start] < minBlock) {
+                start++;
+                removed++;
+            }
+            return removed;
+        }
+
+        int size() {
+            return end - start;
+        }
+    }
+
+    /** Línea pendiente de indexar. */
+    private static final class Entry {
+        final long line;
+        final byte[] data;
+
+        Entry(long line, byte[] data) {
+            this.line = line;
+            this.data = data;
+        }
+    }
+
+    private final ConsoleSpool spool;
+    private final ConsoleHistory history;
+    private final int maxPostings;
+
+    /** Primera línea que llega por la bomba; las anteriores se leen del historial (-1 si se desconoce). */
+    private final long backfillEnd;
+
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(16 * 1024);
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /** Palabras del diccionario que contienen cada bigrama y trigrama. */
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /** Entradas totales, primer y último bloque indexados y líneas descartadas por saturación. */
+    private long postingCount;
+    private long gramCount;
+    private int minBlock;
+    private int maxBlock;
+    private volatile long dropped;
+    private volatile long indexedLines;
+
+    /**
+     * Crea el índice y arranca su hilo de indexado.
+     *
+     * @param spool       volcado cuya numeración de líneas se usa.
+     * @param maxPostings número máximo de entradas retenidas, de palabras y de fragmentos.
+     */
+    public ConsoleSearchIndex(ConsoleSpool spool, int maxPostings) {
+        this.spool = spool;
+        this.history = new ConsoleHistory(spool.getDirectory());
+        this.maxPostings = maxPostings;
+        long boundary = -1;
+        try {
+            // Lo anterior a esta línea ya está en disco; lo posterior llegará por onLine
+            boundary = spool.getNextLine();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        this.backfillEnd = boundary;
+        thread = new Thread(this::indexLoop, "Console-Indexer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Crea el índice con la capacidad por defecto.
+     *
+     * @param spool volcado cuya numeración de líneas se usa.
+     */
+    public ConsoleSearchIndex(ConsoleSpool spool) {
+        this(spool, DEFAULT_MAX_POSTINGS);
+    }
+
+    @Override
+    public void onLine(byte[] data, int offset, int length) {
+        long line = spool.getLastLine();
+        if (line < 0 || closed) return;
+        if (!queue.offer(new Entry(line, Arrays.copyOfRange(data, offset, offset + length)))) {
+            dropped++;
+        }
+    }
+
+    /**
+     * Detiene el hilo de indexado y descarta las líneas pendientes. Lo ya indexado
+     * sigue pudiéndose buscar.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+        queue.clear();
+    }
+
+    /**
+     * Indica si el índice se ha cerrado y ya no recibe líneas.
+     *
+     * @return true si está cerrado.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void indexLoop() {
+        backfill();
+        long sinceCheck = 0;
+        try {
+            while (!closed) {
+                Entry entry = queue.take();
+                index(entry.line, new String(entry.data, StandardCharsets.UTF_8));
+                if (++sinceCheck >= RETENTION_CHECK_LINES) {
+                    sinceCheck = 0;
+                    history.refresh();
+                    evictBefore((int) (history.getFirstLine() / ConsoleHistory.INDEX_INTERVAL));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Indexa el final del historial que ya estaba en disco al crear el índice.
+     */
+    private void backfill() {
+        try {
+            long end = backfillEnd >= 0 ? backfillEnd : history.getLineCount();
+            long line = Math.max(history.getFirstLine(), end - BACKFILL_LINES);
+            while (line < end && !closed) {
+                List<String> lines = history.readLines(line, (int) Math.min(4096, end - line));
+                if (lines.isEmpty()) break;
+                for (String text : lines) {
+                    index(line++, text);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private synchronized void index(long line, String text) {
+        int block = (int) (line / ConsoleHistory.INDEX_INTERVAL);
+        if (block < minBlock) return;
+        for (String token : tokenize(text)) {
+            Postings list = postings.get(token);
+            if (list == null) {
+                list = new Postings();
+                postings.put(token, list);
+                addGrams(token);
+            }
+            if (list.add(block)) {
+                postingCount++;
+            }
+        }
+        if (block > maxBlock) maxBlock = block;
+        indexedLines++;
+        if (postingCount + gramCount > maxPostings) {
+            // Se descarta la cuarta parte más antigua del rango indexado
+            evictBefore(minBlock + Math.max(1, (block - minBlock) / 4));
+        }
+    }
+
+    private synchronized void evictBefore(int block) {
+        if (block <= minBlock) return;
+        minBlock = block;
+        Iterator<Map.Entry<String, Postings>> it = postings.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Postings> entry = it.next();
+            postingCount -= entry.getValue().trimBefore(block);
+            if (entry.getValue().size() == 0) {
+                it.remove();
+                removeGrams(entry.getKey());
+            }
+        }
+    }
+
+    /** Registra una palabra nueva bajo sus bigramas y trigramas. */
+    private void addGrams(String term) {
+        for (int n = MIN_TOKEN; n <= GRAM; n++) {
+            for (int i = 0; i + n <= term.length(); i++) {
+                if (termsByGram.computeIfAbsent(term.substring(i, i + n), g -> new HashSet<>()).add(term)) {
+                    gramCount++;
+                }
+            }
+        }
+    }
+
+    private void removeGrams(String term) {
+        for (int n = MIN_TOKEN; n <= GRAM; n++) {
+            for (int i = 0; i + n <= term.length(); i++) {
+                String gram = term.substring(i, i + n);
+                Set<String> terms = termsByGram.get(gram);
+                if (terms != null && terms.remove(term)) {
+                    gramCount--;
+                    if (terms.isEmpty()) termsByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Divide una línea en palabras en minúsculas, descartando las puramente
+     * numéricas (horas, coordenadas...) que solo inflarían el diccionario.
+     */
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int length = text.length();
+        int start = -1;
+        boolean hasLetter = false;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            boolean word = Character.isLetterOrDigit(c) || c == '_';
+            if (word) {
+                if (start < 0) {
+                    start = i;
+                    hasLetter = false;
+                }
+                hasLetter |= Character.isLetter(c);
+            } else if (start >= 0) {
+                int tokenLength = i - start;
+                if (hasLetter && tokenLength >= MIN_TOKEN && tokenLength <= MAX_TOKEN) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Busca las líneas que contienen el texto indicado (sin distinguir mayúsculas),
+     * empezando por las más recientes. Si el texto no tiene ninguna palabra
+     * indexable (por ejemplo, solo cifras o símbolos) solo se revisan los últimos
+     * 1024 bloques indexados (65.536 líneas).
+     *
+     * @param query      texto a buscar.
+     * @param maxResults número máximo de resultados.
+     * @return las líneas encontradas, de la más reciente a la más antigua.
+     * @throws IOException si no se puede leer el historial.
+     */
+    public List<Hit> search(String query, int maxResults) throws IOException {
+        String needle = query.toLowerCase(Locale.ROOT).trim();
+        List<Hit> hits = new ArrayList<>();
+        if (needle.isEmpty()) return hits;
+
+        int[] candidates = candidateBlocks(needle);
+        history.refresh();
+        for (int i = candidates.length - 1; i >= 0 && hits.size() < maxResults; i--) {
+            long first = (long) candidates[i] * ConsoleHistory.INDEX_INTERVAL;
+            List<String> lines = history.readLines(first, ConsoleHistory.INDEX_INTERVAL);
+            for (int j = lines.size() - 1; j >= 0 && hits.size() < maxResults; j--) {
+                String text = lines.get(j);
+                if (text.toLowerCase(Locale.ROOT).contains(needle)) {
+                    hits.add(new Hit(first + j, text));
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Calcula los bloques que pueden contener todas las palabras de la búsqueda.
+     */
+    private synchronized int[] candidateBlocks(String needle) {
+        List<String> tokens = tokenize(needle);
+        if (tokens.isEmpty()) {
+            // Sin palabras indexables no se puede acotar: solo se miran los bloques recientes
+            return recentBlocks();
+        }
+        int[] result = null;
+        for (String token : tokens) {
+            int[] blocks = blocksFor(token);
+            result = result == null ? blocks : intersect(result, blocks);
+            if (result.length == 0) break;
+        }
+        return result;
+    }
+
+    /**
+     * Bloques de una palabra: une los de todas las palabras del diccionario que
+     * la contienen, incluida ella misma si está (búsqueda de fragmentos).
+     */
+    private int[] blocksFor(String token) {
+        BitSet found = new BitSet();
+        for (String term : termsContaining(token)) {
+            mark(found, postings.get(term));
+        }
+        return toBlocks(found);
+    }
+
+    /**
+     * Palabras del diccionario que contienen un fragmento. Los fragmentos de hasta
+     * {@link #GRAM} caracteres están directamente en el índice de fragmentos; los
+     * más largos se comprueban solo sobre las palabras de su trigrama menos frecuente.
+     */
+    private Iterable<String> termsContaining(String token) {
+        if (token.length() <= GRAM) {
+            Set<String> terms = termsByGram.get(token);
+            return terms != null ? terms : List.of();
+        }
+        Set<String> rarest = null;
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            Set<String> terms = termsByGram.get(token.substring(i, i + GRAM));
+            if (terms == null) return List.of();
+            if (rarest == null || terms.size() < rarest.size()) rarest = terms;
+        }
+        List<String> found = new ArrayList<>();
+        for (String term : rarest) {
+            if (term.contains(token)) found.add(term);
+        }
+        return found;
+    }
+
+    private int[] recentBlocks() {
+        if (postings.isEmpty()) return new int[0];
+        int from = Math.max(minBlock, maxBlock - UNINDEXED_QUERY_BLOCKS + 1);
+        int[] blocks = new int[maxBlock - from + 1];
+        for (int i = 0; i < blocks.length; i++) blocks[i] = from + i;
+        return blocks;
+    }
+
+    /** Marca los bloques de una lista, relativos al primer bloque retenido. */
+    private void mark(BitSet set, Postings list) {
+        for (int i = list.start; i < list.end; i++) {
+            set.set(list.blocks[i] - minBlock);
+        }
+    }
+
+    private int[] toBlocks(BitSet set) {
+        return set.stream().map(b -> b + minBlock).toArray();
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Obtiene el número de líneas indexadas.
+     *
+     * @return líneas indexadas.
+     */
+    public long getIndexedLines() {
+        return indexedLines;
+    }
+
+    /**
+     * Obtiene el número de líneas que no se indexaron por saturación del hilo indexador.
+     *
+     * @return líneas descartadas.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Obtiene el número de entradas retenidas en el índice.
+     *
+     * @return entradas (palabra, bloque).
+     */
+    public synchronized long getPostingCount() {
+        return postingCount;
+    }
+
+    /**
+     * Obtiene el número de entradas retenidas en el índice de fragmentos.
+     *
+     * @return entradas (fragmento, palabra).
+     */
+    public synchronized long getGramCount() {
+        return gramCount;
+    }
+}
@@ -0,0 +1,31 @@
+package com.servermanager.minecraft.console;
+
+/**
+ * Destino de las líneas leídas por un {@link OutputPump}.
+ * <p>
+ * Cada línea se entrega ya separada (sin el salto de línea final) y codificada
+ * en UTF-8. El array recibido pertenece a la bomba y solo es válido durante la
+ * llamada: si el destino necesita conservar la línea debe copiarla.
+ */
+public interface ConsoleSink {
+
+    /**
+     * Recibe una línea completa de la salida del servidor.
+     *
+     * @param data   buffer que contiene la línea en UTF-8.
+     * @param offset posición de inicio de la línea dentro del buffer.
+     * @param length número de bytes de la línea.
+     */
+    void onLine(byte[] data, int offset, int length);
+
+    /**
+     * Se invoca cuando la bomba ha consumido toda la salida disponible
+     * por el momento. Permite a los destinos volcar sus buffers por lotes.
+     */
+    default void flush() {}
+
+    /**
+     * Se invoca una única vez cuando el flujo del proceso se cierra.
+     */
+    default void close() {}
+}
@@ -0,0 +1,224 @@
+package com.servermanager.minecraft.console;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Destino que vuelca la salida del servidor a disco en segmentos rotativos.
+ * <p>
+ * Cada arranque del servidor abre un segmento nuevo, y se rota cuando el
+ * segmento supera {@code maxSegmentBytes}. Junto a cada segmento se escribe un
+ * índice disperso con la posición e instante de cada bloque de
+ * {@link ConsoleHistory#INDEX_INTERVAL} líneas. Los segmentos más antiguos se
+ * borran al superar {@code maxSegments}. El historial se lee con {@link ConsoleHistory}.
+ * </p>
+ * <p>
+ * Las entradas del índice se retienen en memoria y solo se escriben después de
+ * volcar el fichero de líneas, de modo que el índice en disco nunca apunta a
+ * datos que aún no se han escrito.
+ * </p>
+ * <p>
+ * Tras un {@link #close()} el volcado puede seguir usándose: la siguiente línea
+ * abre un segmento nuevo y la numeración continúa.
+ * </p>
+ */
+public class ConsoleSpool implements ConsoleSink {
+
+    /** Tamaño máximo por defecto de un segmento. */
+    public static final long DEFAULT_MAX_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    /** Número máximo por defecto de segmentos retenidos. */
+    public static final int DEFAULT_MAX_SEGMENTS = 32;
+
+    private final File directory;
+    private final long maxSegmentBytes;
+    private final int maxSegments;
+
+    /** Tamaño a partir del cual se vuelcan las entradas del índice retenidas. */
+    private static final int INDEX_FLUSH_BYTES = 4 * 1024;
+
+    /** Flujos del segmento abierto (null si no hay ninguno). */
+    private OutputStream log;
+    private OutputStream indexOut;
+
+    /** Entradas del índice aún no escritas en {@link #indexOut}. */
+    private final ByteArrayOutputStream pendingIndex = new ByteArrayOutputStream(INDEX_FLUSH_BYTES);
+    private final DataOutputStream index = new DataOutputStream(pendingIndex);
+
+    /** Número global de la próxima línea y bytes escritos en el segmento actual. */
+    private long nextLine = -1;
+    private long segmentFirstLine;
+    private long segmentBytes;
+
+    /**
+     * Crea un volcado con los límites por defecto.
+     *
+     * @param directory directorio donde guardar los segmentos.
+     */
+    public ConsoleSpool(File directory) {
+        this(directory, DEFAULT_MAX_SEGMENT_BYTES, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * Crea un volcado con los límites indicados.
+     *
+     * @param directory       directorio donde guardar los segmentos.
+     * @param maxSegmentBytes tamaño a partir del cual se rota el segmento.
+     * @param maxSegments     número máximo de segmentos retenidos.
+     */
+    public ConsoleSpool(File directory, long maxSegmentBytes, int maxSegments) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegments = maxSegments;
+    }
+
+    @Override
+    public synchronized void onLine(byte[] data, int offset, int length) {
+        try {
+            if (log == null) openSegment();
+            else if (segmentBytes >= maxSegmentBytes) rotate();
+
+            if ((nextLine - segmentFirstLine) % ConsoleHistory.INDEX_INTERVAL == 0) {
+                index.writeLong(segmentBytes);
+                index.writeLong(System.currentTimeMillis());
+            }
+            log.write(data, offset, length);
+            log.write('\n');
+            segmentBytes += length + 1;
+            nextLine++;
+            if (pendingIndex.size() >= INDEX_FLUSH_BYTES) flushIndex();
+        } catch (IOException e) {
+            // Se pierde el volcado pero la consola sigue funcionando
+            e.printStackTrace();
+            closeQuietly();
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        try {
+            if (log != null) flushIndex();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeQuietly();
+    }
+
+    /**
+     * Abre un segmento nuevo a continuación de la última línea del historial.
+     */
+    private void openSegment() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("No se pudo crear el directorio de historial: " + directory);
+        }
+        if (nextLine < 0) {
+            nextLine = new ConsoleHistory(directory).getLineCount();
+        }
+        segmentFirstLine = nextLine;
+        segmentBytes = 0;
+        log = new BufferedOutputStream(new FileOutputStream(ConsoleHistory.logFile(directory, segmentFirstLine)), 64 * 1024);
+        indexOut = new FileOutputStream(ConsoleHistory.indexFile(directory, segmentFirstLine));
+        pendingIndex.reset();
+        applyRetention();
+    }
+
+    /**
+     * Vuelca las líneas y, después, las entradas del índice que apuntan a ellas.
+     */
+    private void flushIndex() throws IOException {
+        log.flush();
+        if (pendingIndex.size() > 0) {
+            pendingIndex.writeTo(indexOut);
+            pendingIndex.reset();
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeQuietly();
+        openSegment();
+    }
+
+    /**
+     * Borra los segmentos más antiguos si se supera el máximo.
+     */
+    private void applyRetention() {
+        File[] files = directory.listFiles((dir, name) -> ConsoleHistory.parseFirstLine(name) >= 0 && name.endsWith(".log"));
+        if (files == null || files.length <= maxSegments) return;
+        long[] firstLines = Arrays.stream(files).mapToLong(f -> ConsoleHistory.parseFirstLine(f.getName())).sorted().toArray();
+        for (int i = 0; i < firstLines.length - maxSegments; i++) {
+            delete(ConsoleHistory.logFile(directory, firstLines[i]));
+            delete(ConsoleHistory.indexFile(directory, firstLines[i]));
+        }
+    }
+
+    private static void delete(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            // El segmento se queda en disco; se reintenta en la siguiente rotación
+            System.err.println("No se pudo borrar el segmento de historial " + file + ": " + e);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (log != null) flushIndex();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        try {
+            if (log != null) log.close();
+            if (indexOut != null) indexOut.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            log = null;
+            indexOut = null;
+            pendingIndex.reset();
+        }
+    }
+
+    /**
+     * Obtiene el número de la última línea volcada.
+     *
+     * @return número de la última línea, o -1 si aún no se ha volcado ninguna.
+     */
+    public synchronized long getLastLine() {
+        return nextLine - 1;
+    }
+
+    /**
+     * Vuelca a disco lo pendiente y obtiene el número de la próxima línea. Todas
+     * las líneas anteriores pueden leerse ya con {@link ConsoleHistory}.
+     *
+     * @return número de la próxima línea que se volcará.
+     * @throws IOException si no se puede volcar o leer el historial.
+     */
+    public synchronized long getNextLine() throws IOException {
+        if (log != null) flushIndex();
+        if (nextLine < 0) {
+            nextLine = new ConsoleHistory(directory).getLineCount();
+        }
+        return nextLine;
+    }
+
+    /**
+     * Obtiene el directorio donde se guardan los segmentos.
+     *
+     * @return el directorio del historial.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+}
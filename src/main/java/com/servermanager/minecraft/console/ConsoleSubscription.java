@@ -0,0 +1,116 @@
+package com.servermanager.minecraft.console;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Suscripción de un {@link ConsoleListener} a un {@link ConsoleBuffer}.
+ * <p>
+ * La suscripción no encola líneas: recuerda la última secuencia entregada y,
+ * cuando se le avisa de que hay datos nuevos, lee del buffer solo lo posterior.
+ * Así un receptor lento no acumula memoria (contrapresión natural): recibe
+ * lotes más grandes o, si el buffer ya descartó líneas, un aviso de
+ * {@link ConsoleListener#onSkipped(long)}.
+ * </p>
+ */
+public class ConsoleSubscription {
+
+    /** Número máximo de líneas por lote. */
+    private static final int MAX_BATCH = 1024;
+
+    private final ConsoleBuffer buffer;
+    private final ConsoleListener listener;
+    private final Executor executor;
+    private final Runnable onCancel;
+
+    /** Indica si hay un reparto programado o en curso. */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /** Última secuencia entregada al receptor. */
+    private volatile long lastSeq;
+
+    private volatile boolean cancelled;
+
+    /**
+     * Crea una suscripción. Normalmente se obtiene mediante la consola.
+     *
+     * @param buffer   buffer del que leer.
+     * @param listener receptor de los lotes.
+     * @param afterSeq secuencia a partir de la cual entregar (0 para todo lo retenido).
+     * @param executor ejecutor en el que se hacen los repartos.
+     * @param onCancel acción a ejecutar al cancelar (puede ser null).
+     */
+    public ConsoleSubscription(ConsoleBuffer buffer, ConsoleListener listener, long afterSeq,
+                               Executor executor, Runnable onCancel) {
+        this.buffer = buffer;
+        this.listener = listener;
+        this.lastSeq = afterSeq;
+        this.executor = executor;
+        this.onCancel = onCancel;
+    }
+
+    /**
+     * Avisa de que puede haber líneas nuevas. Programa un reparto si no hay
+     * ninguno en curso; los avisos repetidos se agrupan en uno solo.
+     */
+    public void signal() {
+        if (cancelled) return;
+        if (buffer.getLastSeq() > lastSeq && scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!cancelled) {
+                long first = buffer.getFirstSeq();
+                if (first > lastSeq + 1) {
+                    listener.onSkipped(first - lastSeq - 1);
+                    lastSeq = first - 1;
+                }
+                List<String> lines = new ArrayList<>();
+                long last = buffer.forEachAfter(lastSeq, MAX_BATCH, (seq, data, offset, length) ->
+                        lines.add(new String(data, offset, length, StandardCharsets.UTF_8)));
+                if (lines.isEmpty()) break;
+                lastSeq = last;
+                listener.onLines(lines, last);
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            scheduled.set(false);
+        }
+        // Pueden haber llegado líneas entre la última lectura y la liberación
+        signal();
+    }
+
+    /**
+     * Cancela la suscripción. El receptor puede recibir como mucho un lote en curso.
+     */
+    public void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        if (onCancel != null) onCancel.run();
+    }
+
+    /**
+     * Indica si la suscripción está cancelada.
+     *
+     * @return true si se canceló.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Obtiene la secuencia de la última línea entregada.
+     *
+     * @return última secuencia entregada.
+     */
+    public long getLastSeq() {
+        return lastSeq;
+    }
+}
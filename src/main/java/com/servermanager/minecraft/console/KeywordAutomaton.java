@@ -0,0 +1,183 @@
+package com.servermanager.minecraft.console;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autómata de Aho-Corasick que busca a la vez muchas palabras clave en una línea.
+ * <p>
+ * El coste de recorrer una línea es proporcional a su longitud y no al número
+ * de palabras. La comparación no distingue mayúsculas en ASCII. Las
+ * transiciones de la raíz están en una tabla directa y el resto en una tabla
+ * hash abierta de enteros, para que el autómata siga siendo compacto con miles
+ * de palabras clave.
+ * </p>
+ */
+final class KeywordAutomaton {
+
+    /**
+     * Recibe los índices de las palabras clave encontradas.
+     */
+    interface MatchVisitor {
+        void onMatch(int keyword);
+    }
+
+    /** Transiciones desde la raíz (0 si no hay, que equivale a quedarse en la raíz). */
+    private final int[] root = new int[256];
+
+    /** Tabla hash de transiciones: clave (estado << 8 | byte), valor estado destino. */
+    private final long[] keys;
+    private final int[] targets;
+    private final int mask;
+
+    /** Enlace de fallo de cada estado. */
+    private final int[] fail;
+
+    /** Palabras que terminan en cada estado (null si ninguna). */
+    private final int[][] outputs;
+
+    /** Estado más cercano (el propio o por enlaces de fallo) con palabras, o 0. */
+    private final int[] output;
+
+    /**
+     * Compila el autómata.
+     *
+     * @param keywords palabras clave en UTF-8; su posición en la lista es el índice que se notifica.
+     */
+    KeywordAutomaton(List<byte[]> keywords) {
+        // Trie provisional
+        Map<Long, Integer> edges = new HashMap<>();
+        List<int[]> ends = new ArrayList<>();
+        ends.add(null);
+        for (int k = 0; k < keywords.size(); k++) {
+            int state = 0;
+            for (byte raw : keywords.get(k)) {
+                long key = edgeKey(state, lower(raw));
+                Integer next = edges.get(key);
+                if (next == null) {
+                    next = ends.size();
+                    ends.add(null);
+                    edges.put(key, next);
+                }
+                state = next;
+            }
+            int[] current = ends.get(state);
+            current = current == null ? new int[1] : Arrays.copyOf(current, current.length + 1);
+            current[current.length - 1] = k;
+            ends.set(state, current);
+        }
+
+        int states = ends.size();
+        int capacity = Integer.highestOneBit(Math.max(4, edges.size() * 2 - 1)) << 1;
+        keys = new long[capacity];
+        Arrays.fill(keys, -1);
+        targets = new int[capacity];
+        mask = capacity - 1;
+        outputs = ends.toArray(new int[0][]);
+        fail = new int[states];
+        output = new int[states];
+
+        // Hijos de cada estado para el recorrido en anchura
+        List<List<long[]>> children = new ArrayList<>(states);
+        for (int i = 0; i < states; i++) children.add(null);
+        for (Map.Entry<Long, Integer> edge : edges.entrySet()) {
+            long key = edge.getKey();
+            int from = (int) (key >>> 8);
+            int b = (int) (key & 0xFF);
+            if (from == 0) {
+                root[b] = edge.getValue();
+            } else {
+                put(key, edge.getValue());
+            }
+            if (children.get(from) == null) children.set(from, new ArrayList<>());
+            children.get(from).add(new long[]{b, edge.getValue()});
+        }
+
+        // Enlaces de fallo por niveles
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        if (children.get(0) != null) {
+            for (long[] child : children.get(0)) {
+                int s = (int) child[1];
+                fail[s] = 0;
+                output[s] = outputs[s] != null ? s : 0;
+                queue.add(s);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<long[]> list = children.get(state);
+            if (list == null) continue;
+            for (long[] child : list) {
+                int b = (int) child[0];
+                int s = (int) child[1];
+                int f = fail[state];
+                int next;
+                while ((next = next(f, b)) < 0) f = fail[f];
+                fail[s] = next;
+                output[s] = outputs[s] != null ? s : output[next];
+                queue.add(s);
+            }
+        }
+    }
+
+    /**
+     * Recorre un fragmento y notifica cada palabra clave encontrada (puede
+     * notificar la misma varias veces si aparece repetida).
+     *
+     * @param data    buffer con el texto.
+     * @param from    inicio del fragmento.
+     * @param to      fin (exclusivo) del fragmento.
+     * @param visitor receptor de las coincidencias.
+     */
+    void scan(byte[] data, int from, int to, MatchVisitor visitor) {
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            int b = lower(data[i]);
+            int next;
+            while ((next = next(state, b)) < 0) state = fail[state];
+            state = next;
+            for (int s = output[state]; s != 0; s = output[fail[s]]) {
+                for (int keyword : outputs[s]) visitor.onMatch(keyword);
+            }
+        }
+    }
+
+    /**
+     * Transición desde un estado; desde la raíz siempre existe (vuelve a ella).
+     *
+     * @return el estado destino, o -1 si no hay transición.
+     */
+    private int next(int state, int b) {
+        if (state == 0) return root[b];
+        long key = edgeKey(state, b);
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return targets[i];
+            if (k == -1) return -1;
+        }
+    }
+
+    private void put(long key, int target) {
+        int i = slot(key);
+        while (keys[i] != -1) i = (i + 1) & mask;
+        keys[i] = key;
+        targets[i] = target;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    private static long edgeKey(int state, int b) {
+        return ((long) state << 8) | b;
+    }
+
+    private static int lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b & 0xFF;
+    }
+}
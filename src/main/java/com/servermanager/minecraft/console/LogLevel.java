@@ -0,0 +1,53 @@
+package com.servermanager.minecraft.console;
+
+/**
+ * Nivel de una línea de log del servidor.
+ */
+public enum LogLevel {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    FATAL,
+    /** La línea no tiene cabecera reconocible (trazas de excepciones, salida de la JVM...). */
+    UNKNOWN;
+
+    /**
+     * Reconoce el nombre de un nivel en un fragmento de bytes, sin crear objetos.
+     * Admite también los nombres de java.util.logging que usaban los servidores
+     * Bukkit antiguos ({@code WARNING}, {@code SEVERE}).
+     *
+     * @param data  buffer con el texto.
+     * @param start inicio del nombre.
+     * @param end   fin (exclusivo) del nombre.
+     * @return el nivel, o null si el texto no es un nivel.
+     */
+    static LogLevel parse(byte[] data, int start, int end) {
+        switch (end - start) {
+            case 4:
+                if (is(data, start, "INFO")) return INFO;
+                if (is(data, start, "WARN")) return WARN;
+                return null;
+            case 5:
+                if (is(data, start, "ERROR")) return ERROR;
+                if (is(data, start, "DEBUG")) return DEBUG;
+                if (is(data, start, "TRACE")) return TRACE;
+                if (is(data, start, "FATAL")) return FATAL;
+                return null;
+            case 6:
+                return is(data, start, "SEVERE") ? ERROR : null;
+            case 7:
+                return is(data, start, "WARNING") ? WARN : null;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean is(byte[] data, int start, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (data[start + i] != name.charAt(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,230 @@
+package com.servermanager.minecraft.console;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Línea de log del servidor ya separada en sus partes.
+ * <p>
+ * No copia el texto: guarda el buffer original y la posición de cada parte
+ * (hora, hilo, nivel, logger y mensaje). {@link LogLineParser} la rellena y la
+ * reutiliza para cada línea, así que solo es válida durante la llamada que la
+ * entrega; quien necesite conservarla debe usar {@link #copy()}. Los métodos
+ * {@code message*} comparan directamente sobre los bytes, sin crear cadenas.
+ * </p>
+ */
+public final class LogLine {
+
+    byte[] data;
+    int offset;
+    int length;
+
+    LogLevel level = LogLevel.UNKNOWN;
+    int secondOfDay = -1;
+    int millis = -1;
+    int threadStart = -1, threadEnd = -1;
+    int loggerStart = -1, loggerEnd = -1;
+    int messageStart;
+
+    /**
+     * Crea una línea vacía, lista para que la rellene el analizador.
+     */
+    public LogLine() {
+        reset(new byte[0], 0, 0);
+    }
+
+    void reset(byte[] data, int offset, int length) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        level = LogLevel.UNKNOWN;
+        secondOfDay = -1;
+        millis = -1;
+        threadStart = threadEnd = -1;
+        loggerStart = loggerEnd = -1;
+        messageStart = offset;
+    }
+
+    /**
+     * Indica si la línea tenía una cabecera de log reconocida.
+     *
+     * @return true si se identificaron hora y nivel.
+     */
+    public boolean hasHeader() {
+        return level != LogLevel.UNKNOWN;
+    }
+
+    /**
+     * Obtiene el nivel de la línea.
+     *
+     * @return el nivel, o {@link LogLevel#UNKNOWN} si la línea no tiene cabecera.
+     */
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Obtiene la hora de la cabecera en segundos desde medianoche.
+     *
+     * @return segundos del día, o -1 si no hay cabecera.
+     */
+    public int getSecondOfDay() {
+        return secondOfDay;
+    }
+
+    /**
+     * Obtiene los milisegundos de la hora, si el formato los incluye (Forge).
+     *
+     * @return milisegundos, o -1 si no aparecen.
+     */
+    public int getMillis() {
+        return millis;
+    }
+
+    /**
+     * Obtiene el nombre del hilo que escribió la línea.
+     *
+     * @return el hilo, o null si el formato no lo incluye (Paper).
+     */
+    public String getThread() {
+        return slice(threadStart, threadEnd);
+    }
+
+    /**
+     * Obtiene el nombre del logger.
+     *
+     * @return el logger, o null si el formato no lo incluye (vanilla, Paper).
+     */
+    public String getLogger() {
+        return slice(loggerStart, loggerEnd);
+    }
+
+    /**
+     * Obtiene el texto del mensaje, sin cabecera.
+     *
+     * @return el mensaje.
+     */
+    public String getMessage() {
+        return slice(messageStart, offset + length);
+    }
+
+    /**
+     * Obtiene la línea completa tal como se recibió.
+     *
+     * @return la línea.
+     */
+    @Override
+    public String toString() {
+        return slice(offset, offset + length);
+    }
+
+    /**
+     * Obtiene el buffer que contiene la línea.
+     *
+     * @return el buffer (no debe modificarse).
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * Obtiene la posición del mensaje en {@link #getData()}.
+     *
+     * @return inicio del mensaje.
+     */
+    public int getMessageStart() {
+        return messageStart;
+    }
+
+    /**
+     * Obtiene la posición del final (exclusivo) del mensaje en {@link #getData()}.
+     *
+     * @return fin del mensaje.
+     */
+    public int getMessageEnd() {
+        return offset + length;
+    }
+
+    /**
+     * Comprueba si el mensaje empieza por un texto dado.
+     *
+     * @param prefix texto en UTF-8.
+     * @return true si el mensaje empieza por él.
+     */
+    public boolean messageStartsWith(byte[] prefix) {
+        return regionMatches(messageStart, prefix);
+    }
+
+    /**
+     * Comprueba si el mensaje termina en un texto dado.
+     *
+     * @param suffix texto en UTF-8.
+     * @return true si el mensaje termina en él.
+     */
+    public boolean messageEndsWith(byte[] suffix) {
+        int start = getMessageEnd() - suffix.length;
+        return start >= messageStart && regionMatches(start, suffix);
+    }
+
+    /**
+     * Busca un texto dentro del mensaje.
+     *
+     * @param needle texto en UTF-8.
+     * @param from   posición absoluta en {@link #getData()} desde la que buscar.
+     * @return posición absoluta de la primera aparición, o -1 si no aparece.
+     */
+    public int messageIndexOf(byte[] needle, int from) {
+        int last = getMessageEnd() - needle.length;
+        for (int i = Math.max(from, messageStart); i <= last; i++) {
+            if (regionMatches(i, needle)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Comprueba si el hilo es el indicado.
+     *
+     * @param thread nombre del hilo en UTF-8.
+     * @return true si coincide.
+     */
+    public boolean threadEquals(byte[] thread) {
+        return threadStart >= 0 && threadEnd - threadStart == thread.length && regionMatches(threadStart, thread);
+    }
+
+    /**
+     * Crea una copia independiente del buffer, que puede conservarse o pasarse a otro hilo.
+     *
+     * @return la copia.
+     */
+    public LogLine copy() {
+        LogLine copy = new LogLine();
+        copy.data = Arrays.copyOfRange(data, offset, offset + length);
+        copy.offset = 0;
+        copy.length = length;
+        copy.level = level;
+        copy.secondOfDay = secondOfDay;
+        copy.millis = millis;
+        copy.threadStart = shift(threadStart);
+        copy.threadEnd = shift(threadEnd);
+        copy.loggerStart = shift(loggerStart);
+        copy.loggerEnd = shift(loggerEnd);
+        copy.messageStart = messageStart - offset;
+        return copy;
+    }
+
+    private int shift(int position) {
+        return position < 0 ? -1 : position - offset;
+    }
+
+    private boolean regionMatches(int start, byte[] text) {
+        if (start + text.length > offset + length) return false;
+        for (int i = 0; i < text.length; i++) {
+            if (data[start + i] != text[i]) return false;
+        }
+        return true;
+    }
+
+    private String slice(int start, int end) {
+        return start < 0 ? null : new String(data, start, end - start, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,20 @@
+package com.servermanager.minecraft.console;
+
+/**
+ * Receptor de las líneas de log ya analizadas por un {@link LogLineSink}.
+ * <p>
+ * Se invoca desde el hilo de la bomba de salida, una vez por línea y con una
+ * {@link LogLine} reutilizada: el receptor debe ser rápido, no bloquearse y
+ * usar {@link LogLine#copy()} si quiere conservar la línea.
+ * </p>
+ */
+@FunctionalInterface
+public interface LogLineListener {
+
+    /**
+     * Recibe una línea analizada.
+     *
+     * @param line la línea, válida solo durante la llamada.
+     */
+    void onLogLine(LogLine line);
+}
@@ -0,0 +1,140 @@
+package com.servermanager.minecraft.console;
+
+/**
+ * Analizador de las cabeceras de log de los servidores Minecraft.
+ * <p>
+ * Reconoce los formatos habituales recorriendo los bytes una sola vez, sin
+ * expresiones regulares ni creación de objetos:
+ * <ul>
+ *     <li>Vanilla y Fabric: {@code [12:34:56] [Server thread/INFO]: mensaje}</li>
+ *     <li>Paper/Spigot: {@code [12:34:56 INFO]: mensaje}</li>
+ *     <li>Forge/NeoForge: {@code [26Jan2024 12:34:56.789] [Server thread/INFO] [minecraft/DedicatedServer]: mensaje}</li>
+ *     <li>Fabric con logger: {@code [12:34:56] [main/INFO] (Minecraft) mensaje}</li>
+ * </ul>
+ * Las líneas que no encajan (trazas de excepciones, salida de la JVM) se
+ * entregan con nivel {@link LogLevel#UNKNOWN} y toda la línea como mensaje.
+ * </p>
+ */
+public final class LogLineParser {
+
+    private LogLineParser() {
+    }
+
+    /**
+     * Analiza una línea y rellena {@code out} con sus partes.
+     *
+     * @param data   buffer con la línea en UTF-8.
+     * @param offset inicio de la línea.
+     * @param length longitud en bytes.
+     * @param out    línea a rellenar (se reutiliza entre llamadas).
+     * @return true si se reconoció la cabecera.
+     */
+    public static boolean parse(byte[] data, int offset, int length, LogLine out) {
+        out.reset(data, offset, length);
+        int end = offset + length;
+        if (length < 3 || data[offset] != '[') return false;
+
+        int close = indexOf(data, offset + 1, end, (byte) ']');
+        if (close < 0) return false;
+        int timeStart = offset + 1;
+        int timeEnd = close;
+        int pos = close + 1;
+        int threadStart = -1, threadEnd = -1, loggerStart = -1, loggerEnd = -1;
+
+        // Paper: el nivel va dentro del primer corchete, tras la hora
+        int space = lastIndexOf(data, timeStart, close, (byte) ' ');
+        LogLevel level = space < 0 ? null : LogLevel.parse(data, space + 1, close);
+        if (level != null) {
+            timeEnd = space;
+        } else {
+            // Vanilla/Forge/Fabric: " [hilo/NIVEL]"
+            if (pos + 1 >= end || data[pos] != ' ' || data[pos + 1] != '[') return false;
+            int threadClose = indexOf(data, pos + 2, end, (byte) ']');
+            if (threadClose < 0) return false;
+            int slash = lastIndexOf(data, pos + 2, threadClose, (byte) '/');
+            if (slash < 0) return false;
+            level = LogLevel.parse(data, slash + 1, threadClose);
+            if (level == null) return false;
+            threadStart = pos + 2;
+            threadEnd = slash;
+            pos = threadClose + 1;
+
+            // Logger opcional: " [nombre]" (Forge) o " (nombre)" (Fabric)
+            if (pos + 1 < end && data[pos] == ' ' && (data[pos + 1] == '[' || data[pos + 1] == '(')) {
+                byte closer = data[pos + 1] == '[' ? (byte) ']' : (byte) ')';
+                int loggerClose = indexOf(data, pos + 2, end, closer);
+                if (loggerClose > 0 && (loggerClose + 1 == end || data[loggerClose + 1] == ':' || data[loggerClose + 1] == ' ')) {
+                    loggerStart = pos + 2;
+                    loggerEnd = loggerClose;
+                    // Forge termina el logger en '/' cuando no hay nombre corto
+                    if (loggerEnd > loggerStart && data[loggerEnd - 1] == '/') loggerEnd--;
+                    pos = loggerClose + 1;
+                }
+            }
+        }
+
+        if (!parseTime(data, timeStart, timeEnd, out)) return false;
+        if (pos < end && data[pos] == ':') pos++;
+        if (pos < end && data[pos] == ' ') pos++;
+
+        out.level = level;
+        out.threadStart = threadStart;
+        out.threadEnd = threadEnd;
+        out.loggerStart = loggerStart;
+        out.loggerEnd = loggerEnd;
+        out.messageStart = pos;
+        return true;
+    }
+
+    /**
+     * Busca {@code HH:mm:ss[.SSS]} dentro de la marca de tiempo, que en Forge
+     * va precedida de la fecha.
+     */
+    private static boolean parseTime(byte[] data, int start, int end, LogLine out) {
+        for (int i = start; i + 8 <= end; i++) {
+            if (data[i + 2] != ':' || data[i + 5] != ':') continue;
+            int hour = twoDigits(data, i);
+            int minute = twoDigits(data, i + 3);
+            int second = twoDigits(data, i + 6);
+            if (hour < 0 || minute < 0 || second < 0) continue;
+            out.secondOfDay = hour * 3600 + minute * 60 + second;
+            int pos = i + 8;
+            if (pos < end && data[pos] == '.') {
+                int millis = 0, digits = 0;
+                while (++pos < end && digits < 3 && isDigit(data[pos])) {
+                    millis = millis * 10 + (data[pos] - '0');
+                    digits++;
+                }
+                if (digits > 0) {
+                    while (digits++ < 3) millis *= 10;
+                    out.millis = millis;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static int twoDigits(byte[] data, int at) {
+        if (!isDigit(data[at]) || !isDigit(data[at + 1])) return -1;
+        return (data[at] - '0') * 10 + (data[at + 1] - '0');
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static int indexOf(byte[] data, int from, int end, byte value) {
+        for (int i = from; i < end; i++) {
+            if (data[i] == value) return i;
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] data, int from, int end, byte value) {
+        for (int i = end - 1; i >= from; i--) {
+            if (data[i] == value) return i;
+        }
+        return -1;
+    }
+}
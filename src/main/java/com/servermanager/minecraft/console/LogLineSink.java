@@ -0,0 +1,63 @@
+package com.servermanager.minecraft.console;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Destino de la bomba que analiza cada línea una sola vez y la reparte ya
+ * separada en partes a sus receptores.
+ * <p>
+ * Así los filtros, métricas y alertas comparten el mismo análisis en lugar de
+ * volver a recorrer el texto cada uno. Lleva además la cuenta de líneas por nivel.
+ * </p>
+ */
+public class LogLineSink implements ConsoleSink {
+
+    /** Línea reutilizada; solo la usa el hilo de la bomba. */
+    private final LogLine line = new LogLine();
+
+    private final List<LogLineListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final long[] levelCounts = new long[LogLevel.values().length];
+
+    @Override
+    public void onLine(byte[] data, int offset, int length) {
+        LogLineParser.parse(data, offset, length, line);
+        levelCounts[line.getLevel().ordinal()]++;
+        for (LogLineListener listener : listeners) {
+            try {
+                listener.onLogLine(line);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Registra un receptor de líneas analizadas.
+     *
+     * @param listener receptor a añadir.
+     */
+    public void addListener(LogLineListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Elimina un receptor.
+     *
+     * @param listener receptor a quitar.
+     */
+    public void removeListener(LogLineListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Obtiene cuántas líneas de un nivel se han recibido.
+     *
+     * @param level nivel a consultar.
+     * @return número de líneas de ese nivel.
+     */
+    public long getCount(LogLevel level) {
+        return levelCounts[level.ordinal()];
+    }
+}
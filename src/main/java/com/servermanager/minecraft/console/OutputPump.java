@@ -0,0 +1,239 @@
+package com.servermanager.minecraft.console;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bomba única de salida para el proceso de un servidor.
+ * <p>
+ * Lee los bytes en bruto del flujo del proceso una sola vez, los separa en
+ * líneas y reparte cada línea a los {@link ConsoleSink} registrados (consola,
+ * copia en la salida estándar, volcado a disco...). No se usa
+ * {@code BufferedReader}: las líneas viajan como bytes UTF-8 y cada destino
+ * decide si necesita decodificarlas.
+ * </p>
+ */
+public class OutputPump implements Runnable {
+
+    /** Tamaño del buffer de lectura del proceso. */
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    /** Líneas tras las que se fuerza un flush aunque el proceso siga escribiendo. */
+    private static final int FLUSH_EVERY_LINES = 1024;
+
+    /** Longitud máxima de una línea; las más largas se parten. */
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    /** Flujo de salida del proceso del servidor. */
+    private final InputStream input;
+
+    /** Nombre del hilo lector. */
+    private final String name;
+
+    /** Codificación con la que escribe el proceso. */
+    private final Charset charset;
+
+    /** Acción a ejecutar cuando el flujo se cierra (puede ser null). */
+    private final Runnable onClose;
+
+    /** Destinos registrados. */
+    private final List<ConsoleSink> sinks = new CopyOnWriteArrayList<>();
+
+    /** Buffer para líneas que llegan partidas entre lecturas. */
+    private byte[] pending = new byte[256];
+
+    /** Bytes válidos en {@link #pending}. */
+    private int pendingLength;
+
+    /** Líneas entregadas desde el último flush. */
+    private int linesSinceFlush;
+
+    /** Hilo que ejecuta la bomba. */
+    private Thread thread;
+
+    /** Líneas y bytes procesados (solo los escribe el hilo lector). */
+    private volatile long lineCount;
+    private volatile long byteCount;
+
+    /**
+     * Crea una bomba que asume que el proceso escribe en la codificación por defecto del sistema.
+     *
+     * @param input   flujo de salida del proceso.
+     * @param name    nombre del hilo lector.
+     * @param onClose acción a ejecutar al cerrarse el flujo (puede ser null).
+     */
+    public OutputPump(InputStream input, String name, Runnable onClose) {
+        this(input, name, Charset.defaultCharset(), onClose);
+    }
+
+    /**
+     * Crea una bomba indicando la codificación del proceso.
+     *
+     * @param input   flujo de salida del proceso.
+     * @param name    nombre del hilo lector.
+     * @param charset codificación con la que escribe el proceso.
+     * @param onClose acción a ejecutar al cerrarse el flujo (puede ser null).
+     */
+    public OutputPump(InputStream input, String name, Charset charset, Runnable onClose) {
+        this.input = input;
+        this.name = name;
+        this.charset = charset;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Registra un destino para las líneas leídas.
+     *
+     * @param sink destino a añadir.
+     */
+    public void addSink(ConsoleSink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Elimina un destino previamente registrado.
+     *
+     * @param sink destino a eliminar.
+     */
+    public void removeSink(ConsoleSink sink) {
+        sinks.remove(sink);
+    }
+
+    /**
+     * Arranca el hilo lector.
+     *
+     * @return el hilo creado.
+     */
+    public synchronized Thread start() {
+        if (thread != null) throw new IllegalStateException("La bomba " + name + " ya está en marcha");
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Bucle principal: lee bloques del proceso, separa líneas y las reparte.
+     */
+    @Override
+    public void run() {
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                byteCount += read;
+                frame(buffer, read);
+                if (input.available() == 0 || linesSinceFlush >= FLUSH_EVERY_LINES) {
+                    flushSinks();
+                }
+            }
+        } catch (IOException e) {
+            // El proceso ha cerrado su salida; se trata igual que el fin del flujo
+        } finally {
+            if (pendingLength > 0) {
+                emit(pending, 0, pendingLength);
+                pendingLength = 0;
+            }
+            flushSinks();
+            for (ConsoleSink sink : sinks) {
+                try {
+                    sink.close();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+            if (onClose != null) onClose.run();
+        }
+    }
+
+    /**
+     * Separa en líneas un bloque recién leído. Las líneas completas contenidas
+     * en el bloque se entregan directamente desde el buffer de lectura, sin copiar.
+     */
+    private void frame(byte[] buffer, int length) {
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] != '\n') continue;
+            if (pendingLength == 0) {
+                emit(buffer, start, i - start);
+            } else {
+                appendPending(buffer, start, i - start);
+                emit(pending, 0, pendingLength);
+                pendingLength = 0;
+            }
+            start = i + 1;
+        }
+        if (start < length) {
+            appendPending(buffer, start, length - start);
+            if (pendingLength >= MAX_LINE_LENGTH) {
+                emit(pending, 0, pendingLength);
+                pendingLength = 0;
+            }
+        }
+    }
+
+    private void appendPending(byte[] data, int offset, int length) {
+        int required = pendingLength + length;
+        if (required > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(required, pending.length * 2));
+        }
+        System.arraycopy(data, offset, pending, pendingLength, length);
+        pendingLength = required;
+    }
+
+    /**
+     * Entrega una línea a todos los destinos, quitando el retorno de carro final
+     * y convirtiéndola a UTF-8 si el proceso usa otra codificación.
+     */
+    private void emit(byte[] data, int offset, int length) {
+        if (length > 0 && data[offset + length - 1] == '\r') length--;
+        if (!StandardCharsets.UTF_8.equals(charset)) {
+            data = new String(data, offset, length, charset).getBytes(StandardCharsets.UTF_8);
+            offset = 0;
+            length = data.length;
+        }
+        lineCount++;
+        linesSinceFlush++;
+        for (ConsoleSink sink : sinks) {
+            try {
+                sink.onLine(data, offset, length);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void flushSinks() {
+        linesSinceFlush = 0;
+        for (ConsoleSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de líneas entregadas hasta ahora.
+     *
+     * @return líneas procesadas.
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Obtiene el número de bytes leídos del proceso hasta ahora.
+     *
+     * @return bytes leídos.
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+}
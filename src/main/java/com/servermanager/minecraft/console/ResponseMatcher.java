@@ -0,0 +1,69 @@
+package com.servermanager.minecraft.console;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reconoce las líneas de salida que forman la respuesta a un comando.
+ * <p>
+ * La respuesta termina cuando {@link #completes(LogLine, int)} lo indica, cuando
+ * pasa un intervalo sin líneas nuevas aceptadas o cuando se agota el tiempo.
+ * </p>
+ */
+public interface ResponseMatcher {
+
+    /**
+     * Indica si una línea forma parte de la respuesta.
+     *
+     * @param line línea analizada.
+     * @return true si se acepta.
+     */
+    boolean accepts(LogLine line);
+
+    /**
+     * Indica si, tras aceptar una línea, la respuesta ya está completa.
+     *
+     * @param line  última línea aceptada.
+     * @param count número de líneas aceptadas hasta ahora, incluida esta.
+     * @return true si no se esperan más líneas.
+     */
+    default boolean completes(LogLine line, int count) {
+        return true;
+    }
+
+    /**
+     * Respuesta de una sola línea cuyo mensaje empieza por un texto.
+     *
+     * @param prefix texto inicial del mensaje.
+     * @return el reconocedor.
+     */
+    static ResponseMatcher lineStartingWith(String prefix) {
+        byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+        return line -> line.hasHeader() && line.messageStartsWith(bytes);
+    }
+
+    /**
+     * Respuesta de varias líneas: desde una que empieza por {@code prefix}, todas
+     * las líneas con cabecera que lleguen hasta que pase el intervalo de silencio.
+     *
+     * @param prefix texto inicial del mensaje de la primera línea.
+     * @return el reconocedor.
+     */
+    static ResponseMatcher blockStartingWith(String prefix) {
+        byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+        return new ResponseMatcher() {
+            private boolean started;
+
+            @Override
+            public boolean accepts(LogLine line) {
+                if (!line.hasHeader()) return false;
+                if (!started) started = line.messageStartsWith(bytes);
+                return started;
+            }
+
+            @Override
+            public boolean completes(LogLine line, int count) {
+                return false;
+            }
+        };
+    }
+}
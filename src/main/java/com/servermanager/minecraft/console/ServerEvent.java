@@ -0,0 +1,116 @@
+package com.servermanager.minecraft.console;
+
+/**
+ * Suceso de un servidor deducido de su salida de consola.
+ */
+public final class ServerEvent {
+
+    /**
+     * Tipos de suceso reconocidos.
+     */
+    public enum Type {
+        /** El servidor ha terminado de arrancar ({@code Done (x.xxxs)!}); el valor es la duración en ms. */
+        READY,
+        /** Un jugador ha entrado; incluye su UUID si el servidor lo anunció antes. */
+        PLAYER_JOINED,
+        /** Un jugador ha salido. */
+        PLAYER_LEFT,
+        /** {@code Can't keep up!}: el valor son los milisegundos de retraso. */
+        LAG,
+        /** Mensaje de chat de un jugador; el texto es el mensaje. */
+        CHAT,
+        /** El servidor ha fallado y guardado un informe; el texto es la ruta del informe. */
+        CRASH,
+        /** El servidor ha empezado a detenerse. */
+        STOPPING
+    }
+
+    private final Type type;
+    private final String server;
+    private final long time;
+    private final String player;
+    private final String uuid;
+    private final long value;
+    private final String text;
+
+    ServerEvent(Type type, String server, String player, String uuid, long value, String text) {
+        this.type = type;
+        this.server = server;
+        this.time = System.currentTimeMillis();
+        this.player = player;
+        this.uuid = uuid;
+        this.value = value;
+        this.text = text;
+    }
+
+    /**
+     * Obtiene el tipo de suceso.
+     *
+     * @return el tipo.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Obtiene el nombre del servidor que lo produjo.
+     *
+     * @return nombre del servidor.
+     */
+    public String getServer() {
+        return server;
+    }
+
+    /**
+     * Obtiene el instante en que se recibió la línea.
+     *
+     * @return milisegundos desde la época.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Obtiene el jugador implicado.
+     *
+     * @return nombre del jugador, o null si el suceso no es de un jugador.
+     */
+    public String getPlayer() {
+        return player;
+    }
+
+    /**
+     * Obtiene el UUID del jugador, si se conoce.
+     *
+     * @return UUID en texto, o null.
+     */
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Obtiene el valor numérico del suceso (duración del arranque, retraso...).
+     *
+     * @return el valor, o 0 si el tipo no lo usa.
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Obtiene el texto asociado (mensaje de chat, ruta del informe...).
+     *
+     * @return el texto, o null.
+     */
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + server + "] " + type
+                + (player != null ? " " + player : "")
+                + (value != 0 ? " " + value : "")
+                + (text != null ? " " + text : "");
+    }
+}
@@ -0,0 +1,292 @@
+package com.servermanager.minecraft.console;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Canal de sucesos de un servidor, alimentado por sus líneas de log ya analizadas.
+ * <p>
+ * Reconoce en el hilo de la bomba, comparando bytes, los mensajes que marcan
+ * cambios de estado (arranque completado, entradas y salidas de jugadores,
+ * retrasos, chat, fallos) y publica un {@link ServerEvent} por cada uno. Solo se
+ * crean objetos para las líneas que generan suceso. La entrega a los receptores
+ * se hace en un hilo compartido para no frenar la lectura de la salida.
+ * </p>
+ * <p>
+ * Lleva además contadores por tipo y la lista de jugadores conectados.
+ * </p>
+ */
+public class ServerEventBus implements LogLineListener {
+
+    /** Hilo compartido por todos los servidores para entregar sucesos en orden. */
+    private static final ExecutorService DELIVERY = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Server-Events");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final byte[] DONE = bytes("Done (");
+    private static final byte[] JOINED = bytes(" joined the game");
+    private static final byte[] LEFT = bytes(" left the game");
+    private static final byte[] UUID_OF = bytes("UUID of player ");
+    private static final byte[] UUID_IS = bytes(" is ");
+    private static final byte[] FORMERLY = bytes(" (formerly known as ");
+    private static final byte[] CANT_KEEP_UP = bytes("Can't keep up!");
+    private static final byte[] RUNNING = bytes("Running ");
+    private static final byte[] NOT_SECURE = bytes("[Not Secure] ");
+    private static final byte[] CRASH_SAVED = bytes("This crash report has been saved to: ");
+    private static final byte[] STOPPING = bytes("Stopping server");
+
+    /** Longitud máxima de un nombre de jugador aceptado en el chat. */
+    private static final int MAX_NAME = 32;
+
+    /** Longitud máxima de un nombre de cuenta de Minecraft. */
+    private static final int MAX_ACCOUNT_NAME = 16;
+
+    private final String server;
+    private final List<ServerEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLongArray counts = new AtomicLongArray(ServerEvent.Type.values().length);
+
+    /** Jugadores conectados y su UUID ("" si no se conoce). */
+    private final Map<String, String> online = new ConcurrentHashMap<>();
+
+    /** UUID anunciados antes de que el jugador entre; solo lo usa el hilo de la bomba. */
+    private final Map<String, String> pendingUuids = new HashMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * Crea el canal de sucesos de un servidor.
+     *
+     * @param server nombre del servidor, que se incluye en cada suceso.
+     */
+    public ServerEventBus(String server) {
+        this.server = server;
+    }
+
+    @Override
+    public void onLogLine(LogLine line) {
+        if (!line.hasHeader() || line.getMessageEnd() == line.getMessageStart()) return;
+        byte first = line.getData()[line.getMessageStart()];
+
+        if (first == '<' || first == '[') {
+            chat(line);
+        } else if (line.messageEndsWith(JOINED)) {
+            String player = playerName(line, line.getMessageEnd() - JOINED.length);
+            if (player == null) return;
+            String uuid = pendingUuids.remove(player);
+            online.put(player, uuid != null ? uuid : "");
+            publish(new ServerEvent(ServerEvent.Type.PLAYER_JOINED, server, player, uuid, 0, null));
+        } else if (line.messageEndsWith(LEFT)) {
+            String player = playerName(line, line.getMessageEnd() - LEFT.length);
+            if (player == null) return;
+            String uuid = online.remove(player);
+            publish(new ServerEvent(ServerEvent.Type.PLAYER_LEFT, server, player,
+                    uuid == null || uuid.isEmpty() ? null : uuid, 0, null));
+        } else if (line.messageStartsWith(UUID_OF)) {
+            int nameStart = line.getMessageStart() + UUID_OF.length;
+            int is = line.messageIndexOf(UUID_IS, nameStart);
+            if (is > 0 && nameLength(line.getData(), nameStart, is) == is - nameStart) {
+                String player = text(line, nameStart, is);
+                if (pendingUuids.size() > 1000) pendingUuids.clear();
+                pendingUuids.put(player, text(line, is + UUID_IS.length, line.getMessageEnd()));
+            }
+        } else if (line.messageStartsWith(CANT_KEEP_UP)) {
+            int running = line.messageIndexOf(RUNNING, line.getMessageStart());
+            long behind = running < 0 ? 0 : parseNumber(line.getData(), running + RUNNING.length, line.getMessageEnd(), false);
+            publish(new ServerEvent(ServerEvent.Type.LAG, server, null, null, behind, null));
+        } else if (line.messageStartsWith(DONE)) {
+            ready = true;
+            long millis = parseNumber(line.getData(), line.getMessageStart() + DONE.length, line.getMessageEnd(), true);
+            publish(new ServerEvent(ServerEvent.Type.READY, server, null, null, millis, null));
+        } else if (line.messageStartsWith(CRASH_SAVED)) {
+            String report = text(line, line.getMessageStart() + CRASH_SAVED.length, line.getMessageEnd());
+            publish(new ServerEvent(ServerEvent.Type.CRASH, server, null, null, 0, report));
+        } else if (line.messageStartsWith(STOPPING)) {
+            ready = false;
+            online.clear();
+            publish(new ServerEvent(ServerEvent.Type.STOPPING, server, null, null, 0, null));
+        }
+    }
+
+    /**
+     * Reconoce {@code <jugador> mensaje}, con el prefijo {@code [Not Secure]}
+     * opcional de las versiones con firma de chat.
+     */
+    private void chat(LogLine line) {
+        byte[] data = line.getData();
+        int pos = line.messageStartsWith(NOT_SECURE) ? line.getMessageStart() + NOT_SECURE.length : line.getMessageStart();
+        int end = line.getMessageEnd();
+        if (pos >= end || data[pos] != '<') return;
+        for (int i = pos + 1; i < end && i <= pos + MAX_NAME; i++) {
+            if (data[i] == ' ') return;
+            if (data[i] == '>') {
+                if (i == pos + 1 || i + 1 >= end || data[i + 1] != ' ') return;
+                publish(new ServerEvent(ServerEvent.Type.CHAT, server, text(line, pos + 1, i), null, 0,
+                        text(line, i + 2, end)));
+                return;
+            }
+        }
+    }
+
+    private void publish(ServerEvent event) {
+        counts.incrementAndGet(event.getType().ordinal());
+        if (listeners.isEmpty()) return;
+        DELIVERY.execute(() -> {
+            for (ServerEventListener listener : listeners) {
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /**
+     * Marca el servidor como detenido sin esperar a su mensaje de parada (por
+     * ejemplo, si el proceso ha terminado de forma abrupta).
+     */
+    public void reset() {
+        ready = false;
+        online.clear();
+    }
+
+    /**
+     * Registra un receptor de sucesos.
+     *
+     * @param listener receptor a añadir.
+     */
+    public void addListener(ServerEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Elimina un receptor de sucesos.
+     *
+     * @param listener receptor a quitar.
+     */
+    public void removeListener(ServerEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Obtiene cuántos sucesos de un tipo se han producido.
+     *
+     * @param type tipo de suceso.
+     * @return número de sucesos.
+     */
+    public long getCount(ServerEvent.Type type) {
+        return counts.get(type.ordinal());
+    }
+
+    /**
+     * Obtiene los jugadores conectados, según la consola.
+     *
+     * @return nombres de los jugadores, ordenados.
+     */
+    public Set<String> getOnlinePlayers() {
+        return new TreeSet<>(online.keySet());
+    }
+
+    /**
+     * Indica si el servidor ha terminado de arrancar y no ha empezado a detenerse.
+     *
+     * @return true si está listo.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Obtiene el jugador de un mensaje de entrada o salida, que debe ser
+     * exactamente {@code <nombre>} o {@code <nombre> (formerly known as <nombre>)}
+     * antes de {@code end}. Así, un {@code /me joined the game} (que llega como
+     * {@code * Nombre joined the game}) o cualquier otro texto no pasa por un jugador.
+     *
+     * @return el nombre, o null si el mensaje no tiene esa forma.
+     */
+    private static String playerName(LogLine line, int end) {
+        byte[] data = line.getData();
+        int start = line.getMessageStart();
+        int length = nameLength(data, start, end);
+        if (length == 0) return null;
+        int nameEnd = start + length;
+        if (nameEnd == end) return text(line, start, nameEnd);
+
+        // Vanilla añade el nombre anterior si el jugador lo ha cambiado
+        int formerStart = nameEnd + FORMERLY.length;
+        if (end - 1 <= formerStart || !regionEquals(data, nameEnd, FORMERLY) || data[end - 1] != ')') return null;
+        return nameLength(data, formerStart, end - 1) == end - 1 - formerStart ? text(line, start, nameEnd) : null;
+    }
+
+    /**
+     * Cuenta los caracteres de nombre de cuenta ({@code [A-Za-z0-9_]}) desde {@code start}.
+     *
+     * @return la longitud del nombre, o 0 si está vacío o supera {@value #MAX_ACCOUNT_NAME} caracteres.
+     */
+    private static int nameLength(byte[] data, int start, int end) {
+        int i = start;
+        while (i < end && isNameChar(data[i])) i++;
+        int length = i - start;
+        return length > MAX_ACCOUNT_NAME ? 0 : length;
+    }
+
+    private static boolean regionEquals(byte[] data, int start, byte[] text) {
+        for (int i = 0; i < text.length; i++) {
+            if (data[start + i] != text[i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean isNameChar(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_';
+    }
+
+    /**
+     * Lee un número decimal ({@code 3.210s}, {@code 3,210s}, {@code 2345ms}).
+     * Si {@code seconds} es true convierte a milisegundos según la unidad que
+     * le sigue ({@code s} o {@code ns}).
+     */
+    private static long parseNumber(byte[] data, int pos, int end, boolean seconds) {
+        long whole = 0, fraction = 0, scale = 1;
+        boolean decimals = false;
+        for (; pos < end; pos++) {
+            byte b = data[pos];
+            if (b >= '0' && b <= '9') {
+                if (decimals) {
+                    if (scale < 1_000_000) {
+                        fraction = fraction * 10 + (b - '0');
+                        scale *= 10;
+                    }
+                } else {
+                    whole = whole * 10 + (b - '0');
+                }
+            } else if ((b == '.' || b == ',') && !decimals) {
+                decimals = true;
+            } else {
+                break;
+            }
+        }
+        if (!seconds) return whole;
+        if (pos + 1 < end && data[pos] == 'n' && data[pos + 1] == 's') return whole / 1_000_000;
+        return whole * 1000 + fraction * 1000 / scale;
+    }
+
+    private static String text(LogLine line, int start, int end) {
+        return new String(line.getData(), start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,19 @@
+package com.servermanager.minecraft.console;
+
+/**
+ * Receptor de los sucesos publicados por un {@link ServerEventBus}.
+ * <p>
+ * Se invoca desde el hilo de sucesos compartido, en el orden en que se
+ * produjeron. Si necesita tocar la interfaz debe pasar al hilo de JavaFX.
+ * </p>
+ */
+@FunctionalInterface
+public interface ServerEventListener {
+
+    /**
+     * Recibe un suceso.
+     *
+     * @param event el suceso.
+     */
+    void onEvent(ServerEvent event);
+}
@@ -0,0 +1,72 @@
+package com.servermanager.minecraft.console;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Destino que replica la salida del servidor en la salida estándar del gestor,
+ * anteponiendo un prefijo a cada línea.
+ * <p>
+ * Las líneas se acumulan en memoria y se escriben de una sola vez en cada
+ * {@link #flush()}, en lugar de hacer un {@code println} por línea.
+ * </p>
+ */
+public class StdoutSink implements ConsoleSink {
+
+    /** Tamaño a partir del cual se vuelca el buffer aunque la bomba no haya pedido flush. */
+    private static final int MAX_BUFFERED = 64 * 1024;
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    /** Prefijo de cada línea, ya codificado. */
+    private final byte[] prefix;
+
+    /** Flujo de destino. */
+    private final PrintStream out;
+
+    /** Líneas pendientes de volcar. */
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8 * 1024);
+
+    /**
+     * Crea un destino que escribe en {@link System#out}.
+     *
+     * @param prefix prefijo a anteponer a cada línea, por ejemplo {@code "[SERVER survival] "}.
+     */
+    public StdoutSink(String prefix) {
+        this(prefix, System.out);
+    }
+
+    /**
+     * Crea un destino que escribe en el flujo indicado.
+     *
+     * @param prefix prefijo a anteponer a cada línea.
+     * @param out    flujo de destino.
+     */
+    public StdoutSink(String prefix, PrintStream out) {
+        this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+        this.out = out;
+    }
+
+    @Override
+    public void onLine(byte[] data, int offset, int length) {
+        buffer.write(prefix, 0, prefix.length);
+        buffer.write(data, offset, length);
+        buffer.write(LINE_SEPARATOR, 0, LINE_SEPARATOR.length);
+        if (buffer.size() >= MAX_BUFFERED) flush();
+    }
+
+    @Override
+    public void flush() {
+        if (buffer.size() == 0) return;
+        // PrintStream.write es sincronizado: el lote no se mezcla con otros servidores
+        try {
+            buffer.writeTo(out);
+        } catch (IOException e) {
+            // PrintStream no lanza IOException; se mantiene por la firma de writeTo
+        }
+        out.flush();
+        buffer.reset();
+    }
+}
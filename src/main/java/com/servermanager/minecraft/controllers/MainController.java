@@ -2,9 +2,19 @@ package com.servermanager.minecraft.controllers;
 
 import com.servermanager.minecraft.error.*;
 import com.servermanager.minecraft.models.*;
+import com.servermanager.minecraft.net.DownloadListener;
+import com.servermanager.minecraft.net.DownloadProgress;
+import com.servermanager.minecraft.net.Downloads;
+import com.servermanager.minecraft.net.ServerStatus;
+import com.servermanager.minecraft.ui.ConsoleView;
+import com.servermanager.minecraft.ui.FullLogWindow;
 import com.servermanager.minecraft.utils.IPBan;
 import com.servermanager.minecraft.utils.MinecraftVersionLoader;
+import com.servermanager.minecraft.utils.VersionMetadataCache;
 import com.servermanager.minecraft.versions.MinecraftVersion;
+import com.servermanager.minecraft.versions.VersionCatalog;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -24,6 +34,7 @@ import javafx.scene.text.TextFlow;
 import javafx.scene.web.WebView;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.*;
 import java.lang.reflect.Field;
@@ -31,6 +42,10 @@ import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 /**
  * Controlador principal para la interfaz gráfica de Server Manager.
@@ -160,11 +175,8 @@ public class MainController {
         /** Panel principal que contiene la consola. */
         @FXML private AnchorPane consolePane;
 
-        /** ScrollPane que contiene la consola. */
-        @FXML private ScrollPane scrollPaneConsole;
-
-        /** Área de texto de salida de la consola del servidor. */
-        @FXML private TextArea consoleArea;
+        /** Vista virtualizada de la salida de la consola del servidor. */
+        @FXML private ConsoleView consoleArea;
 
         /** Campo para enviar comandos a la consola del servidor. */
         @FXML private TextField commandInput;
@@ -182,6 +194,21 @@ public class MainController {
         /** Botón para reiniciar el servidor. */
         @FXML private Button restartServerButton;
 
+        // ───────────────────────────────────────────────────────
+        // Sección: Descargas
+        // ───────────────────────────────────────────────────────
+
+        /** Barra de avance de la descarga en curso. */
+        @FXML private ProgressBar downloadProgressBar;
+
+        /** Texto con el estado de las descargas. */
+        @FXML private Label downloadStatusLabel;
+
+        /**
+         * Etiqueta con el último estado sondeado del servidor seleccionado.
+         */
+        @FXML private Label serverStatusLabel;
+
         // ───────────────────────────────────────────────────────
         // Sección: Estado Interno del Controlador
         // ───────────────────────────────────────────────────────
@@ -195,6 +222,15 @@ public class MainController {
         /** Referencia al servidor actualmente seleccionado. */
         private Server selectedServer;
 
+        /** Catálogo de versiones de Minecraft, una vez cargado. */
+        private VersionCatalog catalog;
+
+        /** Arranques en segundo plano aún en curso, por nombre de servidor (solo desde el hilo de JavaFX). */
+        private final Map<String, Task<Void>> startTasks = new HashMap<>();
+
+        /** Hilos como máximo para cargar los servidores al arrancar. */
+        private static final int DISCOVERY_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
 
 
     /**
@@ -223,19 +259,16 @@ public class MainController {
         });
 
         // 3. Cargar versiones en background
-        Task<List<MinecraftVersion>> loadVersionsTask = new Task<>() {
+        Task<VersionCatalog> loadVersionsTask = new Task<>() {
             @Override
-            protected List<MinecraftVersion> call() throws Exception {
-                List<MinecraftVersion> allVersions = MinecraftVersionLoader.loadAllVersions();
-                return allVersions.stream()
-                        .filter(v -> v.getVersion() != null && v.getVersion().matches("1\\.\\d+\\.\\d+"))
-                        .collect(Collectors.toList());
+            protected VersionCatalog call() throws Exception {
+                return MinecraftVersionLoader.loadCatalog();
             }
         };
 
         loadVersionsTask.setOnSucceeded(event -> {
-            List<MinecraftVersion> soloReleases = loadVersionsTask.getValue();
-            versionComboBox.setItems(FXCollections.observableArrayList(soloReleases));
+            catalog = loadVersionsTask.getValue();
+            versionComboBox.setItems(FXCollections.observableArrayList(catalog.getReleases()));
 
             // 4. Ahora que las versiones están cargadas, cargamos los servidores
             serverList.getItems().addAll(servers);
@@ -246,12 +279,8 @@ public class MainController {
                 if (nuevo != null) {
                     MinecraftVersion versionActual = nuevo.getVersion();
                     if (versionActual != null) {
-                        for (MinecraftVersion v : versionComboBox.getItems()) {
-                            if (v.getVersion().equals(versionActual.getVersion())) {
-                                versionComboBox.setValue(v);
-                                break;
-                            }
-                        }
+                        MinecraftVersion v = catalog.find(versionActual.getVersion());
+                        if (v != null) versionComboBox.setValue(v);
                     } else {
                         versionComboBox.setValue(null);
                     }
@@ -268,14 +297,10 @@ public class MainController {
                     bannedIpsView.getItems().setAll(nuevo.getBannedIps() != null ? nuevo.getBannedIps() : List.of());
                     whitelistView.getItems().setAll(nuevo.getWhitelist() != null ? nuevo.getWhitelist() : List.of());
                     cargarImagen();
-                    consoleArea.setEditable(false);consoleArea.setWrapText(true);
-                    consoleArea.clear();
-                    for (String line : nuevo.getConsole().getLog()) {
-                        consoleArea.appendText(line + "\n");
-                    }
-                    scrollPaneConsole.setVvalue(1.0);
+                    consoleArea.show(nuevo.getConsole());
                 }
                 updateServerControls(nuevo);
+                mostrarEstado();
             });
         });
 
@@ -285,6 +310,85 @@ public class MainController {
         });
 
         new Thread(loadVersionsTask).start();
+
+        // 6. Estado sondeado del servidor seleccionado; el sondeo es cada 10 s, leerlo es barato
+        Timeline refrescoEstado = new Timeline(new KeyFrame(Duration.seconds(2), event -> mostrarEstado()));
+        refrescoEstado.setCycleCount(Timeline.INDEFINITE);
+        refrescoEstado.play();
+
+        // 7. Barra de estado de las descargas (manifiesto, version.json, server.jar, JDK)
+        Downloads.addListener(new DownloadListener() {
+            @Override
+            public void onStart(DownloadProgress progress) {
+                Platform.runLater(() -> mostrarDescargas(null));
+            }
+
+            @Override
+            public void onProgress(DownloadProgress progress) {
+                Platform.runLater(() -> mostrarDescargas(null));
+            }
+
+            @Override
+            public void onEnd(DownloadProgress progress) {
+                if (!progress.isCacheHit() || progress.getBytes() > 0) {
+                    Platform.runLater(() -> mostrarDescargas(progress));
+                }
+            }
+        });
+    }
+    /**
+     * Muestra en la barra inferior la descarga en curso o, si no queda ninguna,
+     * el resumen de la última que terminó.
+     *
+     * @param terminada Descarga que acaba de terminar, o null.
+     */
+    private void mostrarDescargas(DownloadProgress terminada) {
+        Collection<DownloadProgress> activas = Downloads.getActive();
+        if (activas.isEmpty()) {
+            downloadProgressBar.setVisible(false);
+            downloadProgressBar.setManaged(false);
+            if (terminada != null) downloadStatusLabel.setText(terminada.toString());
+            return;
+        }
+        DownloadProgress actual = activas.iterator().next();
+        String texto = "Descargando " + actual.getStage() + " " + actual.getName() + ": "
+                + DownloadProgress.formatBytes(actual.getResumedBytes() + actual.getBytes())
+                + (actual.getTotalBytes() > 0 ? " / " + DownloadProgress.formatBytes(actual.getTotalBytes()) : "")
+                + " (" + DownloadProgress.formatBytes(actual.getBytesPerSecond()) + "/s"
+                + (actual.getResumedBytes() > 0 ? ", reanudada" : "") + ")";
+        if (activas.size() > 1) texto += " y " + (activas.size() - 1) + " más";
+        downloadStatusLabel.setText(texto);
+        double fraccion = actual.getFraction();
+        downloadProgressBar.setProgress(fraccion >= 0 ? fraccion : ProgressBar.INDETERMINATE_PROGRESS);
+        downloadProgressBar.setVisible(true);
+        downloadProgressBar.setManaged(true);
+    }
+    /**
+     * Muestra en la barra inferior el último estado sondeado del servidor seleccionado
+     * (jugadores, latencia y versión, o el motivo por el que no responde).
+     */
+    private void mostrarEstado() {
+        ServerStatus estado = selectedServer == null ? null : ServerManager.getStatus(selectedServer.getName());
+        String detalle;
+        if (estado == null) {
+            serverStatusLabel.setText("");
+            detalle = null;
+        } else if (estado.isReachable()) {
+            serverStatusLabel.setText("● " + estado.getOnline() + "/" + estado.getMax() + " jugadores · "
+                    + estado.getLatencyMillis() + " ms" + (estado.getVersion() != null ? " · " + estado.getVersion() : ""));
+            detalle = estado.getMotd();
+        } else {
+            serverStatusLabel.setText("○ Sin respuesta");
+            detalle = estado.getError();
+        }
+        // El MOTD o el error va en el tooltip, que se reutiliza en cada refresco
+        if (detalle == null) {
+            serverStatusLabel.setTooltip(null);
+        } else if (serverStatusLabel.getTooltip() == null) {
+            serverStatusLabel.setTooltip(new Tooltip(detalle));
+        } else {
+            serverStatusLabel.getTooltip().setText(detalle);
+        }
     }
     /**
      * Constructor del controlador principal. Inicializa la lista de servidores
@@ -293,6 +397,8 @@ public class MainController {
     public MainController() {
         this.servers=new ArrayList<>();
         cargarServidores();
+        // Los metadatos de las versiones en uso se precargan para que arrancar no espere a la red
+        VersionMetadataCache.prefetch(servers.stream().map(Server::getVersion).collect(Collectors.toSet()));
     }
     /**
      * Crea un nodo de entrada (editor) para una propiedad específica según su tipo.
@@ -407,6 +513,12 @@ public class MainController {
     /**
      * Carga todos los servidores existentes en el directorio "servers".
      * Si la carpeta no existe, intenta crearla. Lanza excepción si falla.
+     * <p>
+     * Cada servidor (plantilla, propiedades, listas de jugadores, mods e icono)
+     * se carga en paralelo con un número limitado de hilos. Si uno falla se
+     * informa y se sigue con el resto. Al terminar se anota cuánto tardó la
+     * carga y cuál fue el servidor más lento.
+     * </p>
      */
     private void cargarServidores() {
         File serversDir= new File("servers");
@@ -416,11 +528,55 @@ public class MainController {
         if(noExiste&&!creada) throw new NoCreatedDirectoryException("Problemas al crear la capeta \"servers\"");
 
         File[] subdirs = serversDir.listFiles(File::isDirectory);
-        if (subdirs != null) {
+        if (subdirs == null || subdirs.length == 0) return;
+
+        long inicio = System.nanoTime();
+        // La plantilla se crea antes de repartir el trabajo, para que no la creen varios hilos a la vez
+        File template = new File("template/server_base");
+        if (!template.exists()) crearTemplate(template);
+
+        record Carga(Server server, long millis) {}
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(DISCOVERY_THREADS, subdirs.length), r -> {
+            Thread t = new Thread(r, "Server-Discovery");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<CompletableFuture<Carga>> cargas = new ArrayList<>(subdirs.length);
             for (File subdir : subdirs) {
-                System.out.println("Servidor encontrado: " + subdir.getName());
-                this.servers.add(new Server(subdir,this));
+                cargas.add(CompletableFuture.supplyAsync(() -> {
+                    long t0 = System.nanoTime();
+                    Server server = new Server(subdir, this);
+                    return new Carga(server, (System.nanoTime() - t0) / 1_000_000);
+                }, pool));
             }
+
+            int fallidos = 0;
+            String masLento = null;
+            long masLentoMs = -1;
+            // Se recogen en el orden del directorio para que la lista no dependa de qué hilo acabó antes
+            for (int i = 0; i < subdirs.length; i++) {
+                try {
+                    Carga carga = cargas.get(i).join();
+                    System.out.println("Servidor encontrado: " + subdirs[i].getName());
+                    this.servers.add(carga.server());
+                    ServerManager.watchStatus(carga.server());
+                    if (carga.millis() > masLentoMs) {
+                        masLentoMs = carga.millis();
+                        masLento = subdirs[i].getName();
+                    }
+                } catch (CompletionException e) {
+                    fallidos++;
+                    System.err.println("No se pudo cargar el servidor " + subdirs[i].getName() + ": " + e.getCause());
+                    e.getCause().printStackTrace();
+                }
+            }
+            System.out.println("Servidores cargados: " + servers.size() + " de " + subdirs.length
+                    + " en " + (System.nanoTime() - inicio) / 1_000_000 + " ms"
+                    + (fallidos > 0 ? ", " + fallidos + " con errores" : "")
+                    + (masLento != null ? " (el más lento: " + masLento + ", " + masLentoMs + " ms)" : ""));
+        } finally {
+            pool.shutdown();
         }
     }
     /**
@@ -456,6 +612,7 @@ public class MainController {
                 }
                 Server nuevo = new Server(folder,this);
                 servers.add(nuevo);
+                ServerManager.watchStatus(nuevo);
                 serverList.getItems().add(nuevo);
                 serverList.getSelectionModel().select(nuevo);
 
@@ -692,6 +849,7 @@ public class MainController {
     public void onSaveProperties(ActionEvent actionEvent) {
         if (selectedServer == null) return;
         selectedServer.saveProperties(); // Supuesto método
+        ServerManager.watchStatus(selectedServer);
     }
     /**
      * Marca la EULA como aceptada para el servidor seleccionado.
@@ -892,7 +1050,9 @@ public class MainController {
      */
     public void abrirLogCompleto(ActionEvent actionEvent) {
         if (selectedServer != null) {
-            selectedServer.openFullLog();
+            // Sin índice (servidor no arrancado en esta sesión) la ventana se abre sin búsqueda
+            new FullLogWindow(selectedServer.getName(), selectedServer.openFullLog(),
+                    selectedServer.findSearchIndex()).show();
         }
     }
 
@@ -924,7 +1084,8 @@ public class MainController {
      * Inicia el servidor seleccionado y actualiza la interfaz.
      *
      * Realiza validaciones sobre el estado del servidor y EULA.
-     * Inicia un hilo para mostrar la consola en tiempo real.
+     * El arranque (que puede descargar el server.jar y el JDK) se hace en segundo
+     * plano para que la interfaz siga respondiendo y muestre el avance.
      *
      * @param actionEvent Evento de acción del botón.
      */
@@ -942,25 +1103,33 @@ public class MainController {
         running.setState(Server.ServerState.STARTING);
         updateServerControls(running);
 
-        try {
-            running.start();
-
-            running.setState(Server.ServerState.RUNNING);
-            updateServerControls(running);
-
-            startConsoleLogThread(); // mueve la lógica del hilo aquí si quieres modularidad
+        Task<Void> startTask = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                // Sigue en STARTING hasta que la consola anuncie "Done": lo pasa a RUNNING el canal de sucesos
+                running.start();
+                return null;
+            }
+        };
 
-        } catch (EulaNotAcceptedException | ServerAlreadyRunningException e) {
-            mostrarError(e.getMessage());
+        startTask.setOnSucceeded(event -> startTasks.remove(name, startTask));
+        startTask.setOnFailed(event -> {
+            startTasks.remove(name, startTask);
+            Throwable e = startTask.getException();
+            if (e instanceof EulaNotAcceptedException || e instanceof ServerAlreadyRunningException) {
+                mostrarError(e.getMessage());
+            } else {
+                e.printStackTrace();
+                mostrarError("Fallo grave al iniciar el servidor:\n" + e.getMessage());
+            }
             running.setState(Server.ServerState.STOPPED);
             updateServerControls(running);
+        });
 
-        } catch (ServerStartException e) {
-            e.printStackTrace();
-            mostrarError("Fallo grave al iniciar el servidor:\n" + e.getMessage());
-            running.setState(Server.ServerState.STOPPED);
-            updateServerControls(running);
-        }
+        startTasks.put(name, startTask);
+        Thread hilo = new Thread(startTask, "Server-Start-" + name);
+        hilo.setDaemon(true);
+        hilo.start();
     }
     /**
      * Muestra una alerta de error con el mensaje proporcionado en la interfaz.
@@ -977,36 +1146,14 @@ public class MainController {
         });
     }
 
-    /**
-     * Inicia un hilo que actualiza periódicamente el área de consola
-     * con el log generado por el servidor.
-     */
-    private void startConsoleLogThread() {
-        new Thread(() -> {
-            List<String> previousLog = new ArrayList<>();
-            while (selectedServer.getProcess() != null && selectedServer.getProcess().isAlive()) {
-                List<String> currentLog = selectedServer.getConsole().getLog();
-                if (currentLog.size() > previousLog.size()) {
-                    List<String> newLines = currentLog.subList(previousLog.size(), currentLog.size());
-                    Platform.runLater(() -> {
-                        for (String line : newLines) {
-                            consoleArea.appendText(line + "\n");
-                        }
-                        scrollPaneConsole.setVvalue(1.0);
-                    });
-                    previousLog = new ArrayList<>(currentLog);
-                }
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException ignored) {}
-            }
-        }).start();
-    }
-
     /**
      * Detiene el servidor seleccionado y actualiza el estado visual.
      * También limpia el área de consola.
      *
+     * Si el servidor aún está arrancando (por ejemplo, descargando el server.jar),
+     * cancela el arranque para que no llegue a lanzar el proceso. La parada, que
+     * puede esperar hasta 15 segundos al proceso, se hace en segundo plano.
+     *
      * @param actionEvent Evento de acción del botón.
      */
     public void onStopServerClicked(ActionEvent actionEvent) {
@@ -1014,13 +1161,36 @@ public class MainController {
         Server running=ServerManager.getServer(name);
         if (running == null || running.getState() == Server.ServerState.STOPPED) return;
 
-        running.stop();
-        running.setState(Server.ServerState.STOPPED);
-        updateServerControls(running);
+        Task<Void> startTask = startTasks.remove(name);
+        if (startTask != null) startTask.cancel(true);
+        running.cancelStart();
+
+        startServerButton.setDisable(true);
+        stopServerButton.setDisable(true);
+        restartServerButton.setDisable(true);
+
+        Task<Void> stopTask = new Task<>() {
+            @Override
+            protected Void call() {
+                running.stop();
+                return null;
+            }
+        };
+        stopTask.setOnSucceeded(event -> {
+            running.setState(Server.ServerState.STOPPED);
+            updateServerControls(running);
+            // Opcional: Limpiar consola visual
+            consoleArea.clearConsole();
+            ServerManager.removeServer(name);
+        });
+        stopTask.setOnFailed(event -> {
+            stopTask.getException().printStackTrace();
+            updateServerControls(running);
+        });
 
-        // Opcional: Limpiar consola visual
-        Platform.runLater(() -> consoleArea.clear());
-        ServerManager.removeServer(name);
+        Thread hilo = new Thread(stopTask, "Server-Stop-" + name);
+        hilo.setDaemon(true);
+        hilo.start();
     }
     /**
      * Reinicia el servidor seleccionado con una pausa de 5 segundos entre detener e iniciar.
@@ -1032,9 +1202,9 @@ public class MainController {
         Server running=ServerManager.getServer(name);
         if (running == null) return;
 
-        running.stop();
         new Thread(() -> {
             try {
+                running.stop();
                 Thread.sleep(5000);
                 running.start();
             } catch (InterruptedException e) {
@@ -1,7 +1,11 @@
 package com.servermanager.minecraft.controllers;
 
+import com.servermanager.minecraft.models.Propiedades;
 import com.servermanager.minecraft.models.Server;
+import com.servermanager.minecraft.net.ServerStatus;
+import com.servermanager.minecraft.net.StatusPoller;
 
+import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -14,12 +18,20 @@ import java.util.Map;
  *
  * <p>Esta clase mantiene un {@link Map} interno de servidores activos,
  * y permite acceder a ellos de forma centralizada durante toda la aplicación.</p>
+ *
+ * <p>El sondeo de estado es independiente de ese mapa: se sondean todos los
+ * servidores conocidos ({@link #watchStatus(Server)}), estén o no arrancados
+ * desde el gestor.</p>
  */
 public class ServerManager {
     /**
      * Mapa de servidores actualmente activos, indexados por nombre.
      */
     private static final Map<String, Server> activeServers = new HashMap<>();
+    /**
+     * Sondeo de estado compartido por todos los servidores.
+     */
+    private static StatusPoller statusPoller;
 
     /**
      * Devuelve el servidor asociado a un nombre dado.
@@ -37,6 +49,8 @@ public class ServerManager {
      */
     public static void addServer(Server server) {
         activeServers.put(server.getName(), server);
+        // Al arrancar se vuelven a leer los puertos por si se cambiaron las propiedades
+        watchStatus(server);
     }
     /**
      * Elimina un servidor por su nombre. Si está corriendo, se detiene automáticamente.
@@ -48,6 +62,7 @@ public class ServerManager {
         if (server != null && server.isRunning()) {
             server.stop();
         }
+        if (server != null) server.closeSearchIndex();
     }
     /**
      * Detiene todos los servidores que estén en ejecución y limpia el mapa.
@@ -57,8 +72,12 @@ public class ServerManager {
             if (server.isRunning()) {
                 server.stop();
             }
+            server.closeSearchIndex();
         }
         activeServers.clear();
+        synchronized (ServerManager.class) {
+            if (statusPoller != null) statusPoller.stop();
+        }
     }
     /**
      * Verifica si un servidor específico está en ejecución.
@@ -94,4 +113,59 @@ public class ServerManager {
     public static boolean hasRunningServers() {
         return activeServers.values().stream().anyMatch(Server::isRunning);
     }
+    /**
+     * Devuelve el sondeo de estado compartido, arrancándolo la primera vez.
+     * Todos los servidores se sondean desde el mismo hilo de red.
+     *
+     * @return el sondeo de estado.
+     */
+    public static synchronized StatusPoller getStatusPoller() {
+        if (statusPoller == null) {
+            statusPoller = new StatusPoller(StatusPoller.DEFAULT_INTERVAL_MILLIS);
+            statusPoller.start();
+        }
+        return statusPoller;
+    }
+    /**
+     * Registra (o actualiza) un servidor en el sondeo de estado según su
+     * {@code server.properties}. Si no tiene ni estado ni Query activados deja de sondearse.
+     *
+     * @param server el servidor a sondear.
+     */
+    public static void watchStatus(Server server) {
+        Propiedades config = server.getConfig();
+        if (config == null) return;
+        String ip = config.getServerIp();
+        String host = ip == null || ip.isBlank() ? "127.0.0.1" : ip;
+        // Sin resolver: la búsqueda DNS la hace el sondeo en su hilo, no el hilo de la interfaz
+        InetSocketAddress status = config.isEnableStatus() && config.getServerPort() > 0
+                ? InetSocketAddress.createUnresolved(host, config.getServerPort()) : null;
+        InetSocketAddress query = config.isEnableQuery() && config.getQueryPort() > 0
+                ? InetSocketAddress.createUnresolved(host, config.getQueryPort()) : null;
+        if (status != null || query != null) {
+            getStatusPoller().addTarget(server.getName(), status, query);
+        } else {
+            unwatchStatus(server.getName());
+        }
+    }
+    /**
+     * Deja de sondear un servidor. No arranca el sondeo si aún no existe.
+     *
+     * @param name nombre del servidor.
+     */
+    public static synchronized void unwatchStatus(String name) {
+        if (statusPoller != null) statusPoller.removeTarget(name);
+    }
+    /**
+     * Devuelve el último estado conocido de un servidor: el del Server List Ping
+     * o, si no lo tiene, el de Query.
+     *
+     * @param name nombre del servidor.
+     * @return el estado, o {@code null} si no se sondea o aún no hay resultado.
+     */
+    public static synchronized ServerStatus getStatus(String name) {
+        if (statusPoller == null) return null;
+        ServerStatus status = statusPoller.getStatus(name);
+        return status != null ? status : statusPoller.getQuery(name);
+    }
 }
@@ -0,0 +1,17 @@
+package com.servermanager.minecraft.error;
+
+/**
+ * Excepción lanzada cuando un comando no se puede enviar al servidor, porque
+ * no está en marcha o porque su cola de comandos está llena.
+ */
+public class CommandRejectedException extends RuntimeException {
+
+    /**
+     * Crea una nueva excepción con un mensaje personalizado.
+     *
+     * @param message Mensaje de error.
+     */
+    public CommandRejectedException(String message) {
+        super(message);
+    }
+}
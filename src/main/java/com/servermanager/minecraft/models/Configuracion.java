@@ -2,11 +2,13 @@ package com.servermanager.minecraft.models;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.servermanager.minecraft.console.AlertRule;
 import com.servermanager.minecraft.versions.MinecraftVersion;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.List;
 /**
  * Representa la configuración de un servidor Minecraft,
  * incluyendo la versión del servidor y una descripción opcional.
@@ -19,6 +21,15 @@ public class Configuracion {
 
     /** Descripción opcional del servidor o configuración. */
     private String descripcion;
+
+    /** Número máximo de líneas de consola retenidas en memoria. */
+    private int consolaMaxLineas = Console.DEFAULT_MAX_LINES;
+
+    /** Número máximo de bytes de consola retenidos en memoria. */
+    private long consolaMaxBytes = Console.DEFAULT_MAX_BYTES;
+
+    /** Reglas de alerta sobre la consola (null para usar las de por defecto). */
+    private List<AlertRule> alertas;
     /**
      * Constructor por defecto.
      * Inicializa la versión con "1.0" y activa el flag por defecto (true).
@@ -66,6 +77,54 @@ public class Configuracion {
     public void setDescripcion(String descripcion) {
         this.descripcion = descripcion;
     }
+    /**
+     * Obtiene el número máximo de líneas de consola retenidas en memoria.
+     *
+     * @return límite de líneas (valor por defecto si no es válido).
+     */
+    public int getConsolaMaxLineas() {
+        return consolaMaxLineas > 0 ? consolaMaxLineas : Console.DEFAULT_MAX_LINES;
+    }
+    /**
+     * Establece el número máximo de líneas de consola retenidas en memoria.
+     *
+     * @param consolaMaxLineas nuevo límite de líneas.
+     */
+    public void setConsolaMaxLineas(int consolaMaxLineas) {
+        this.consolaMaxLineas = consolaMaxLineas;
+    }
+    /**
+     * Obtiene el número máximo de bytes de consola retenidos en memoria.
+     *
+     * @return límite de bytes (valor por defecto si no es válido).
+     */
+    public long getConsolaMaxBytes() {
+        return consolaMaxBytes > 0 ? consolaMaxBytes : Console.DEFAULT_MAX_BYTES;
+    }
+    /**
+     * Establece el número máximo de bytes de consola retenidos en memoria.
+     *
+     * @param consolaMaxBytes nuevo límite de bytes.
+     */
+    public void setConsolaMaxBytes(long consolaMaxBytes) {
+        this.consolaMaxBytes = consolaMaxBytes;
+    }
+    /**
+     * Obtiene las reglas de alerta sobre la consola.
+     *
+     * @return reglas configuradas, o las reglas por defecto si no hay ninguna.
+     */
+    public List<AlertRule> getAlertas() {
+        return alertas != null ? alertas : AlertRule.defaults();
+    }
+    /**
+     * Establece las reglas de alerta sobre la consola.
+     *
+     * @param alertas nuevas reglas.
+     */
+    public void setAlertas(List<AlertRule> alertas) {
+        this.alertas = alertas;
+    }
     /**
      * Guarda la configuración actual en un archivo JSON.
      * <p>
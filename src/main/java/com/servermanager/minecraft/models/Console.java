@@ -1,21 +1,55 @@
 package com.servermanager.minecraft.models;
 
+import com.servermanager.minecraft.console.CommandChannel;
+import com.servermanager.minecraft.console.ConsoleBuffer;
+import com.servermanager.minecraft.console.ConsoleListener;
+import com.servermanager.minecraft.console.ConsoleSink;
+import com.servermanager.minecraft.console.ConsoleSubscription;
+import com.servermanager.minecraft.console.OutputPump;
+
 import java.io.*;
-import java.util.ArrayList;
+import java.nio.charset.Charset;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Clase que representa la consola de un servidor Minecraft.
  * <p>
  * Permite manejar el flujo de entrada/salida de la consola, almacenar
  * el log de salida y enviar comandos al proceso del servidor.
+ * <p>
+ * El log se guarda en un {@link ConsoleBuffer} acotado: cada línea tiene un
+ * número de secuencia y las lecturas piden solo lo posterior a una secuencia.
+ * Los interesados en la salida se suscriben con {@link #subscribe(ConsoleListener, long)}
+ * y reciben las líneas nuevas por lotes, sin necesidad de sondear.
+ * <p>
+ * Los comandos se encolan en un {@link CommandChannel}, que los escribe en el
+ * proceso desde su propio hilo: enviar un comando nunca bloquea a quien lo envía.
  */
-public class Console {
-    /** Lista que almacena el log de la consola. */
-    private final List<String> log = new ArrayList<>();
+public class Console implements ConsoleSink {
+    /** Número máximo de líneas retenidas por defecto. */
+    public static final int DEFAULT_MAX_LINES = 10_000;
+
+    /** Número máximo de bytes retenidos por defecto. */
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
 
-    /** Escritor para enviar comandos al proceso. */
-    private PrintWriter writer;
+    /** Hilos compartidos por todas las consolas para repartir lotes a los suscriptores. */
+    private static final ExecutorService DISPATCHER = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "Console-Dispatcher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Buffer que almacena el log de la consola. */
+    private final ConsoleBuffer log;
+
+    /** Suscripciones activas. */
+    private final List<ConsoleSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /** Canal por el que se envían los comandos al proceso (null si no hay proceso). */
+    private volatile CommandChannel commands;
     /**
      * Constructor que inicializa la consola con un OutputStream.
      * <p>
@@ -24,71 +58,183 @@ public class Console {
      * @param outputStream el flujo de salida hacia el proceso del servidor.
      */
     public Console(OutputStream outputStream) {
-        this.writer = new PrintWriter(outputStream, true);
+        this();
+        attach(outputStream);
     }
     /**
      * Constructor vacío para crear una consola sin streams inicialmente.
      * Los streams pueden adjuntarse posteriormente usando {@link #attach(OutputStream, InputStream)}.
      */
-    public Console(){}
+    public Console(){
+        this(DEFAULT_MAX_LINES, DEFAULT_MAX_BYTES);
+    }
+    /**
+     * Constructor que define la capacidad del log.
+     *
+     * @param maxLines número máximo de líneas retenidas en memoria.
+     * @param maxBytes número máximo de bytes retenidos en memoria.
+     */
+    public Console(int maxLines, long maxBytes) {
+        this.log = new ConsoleBuffer(maxLines, maxBytes);
+    }
+    /**
+     * Adjunta el flujo por el que se envían comandos al proceso del servidor.
+     * <p>
+     * La salida del proceso no se lee aquí: la consola se registra como
+     * destino de un {@link OutputPump}. Si había un canal anterior se cierra.
+     *
+     * @param outputStream flujo de salida hacia el proceso del servidor.
+     */
+    public void attach(OutputStream outputStream) {
+        CommandChannel previous = commands;
+        commands = new CommandChannel(outputStream, Charset.defaultCharset(),
+                CommandChannel.DEFAULT_CAPACITY, "Console-Commands");
+        if (previous != null) previous.close();
+    }
+    /**
+     * Cierra el canal de comandos, por ejemplo cuando el proceso termina.
+     * Los comandos enviados después se rechazan.
+     */
+    public void detach() {
+        CommandChannel previous = commands;
+        commands = null;
+        if (previous != null) previous.close();
+    }
     /**
      * Adjunta los flujos de salida e entrada para la consola.
      * <p>
-     * Inicia un hilo que lee continuamente del InputStream para capturar
+     * Crea un {@link OutputPump} que lee continuamente del InputStream para capturar
      * la salida del servidor y almacenarla en el log.
      *
      * @param outputStream flujo de salida hacia el proceso del servidor (para enviar comandos).
      * @param inputStream flujo de entrada desde el proceso del servidor (para leer su salida).
+     * @return la bomba de salida creada, ya en marcha.
+     */
+    public OutputPump attach(OutputStream outputStream, InputStream inputStream) {
+        attach(outputStream);
+        OutputPump pump = new OutputPump(inputStream, "Console-Reader", null);
+        pump.addSink(this);
+        pump.start();
+        return pump;
+    }
+    /**
+     * Recibe una línea de la bomba de salida del proceso y la añade al log.
+     *
+     * @param data   buffer con la línea en UTF-8.
+     * @param offset inicio de la línea.
+     * @param length longitud de la línea en bytes.
+     */
+    @Override
+    public void onLine(byte[] data, int offset, int length) {
+        log.append(data, offset, length);
+    }
+    /**
+     * Avisa a los suscriptores cuando la bomba termina un bloque de lectura.
+     */
+    @Override
+    public void flush() {
+        notifySubscribers();
+    }
+    /**
+     * Suscribe un receptor a las líneas de la consola.
+     *
+     * @param listener receptor de los lotes de líneas.
+     * @param afterSeq secuencia a partir de la cual entregar; 0 para recibir primero
+     *                 todo lo retenido, {@link #getLastSeq()} para recibir solo lo nuevo.
+     * @return la suscripción, que se cancela con {@link #unsubscribe(ConsoleSubscription)}.
+     */
+    public ConsoleSubscription subscribe(ConsoleListener listener, long afterSeq) {
+        ConsoleSubscription[] holder = new ConsoleSubscription[1];
+        holder[0] = new ConsoleSubscription(log, listener, afterSeq, DISPATCHER,
+                () -> subscriptions.remove(holder[0]));
+        subscriptions.add(holder[0]);
+        holder[0].signal();
+        return holder[0];
+    }
+    /**
+     * Cancela una suscripción.
+     *
+     * @param subscription suscripción a cancelar (se ignora si es null).
      */
-    public void attach(OutputStream outputStream, InputStream inputStream) {
-        this.writer = new PrintWriter(outputStream, true);
-        new Thread(() -> {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    synchronized (log) {
-                        log.add(line+"\n");
-                    }
-                }
-            } catch (IOException e) {
-                synchronized (log) {
-                    log.add("[ERROR] " + e.getMessage());
-                }
-            }
-        }, "Console-Reader").start();
+    public void unsubscribe(ConsoleSubscription subscription) {
+        if (subscription != null) subscription.cancel();
+    }
+    private void notifySubscribers() {
+        for (ConsoleSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
     }
     /**
      * Añade una línea al log de la consola.
-     * <p>
-     * Si la línea cumple con un patrón específico (comienza con corchetes),
-     * se añade una línea vacía para separar visualmente en el log.
      *
      * @param line línea de texto a añadir al log.
      */
     public void write(String line) {
-        if (line.matches("^\\[.*?\\].*")) {
-            log.add(""); // Añade salto de línea visual
-        }
-        log.add(line);
+        log.append(line);
+        notifySubscribers();
     }
 
     /**
-     * Envía un comando al proceso del servidor y lo registra en el log.
+     * Encola un comando para el proceso del servidor y lo registra en el log.
+     * <p>
+     * No espera a que se escriba. {@code stop}, {@code kick} y los baneos se
+     * adelantan a los comandos normales pendientes.
      *
      * @param command comando a enviar.
+     * @return true si se encoló; false si no hay proceso adjunto o la cola está llena.
      */
-    public void sendCommand(String command) {
-        writer.println(command);
-        writer.flush();
-        log.add("> " + command);
+    public boolean sendCommand(String command) {
+        CommandChannel channel = commands;
+        if (channel == null || !channel.submit(command)) {
+            return false;
+        }
+        log.append("> " + command);
+        notifySubscribers();
+        return true;
     }
     /**
-     * Obtiene una copia del log actual de la consola.
+     * Obtiene el canal de comandos actual, para consultar sus métricas.
+     *
+     * @return el canal, o null si no hay proceso adjunto.
+     */
+    public CommandChannel getCommandChannel() {
+        return commands;
+    }
+    /**
+     * Obtiene una copia de las líneas retenidas en el log de la consola.
+     * <p>
+     * Para seguir el log es preferible {@link #getLinesAfter(long)}, que solo
+     * copia las líneas nuevas.
      *
      * @return lista con las líneas del log.
      */
     public List<String> getLog() {
-        return new ArrayList<>(log);
+        return log.linesAfter(0, Integer.MAX_VALUE);
+    }
+    /**
+     * Obtiene las líneas posteriores a una secuencia dada.
+     *
+     * @param seq última secuencia ya leída (0 para empezar por la más antigua retenida).
+     * @return lista con las líneas nuevas.
+     */
+    public List<String> getLinesAfter(long seq) {
+        return log.linesAfter(seq, Integer.MAX_VALUE);
+    }
+    /**
+     * Obtiene la secuencia de la última línea escrita en el log.
+     *
+     * @return última secuencia, o 0 si el log está vacío.
+     */
+    public long getLastSeq() {
+        return log.getLastSeq();
+    }
+    /**
+     * Obtiene el buffer subyacente del log.
+     *
+     * @return el buffer de la consola.
+     */
+    public ConsoleBuffer getBuffer() {
+        return log;
     }
     /**
      * Limpia todo el log almacenado.
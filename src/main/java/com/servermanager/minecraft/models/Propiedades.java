@@ -264,6 +264,70 @@ public class Propiedades {
             e.printStackTrace();
         }
     }
+    /**
+     * Indica si el servidor tiene RCON activado.
+     *
+     * @return true si {@code enable-rcon} está activo.
+     */
+    public boolean isEnableRcon() {
+        return enable_rcon;
+    }
+    /**
+     * Obtiene el puerto RCON.
+     *
+     * @return el puerto, o -1 si no está configurado.
+     */
+    public int getRconPort() {
+        return rcon_port;
+    }
+    /**
+     * Obtiene la contraseña RCON.
+     *
+     * @return la contraseña, o null si no está configurada.
+     */
+    public String getRconPassword() {
+        return rcon_password;
+    }
+    /**
+     * Obtiene la dirección en la que escucha el servidor.
+     *
+     * @return la dirección, o null/vacío si escucha en todas.
+     */
+    public String getServerIp() {
+        return server_ip;
+    }
+    /**
+     * Obtiene el puerto del juego.
+     *
+     * @return el puerto, o -1 si no está configurado.
+     */
+    public int getServerPort() {
+        return server_port;
+    }
+    /**
+     * Indica si el servidor responde al Server List Ping.
+     *
+     * @return true si {@code enable-status} está activo.
+     */
+    public boolean isEnableStatus() {
+        return enable_status;
+    }
+    /**
+     * Indica si el servidor tiene Query activado.
+     *
+     * @return true si {@code enable-query} está activo.
+     */
+    public boolean isEnableQuery() {
+        return enable_query;
+    }
+    /**
+     * Obtiene el puerto UDP de Query.
+     *
+     * @return el puerto, o -1 si no está configurado.
+     */
+    public int getQueryPort() {
+        return query_port;
+    }
     /**
      * Método auxiliar para establecer propiedades de forma segura en un objeto Properties.
      * Si la clave o valor es null, se maneja apropiadamente para evitar excepciones.
@@ -2,24 +2,39 @@ package com.servermanager.minecraft.models;
 
 
 import com.servermanager.java.JavaRuntimeManager;
+import com.servermanager.minecraft.console.AlertEngine;
+import com.servermanager.minecraft.console.CommandCorrelator;
+import com.servermanager.minecraft.console.ConsoleHistory;
+import com.servermanager.minecraft.console.ConsoleSearchIndex;
+import com.servermanager.minecraft.console.ConsoleSpool;
+import com.servermanager.minecraft.console.LogLineSink;
+import com.servermanager.minecraft.console.OutputPump;
+import com.servermanager.minecraft.console.ResponseMatcher;
+import com.servermanager.minecraft.console.ServerEvent;
+import com.servermanager.minecraft.console.ServerEventBus;
+import com.servermanager.minecraft.console.StdoutSink;
 import com.servermanager.minecraft.controllers.MainController;
 import com.servermanager.minecraft.error.*;
+import com.servermanager.minecraft.net.DownloadProgress;
+import com.servermanager.minecraft.net.RconClient;
 import com.servermanager.minecraft.services.LoaderService;
+import com.servermanager.minecraft.utils.ArtifactCache;
 import com.servermanager.minecraft.utils.ConfiguracionManager;
 import com.servermanager.minecraft.utils.IPBan;
 import com.servermanager.minecraft.utils.Log;
 import com.servermanager.minecraft.utils.MinecraftVersionLoader;
 import com.servermanager.minecraft.versions.MinecraftVersion;
+import com.servermanager.minecraft.versions.VersionMetadata;
+import javafx.application.Platform;
 import javafx.scene.image.Image;
 import org.apache.commons.compress.archivers.dump.InvalidFormatException;
 
 import java.io.*;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 /**
  * Representa un servidor de Minecraft gestionado por la aplicación.
@@ -69,15 +84,45 @@ public class Server{
     /** Proceso que ejecuta el servidor */
     private Process process;
 
+    /** Protege el lanzamiento del proceso frente a una cancelación del arranque */
+    private final Object launchLock = new Object();
+
+    /** Se ha pedido cancelar el arranque en curso (ver {@link #cancelStart()}) */
+    private boolean startCancelled;
+
+    /** Lector único de la salida del proceso */
+    private OutputPump outputPump;
+
+    /** Volcado a disco del historial de consola */
+    private ConsoleSpool consoleSpool;
+
+    /** Índice de búsqueda sobre el historial de consola (se crea bajo demanda) */
+    private ConsoleSearchIndex searchIndex;
+
+    /** Análisis compartido de las líneas de log, para eventos y alertas */
+    private final LogLineSink logLines = new LogLineSink();
+
+    /** Sucesos deducidos de la consola (se crea bajo demanda) */
+    private ServerEventBus events;
+
+    /** Reglas de alerta sobre la consola (se crea bajo demanda) */
+    private AlertEngine alerts;
+
+    /** Asociación de comandos con su respuesta en la consola (se crea bajo demanda) */
+    private CommandCorrelator queries;
+
+    /** Cliente RCON, alternativa a la entrada estándar (se crea bajo demanda) */
+    private RconClient rcon;
+
+    /** Carpeta, dentro del servidor, donde se guarda el historial de consola */
+    private static final String HISTORY_DIR = "logs/manager-console";
+
     /** Registro de logs de la consola */
     private List<String> consoleLog = new ArrayList<>();
 
     /** Imagen/icono del servidor */
     private Image image;
 
-    /** Lista de versiones de Minecraft disponibles */
-    static List<MinecraftVersion> versiones;
-
     /** Configuración avanzada del servidor */
     private Configuracion configuracion;
 
@@ -104,17 +149,7 @@ public class Server{
     /**
      * Estado actual del servidor.
      */
-    private ServerState serverState;
-    /**
-     * Carga todas las versiones de Minecraft disponibles al iniciar la clase.
-     */
-    static {
-        try {
-            versiones = MinecraftVersionLoader.loadAllVersions();
-        } catch (IOException e) {
-
-        }
-    }
+    private volatile ServerState serverState;
     /**
      * Constructor principal que inicializa el servidor basado en un directorio dado.
      * Carga configuración, mods, plugins, eula y la imagen/icono si existe.
@@ -153,7 +188,7 @@ public class Server{
         }
         this.configuracion= ConfiguracionManager.cargar(directorio.getPath());
         this.serverState=ServerState.STOPPED;
-        this.console=new Console();
+        this.console=new Console(configuracion.getConsolaMaxLineas(), configuracion.getConsolaMaxBytes());
         this.description=this.configuracion.getDescripcion();
     }
     /**
@@ -229,14 +264,19 @@ public class Server{
     /**
      * Arranca el servidor Minecraft si no está corriendo y si el EULA está aceptado.
      * Descarga el jar si es necesario.
+     * Si el arranque se cancela (con {@link #cancelStart()} o interrumpiendo el hilo)
+     * antes de lanzar el proceso, el proceso no llega a lanzarse.
      * @throws EulaNotAcceptedException Si el EULA no está aceptado.
      * @throws ServerAlreadyRunningException Si el servidor ya está corriendo.
-     * @throws ServerStartException Si ocurre error al iniciar.
+     * @throws ServerStartException Si ocurre error al iniciar o se cancela el arranque.
      */
     public void start() throws EulaNotAcceptedException, ServerAlreadyRunningException, ServerStartException {
         if (isRunning()) {
             throw new ServerAlreadyRunningException();
         }
+        synchronized (launchLock) {
+            startCancelled = false;
+        }
 
         if (!isEulaAccepted()) {
             throw new EulaNotAcceptedException();
@@ -250,54 +290,57 @@ public class Server{
             ProcessBuilder pb = new ProcessBuilder(getJavaExecutable(), "-jar", "server.jar", "nogui");
             pb.directory(directory);
             pb.redirectErrorStream(true);
-            process = pb.start();
+            synchronized (launchLock) {
+                // La descarga puede tardar: si entretanto se ha pulsado detener, no se lanza nada
+                if (startCancelled || Thread.currentThread().isInterrupted()) {
+                    throw new ServerStartException("Arranque cancelado: " + getName());
+                }
+                process = pb.start();
+            }
 
-            this.console = new Console(process.getOutputStream());
+            console.attach(process.getOutputStream());
             startReadingOutput(process);
-            // Hilo para recoger logs
-            Thread server=new Thread(() -> {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        console.write(line);
-                        System.out.println("[SERVER " + name + "] " + line); // salida al sistema
-                    }
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            });
-            server.start();
 
         } catch (IOException e) {
             throw new ServerStartException("Error al iniciar el servidor.", e);
         }
     }
     /**
-     * Lee la salida estándar del proceso en un hilo separado y actualiza la consola.
+     * Arranca la bomba de salida del proceso: un único hilo lee la salida
+     * y la reparte a la consola, a la salida estándar del gestor, al historial en disco
+     * y al analizador de líneas.
      * @param process Proceso del servidor.
      */
     private void startReadingOutput(Process process) {
-        new Thread(() -> {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    console.write("[SERVER " + getName() + "] " + line);
-                }
-
-                // Si se salió del bucle porque el stream terminó, y el proceso ya no está vivo:
-                if (!process.isAlive()) {
-                    onServerStoppedGracefully();
-                }
-
-            } catch (IOException e) {
-                // Solo mostrar si el proceso no fue detenido manualmente
-                if (process.isAlive()) {
-                    e.printStackTrace(); // o log
-                }else{
-                    onServerStoppedGracefully();
-                }
-            }
-        }, "Server-Output-" + getName()).start();
+        outputPump = new OutputPump(process.getInputStream(), "Server-Output-" + getName(),
+                () -> onOutputClosed(process));
+        outputPump.addSink(console);
+        outputPump.addSink(new StdoutSink("[SERVER " + getName() + "] "));
+        outputPump.addSink(getConsoleSpool());
+        // El índice va después del volcado: usa su numeración de líneas
+        outputPump.addSink(getSearchIndex());
+        getEvents();
+        getAlerts();
+        getQueries();
+        outputPump.addSink(logLines);
+        outputPump.start();
+    }
+    /**
+     * Se ejecuta cuando el proceso cierra su salida. Espera a que el proceso
+     * termine y notifica la parada.
+     * @param process Proceso del servidor.
+     */
+    private void onOutputClosed(Process process) {
+        try {
+            process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        console.detach();
+        closeRcon();
+        getEvents().reset();
+        onServerStoppedGracefully();
     }
     /**
      * Lógica a ejecutar cuando el servidor se detiene correctamente.
@@ -342,12 +385,101 @@ public class Server{
         }
     }
     /**
-     * Envía un comando a la consola del servidor.
+     * Envía un comando a la consola del servidor. No bloquea: el comando se
+     * encola y lo escribe el hilo del canal de comandos.
      * @param command Comando a enviar.
+     * @return true si se encoló; false si el servidor no está en marcha o la cola está llena.
      */
-    public void sendCommand(String command) {
+    public boolean sendCommand(String command) {
         if (process != null && process.isAlive()) {
-            console.sendCommand(command);
+            return console.sendCommand(command);
+        }
+        return false;
+    }
+    /**
+     * Envía un comando y espera su respuesta en la consola.
+     * @param command Comando a enviar.
+     * @param matcher Reconocedor de las líneas que forman la respuesta.
+     * @param timeoutMillis Tiempo máximo de espera.
+     * @return Futuro con los mensajes de la respuesta. Falla con {@link CommandRejectedException}
+     *         si el comando no se pudo enviar, o con {@link java.util.concurrent.TimeoutException}
+     *         si no llegó respuesta.
+     */
+    public CompletableFuture<List<String>> query(String command, ResponseMatcher matcher, long timeoutMillis) {
+        CompletableFuture<List<String>> response = getQueries()
+                .expect(matcher, timeoutMillis, CommandCorrelator.DEFAULT_QUIET_MILLIS);
+        if (!sendCommand(command)) {
+            response.completeExceptionally(new CommandRejectedException("No se pudo enviar el comando: " + command));
+        }
+        return response;
+    }
+    /**
+     * Envía un comando por RCON en lugar de por la entrada estándar. Funciona
+     * también con servidores que no ha arrancado el gestor, siempre que tengan
+     * RCON activado en {@code server.properties}.
+     * @param command Comando a enviar.
+     * @return Futuro con la respuesta del servidor. Falla con {@link CommandRejectedException}
+     *         si RCON no está configurado.
+     */
+    public CompletableFuture<String> sendRconCommand(String command) {
+        RconClient client = getRcon();
+        if (client == null) {
+            return CompletableFuture.failedFuture(
+                    new CommandRejectedException("RCON no está activado en el servidor " + getName()));
+        }
+        return client.command(command);
+    }
+    /**
+     * Obtiene el cliente RCON del servidor según su {@code server.properties}.
+     * @return El cliente, o null si RCON no está activado o le falta puerto o contraseña.
+     */
+    public synchronized RconClient getRcon() {
+        if (rcon == null) {
+            if (!config.isEnableRcon() || config.getRconPort() <= 0
+                    || config.getRconPassword() == null || config.getRconPassword().isEmpty()) {
+                return null;
+            }
+            String ip = config.getServerIp();
+            rcon = new RconClient(ip == null || ip.isBlank() ? "127.0.0.1" : ip,
+                    config.getRconPort(), config.getRconPassword());
+        }
+        return rcon;
+    }
+    /**
+     * Cierra la conexión RCON, si la hay. Se vuelve a crear con la configuración
+     * vigente la próxima vez que se use.
+     */
+    private synchronized void closeRcon() {
+        if (rcon != null) {
+            rcon.close();
+            rcon = null;
+        }
+    }
+    /**
+     * Pide al servidor la lista de jugadores conectados con {@code list}.
+     * Interpreta el formato vanilla ({@code There are N of a max of M players online: a, b}).
+     * @return Futuro con los nombres de los jugadores.
+     */
+    public CompletableFuture<List<String>> queryOnlinePlayers() {
+        return query("list", ResponseMatcher.lineStartingWith("There are "), 5000).thenApply(lines -> {
+            String line = lines.get(0);
+            int colon = line.indexOf(": ");
+            List<String> players = new ArrayList<>();
+            if (colon < 0) return players;
+            for (String player : line.substring(colon + 2).split(",")) {
+                if (!player.isBlank()) players.add(player.trim());
+            }
+            return players;
+        });
+    }
+
+    /**
+     * Cancela un arranque en curso que aún no haya lanzado el proceso.
+     * Al volver, o el proceso ya existe (y {@link #stop()} lo detiene) o ya no se lanzará.
+     */
+    public void cancelStart() {
+        synchronized (launchLock) {
+            startCancelled = true;
         }
     }
 
@@ -380,26 +512,41 @@ public class Server{
 
 
     /**
-     * Descarga el archivo server.jar si no está disponible o si hay una nueva versión.
+     * Coloca el server.jar de la versión configurada, descargándolo a la caché de artefactos solo si aún no está en ella.
      * @throws IOException Si ocurre un error en la descarga.
      */
     private void asegurarVersionDescargada() throws IOException {
         File serverJar = new File(directory, "server.jar");
 
-        MinecraftVersion version = getConfiguracion().getVersion();
+        MinecraftVersion version = resolverVersion(getConfiguracion().getVersion());
         if (version == null) throw new IllegalStateException("Versión no configurada para el servidor.");
+        // La instancia del catálogo comparte los metadatos (y la versión de Java) con el resto
+        if (version != getConfiguracion().getVersion()) getConfiguracion().setVersion(version);
 
-        String jarUrl = version.getJarUrl();
-        if (jarUrl == null || jarUrl.isEmpty()) throw new IOException("No se pudo obtener la URL del JAR");
-
-        System.out.println("Descargando " + jarUrl);
+        VersionMetadata metadata = version.getMetadata();
+        String sha1 = metadata.getJarSha1();
+        if (sha1 == null) throw new IOException("No se pudo obtener el SHA-1 del JAR");
 
-        // Descarga
-        try (InputStream in = new URL(jarUrl).openStream()) {
-            Files.copy(in, serverJar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        // La descarga solo ocurre la primera vez; después se enlaza desde la caché
+        Path cached = ArtifactCache.fetch(DownloadProgress.Stage.SERVER_JAR, version.getVersion(),
+                metadata.getJarUrl(), sha1, metadata.getJarSize());
+        ArtifactCache.linkInto(cached, sha1, serverJar.toPath());
+    }
+    /**
+     * Sustituye la versión leída de la configuración por la del catálogo de versiones.
+     * Sin red, basta con la versión guardada si tiene la URL de su manifiesto.
+     * @param version Versión configurada.
+     * @return La versión del catálogo, o la configurada si no se puede resolver.
+     * @throws IOException Si no se puede cargar el catálogo y la versión no tiene URL.
+     */
+    private static MinecraftVersion resolverVersion(MinecraftVersion version) throws IOException {
+        if (version == null) return null;
+        try {
+            return MinecraftVersionLoader.loadCatalog().resolve(version);
+        } catch (IOException e) {
+            if (version.getManifestUrl() == null) throw e;
+            return version;
         }
-
-        System.out.println("Descarga completada para " + serverJar.getAbsolutePath());
     }
     /**
      * Obtiene la configuración actual del servidor.
@@ -460,6 +607,14 @@ public class Server{
     public Process getProcess() {
         return this.process;
     }
+    /**
+     * Obtiene la bomba de salida del proceso en ejecución, para registrar
+     * destinos adicionales.
+     * @return La bomba, o null si el servidor no se ha arrancado.
+     */
+    public OutputPump getOutputPump() {
+        return this.outputPump;
+    }
     /**
      * Añade un plugin al servidor.
      * @param plugin El plugin a añadir.
@@ -635,9 +790,103 @@ public class Server{
         return this.playerLists;
     }
     /**
-     * Abre el log completo (implementación vacía).
+     * Obtiene el volcado a disco de la consola, creándolo si no existe.
+     * @return El volcado del historial.
+     */
+    private synchronized ConsoleSpool getConsoleSpool() {
+        if (consoleSpool == null) {
+            consoleSpool = new ConsoleSpool(new File(directory, HISTORY_DIR));
+        }
+        return consoleSpool;
+    }
+    /**
+     * Obtiene el índice de búsqueda sobre el historial de consola. Se crea la
+     * primera vez que se pide (o tras cerrarse el anterior al terminar el proceso),
+     * indexando en segundo plano el historial existente.
+     * @return El índice de búsqueda.
+     */
+    public synchronized ConsoleSearchIndex getSearchIndex() {
+        if (searchIndex == null || searchIndex.isClosed()) {
+            searchIndex = new ConsoleSearchIndex(getConsoleSpool());
+        }
+        return searchIndex;
+    }
+    /**
+     * Obtiene el índice de búsqueda solo si ya existe, es decir, si el servidor
+     * se ha arrancado en esta sesión. No crea el índice ni su hilo de indexado.
+     * @return El índice de búsqueda, o null si no hay.
+     */
+    public synchronized ConsoleSearchIndex findSearchIndex() {
+        return searchIndex;
+    }
+    /**
+     * Cierra el índice de búsqueda, deteniendo su hilo de indexado, si existe.
+     */
+    public synchronized void closeSearchIndex() {
+        if (searchIndex != null) {
+            searchIndex.close();
+            searchIndex = null;
+        }
+    }
+    /**
+     * Obtiene el analizador de líneas del servidor, al que se registran los
+     * receptores de líneas ya separadas en hora, nivel, hilo y mensaje.
+     * @return El destino que analiza la salida.
+     */
+    public LogLineSink getLogLines() {
+        return logLines;
+    }
+    /**
+     * Obtiene el canal de sucesos del servidor (arranque completado, jugadores,
+     * retrasos, chat, fallos). Al crearlo se registra en el analizador de líneas
+     * y se usa para pasar el servidor a {@link ServerState#RUNNING} cuando
+     * termina de arrancar.
+     * @return El canal de sucesos.
+     */
+    public synchronized ServerEventBus getEvents() {
+        if (events == null) {
+            events = new ServerEventBus(getName());
+            events.addListener(event -> {
+                if (event.getType() == ServerEvent.Type.READY && serverState == ServerState.STARTING) {
+                    serverState = ServerState.RUNNING;
+                    Platform.runLater(() -> controller.updateServerControls(this));
+                }
+            });
+            logLines.addListener(events);
+        }
+        return events;
+    }
+    /**
+     * Obtiene el motor de alertas del servidor, con las reglas de su configuración.
+     * Los avisos se escriben en la consola del servidor.
+     * @return El motor de alertas.
+     */
+    public synchronized AlertEngine getAlerts() {
+        if (alerts == null) {
+            alerts = new AlertEngine(getName(), getConfiguracion().getAlertas());
+            alerts.addListener((rule, server, line, suppressed) -> console.write("[ALERTA] " + rule.getName()
+                    + (suppressed > 0 ? " (+" + suppressed + " silenciadas)" : "") + ": " + line));
+            logLines.addListener(alerts);
+        }
+        return alerts;
+    }
+    /**
+     * Obtiene el asociador de comandos y respuestas del servidor.
+     * @return El asociador, ya registrado en el analizador de líneas.
+     */
+    public synchronized CommandCorrelator getQueries() {
+        if (queries == null) {
+            queries = new CommandCorrelator();
+            logLines.addListener(queries);
+        }
+        return queries;
+    }
+    /**
+     * Abre el historial completo de la consola volcado en disco.
+     * @return El historial, para leer líneas o buscar por hora.
      */
-    public void openFullLog() {
+    public ConsoleHistory openFullLog() {
+        return new ConsoleHistory(new File(directory, HISTORY_DIR));
     }
     /**
      * Obtiene la imagen asociada al servidor.
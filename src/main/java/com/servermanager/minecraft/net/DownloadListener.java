@@ -0,0 +1,32 @@
+package com.servermanager.minecraft.net;
+
+/**
+ * Observador de las transferencias de artefactos. Los métodos se invocan en el
+ * hilo que descarga: quien actualice la interfaz debe pasar al hilo de JavaFX.
+ */
+public interface DownloadListener {
+
+    /**
+     * Empieza una transferencia.
+     *
+     * @param progress la transferencia.
+     */
+    default void onStart(DownloadProgress progress) {
+    }
+
+    /**
+     * Avanza una transferencia; se avisa como mucho cada 100 ms por transferencia.
+     *
+     * @param progress la transferencia.
+     */
+    default void onProgress(DownloadProgress progress) {
+    }
+
+    /**
+     * Termina una transferencia, con éxito, con error o por acierto de caché.
+     *
+     * @param progress la transferencia.
+     */
+    default void onEnd(DownloadProgress progress) {
+    }
+}
@@ -0,0 +1,305 @@
+package com.servermanager.minecraft.net;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Avance y métricas de una transferencia de un artefacto (manifiesto,
+ * version.json, server.jar o JDK).
+ * <p>
+ * Lo crea {@link Downloads}, lo actualiza quien descarga y lo leen la interfaz
+ * y el registro a través de {@link DownloadListener}.
+ * </p>
+ */
+public final class DownloadProgress {
+
+    /**
+     * Tipo de artefacto que se transfiere.
+     */
+    public enum Stage {
+        MANIFEST("manifiesto"),
+        VERSION_METADATA("version.json"),
+        SERVER_JAR("server.jar"),
+        JDK("JDK");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /** Intervalo mínimo entre avisos de avance de una misma transferencia. */
+    private static final long NOTIFY_INTERVAL_NANOS = 100_000_000L;
+
+    private final Stage stage;
+    private final String name;
+    private final String url;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicInteger retries = new AtomicInteger();
+    private volatile long totalBytes = -1;
+    private volatile long resumedBytes;
+    private volatile long firstByteNanos = -1;
+    private volatile long endNanos = -1;
+    private volatile long lastNotifyNanos;
+    private volatile boolean cacheHit;
+    private volatile String error;
+
+    DownloadProgress(Stage stage, String name, String url) {
+        this.stage = stage;
+        this.name = name;
+        this.url = url;
+    }
+
+    /**
+     * Indica el tamaño total, cuando se conoce.
+     *
+     * @param totalBytes bytes totales, o -1 si no se conoce.
+     */
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    /**
+     * Marca la transferencia como continuación de una descarga anterior y
+     * avisa a los observadores.
+     *
+     * @param bytes bytes que ya estaban en disco y no se vuelven a transferir.
+     */
+    public void markResumed(long bytes) {
+        this.resumedBytes = bytes;
+        Downloads.progressed(this);
+    }
+
+    /**
+     * Suma bytes transferidos y avisa a los observadores, como mucho cada 100 ms.
+     *
+     * @param count bytes recibidos.
+     */
+    public void addBytes(long count) {
+        bytes.addAndGet(count);
+        long now = System.nanoTime();
+        if (now - lastNotifyNanos >= NOTIFY_INTERVAL_NANOS) {
+            lastNotifyNanos = now;
+            Downloads.progressed(this);
+        }
+    }
+
+    /**
+     * Envuelve un flujo para contar en esta transferencia los bytes que se lean de él.
+     *
+     * @param in flujo de la respuesta.
+     * @return flujo que cuenta lo leído.
+     */
+    public InputStream track(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) addBytes(1);
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int off, int len) throws IOException {
+                int n = super.read(buffer, off, len);
+                if (n > 0) addBytes(n);
+                return n;
+            }
+        };
+    }
+
+    /** Lo llama {@link Http} al recibir las primeras cabeceras. */
+    void markFirstByte() {
+        if (firstByteNanos < 0) firstByteNanos = System.nanoTime();
+    }
+
+    /** Lo llama {@link Http} en cada reintento. */
+    void addRetry() {
+        retries.incrementAndGet();
+    }
+
+    /**
+     * Marca la transferencia como servida desde una caché (en disco o revalidada con 304).
+     */
+    public void markCacheHit() {
+        this.cacheHit = true;
+    }
+
+    void end(String error) {
+        this.error = error;
+        this.endNanos = System.nanoTime();
+    }
+
+    /**
+     * Obtiene el tipo de artefacto.
+     *
+     * @return el tipo.
+     */
+    public Stage getStage() {
+        return stage;
+    }
+
+    /**
+     * Obtiene el nombre del artefacto (por ejemplo la versión).
+     *
+     * @return el nombre.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Obtiene la URL de origen.
+     *
+     * @return la URL.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Obtiene los bytes transferidos hasta ahora.
+     *
+     * @return bytes.
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Obtiene los bytes que ya estaban en disco de una descarga anterior.
+     *
+     * @return bytes reanudados, o 0 si la descarga empezó de cero.
+     */
+    public long getResumedBytes() {
+        return resumedBytes;
+    }
+
+    /**
+     * Obtiene el tamaño total.
+     *
+     * @return bytes totales, o -1 si no se conoce.
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Obtiene la fracción completada, contando lo reanudado.
+     *
+     * @return valor entre 0 y 1, o -1 si no se conoce el total.
+     */
+    public double getFraction() {
+        long total = totalBytes;
+        return total > 0 ? Math.min(1.0, (double) (resumedBytes + bytes.get()) / total) : -1;
+    }
+
+    /**
+     * Obtiene el tiempo transcurrido, o la duración total si ya terminó.
+     *
+     * @return milisegundos.
+     */
+    public long getElapsedMillis() {
+        long end = endNanos;
+        return ((end >= 0 ? end : System.nanoTime()) - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Obtiene la velocidad media desde el primer byte.
+     *
+     * @return bytes por segundo, o 0 si aún no llegó nada.
+     */
+    public long getBytesPerSecond() {
+        long from = firstByteNanos >= 0 ? firstByteNanos : startNanos;
+        long end = endNanos >= 0 ? endNanos : System.nanoTime();
+        long nanos = end - from;
+        return nanos <= 0 ? 0 : bytes.get() * 1_000_000_000L / nanos;
+    }
+
+    /**
+     * Obtiene el tiempo hasta el primer byte.
+     *
+     * @return milisegundos, o -1 si no llegó respuesta.
+     */
+    public long getTimeToFirstByteMillis() {
+        return firstByteNanos < 0 ? -1 : (firstByteNanos - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Obtiene los reintentos HTTP hechos durante la transferencia.
+     *
+     * @return reintentos.
+     */
+    public int getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * Indica si el artefacto salió de una caché sin descargarlo.
+     *
+     * @return true si fue un acierto de caché.
+     */
+    public boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    /**
+     * Indica si la transferencia ha terminado, con o sin error.
+     *
+     * @return true si ha terminado.
+     */
+    public boolean isDone() {
+        return endNanos >= 0;
+    }
+
+    /**
+     * Obtiene el error con el que terminó.
+     *
+     * @return la descripción, o null si terminó bien o sigue en curso.
+     */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder().append(stage).append(' ').append(name).append(": ");
+        if (cacheHit && bytes.get() == 0) {
+            return text.append("desde caché").toString();
+        }
+        text.append(formatBytes(bytes.get()));
+        if (totalBytes > 0) text.append(" / ").append(formatBytes(totalBytes));
+        text.append(" en ").append(getElapsedMillis()).append(" ms (")
+                .append(formatBytes(getBytesPerSecond())).append("/s, primer byte ")
+                .append(getTimeToFirstByteMillis()).append(" ms");
+        if (resumedBytes > 0) text.append(", reanudada desde ").append(formatBytes(resumedBytes));
+        if (retries.get() > 0) text.append(", ").append(retries.get()).append(" reintentos");
+        if (cacheHit) text.append(", caché");
+        text.append(')');
+        if (error != null) text.append(" - error: ").append(error);
+        return text.toString();
+    }
+
+    /**
+     * Da formato legible a una cantidad de bytes.
+     *
+     * @param bytes cantidad.
+     * @return texto como {@code 12.3 MB}.
+     */
+    public static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        if (bytes < 1024L * 1024 * 1024) return String.format("%.1f MB", bytes / (1024.0 * 1024));
+        return String.format("%.2f GB", bytes / (1024.0 * 1024 * 1024));
+    }
+}
@@ -0,0 +1,182 @@
+package com.servermanager.minecraft.net;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro de las transferencias de artefactos en curso y de sus métricas.
+ * <p>
+ * Cada descarga (manifiesto, version.json, server.jar, JDK) se da de alta con
+ * {@link #start}, informa de su avance a través de su {@link DownloadProgress}
+ * y se cierra con {@link #finish} o {@link #fail}. Los aciertos de caché se
+ * registran con {@link #cacheHit}. Todo se publica únicamente a los
+ * {@link DownloadListener}; entre ellos está siempre un
+ * {@link LoggingDownloadListener}, que anota en la consola las transferencias
+ * terminadas.
+ * </p>
+ */
+public final class Downloads {
+
+    private static final List<DownloadListener> listeners = new CopyOnWriteArrayList<>(List.of(new LoggingDownloadListener()));
+    private static final Set<DownloadProgress> active = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicLong completed = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong cacheHits = new AtomicLong();
+    private static final AtomicLong bytes = new AtomicLong();
+
+    private Downloads() {
+    }
+
+    /**
+     * Da de alta una transferencia.
+     *
+     * @param stage tipo de artefacto.
+     * @param name  nombre del artefacto (por ejemplo la versión).
+     * @param url   URL de origen.
+     * @return el avance de la transferencia.
+     */
+    public static DownloadProgress start(DownloadProgress.Stage stage, String name, String url) {
+        DownloadProgress progress = new DownloadProgress(stage, name, url);
+        active.add(progress);
+        for (DownloadListener listener : listeners) {
+            try {
+                listener.onStart(progress);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Cierra una transferencia terminada con éxito.
+     *
+     * @param progress la transferencia.
+     */
+    public static void finish(DownloadProgress progress) {
+        progress.end(null);
+        if (progress.isCacheHit()) cacheHits.incrementAndGet();
+        else completed.incrementAndGet();
+        bytes.addAndGet(progress.getBytes());
+        end(progress);
+    }
+
+    /**
+     * Cierra una transferencia fallida.
+     *
+     * @param progress la transferencia.
+     * @param error    la causa.
+     */
+    public static void fail(DownloadProgress progress, Throwable error) {
+        progress.end(error.getMessage() != null ? error.getMessage() : error.toString());
+        failed.incrementAndGet();
+        bytes.addAndGet(progress.getBytes());
+        end(progress);
+    }
+
+    /**
+     * Registra un artefacto que ya estaba en caché y no hubo que descargar.
+     *
+     * @param stage tipo de artefacto.
+     * @param name  nombre del artefacto.
+     * @param url   URL de la que se habría descargado.
+     */
+    public static void cacheHit(DownloadProgress.Stage stage, String name, String url) {
+        DownloadProgress progress = new DownloadProgress(stage, name, url);
+        progress.markCacheHit();
+        progress.end(null);
+        cacheHits.incrementAndGet();
+        end(progress);
+    }
+
+    /** Lo llama {@link DownloadProgress} al avanzar. */
+    static void progressed(DownloadProgress progress) {
+        for (DownloadListener listener : listeners) {
+            try {
+                listener.onProgress(progress);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static void end(DownloadProgress progress) {
+        active.remove(progress);
+        for (DownloadListener listener : listeners) {
+            try {
+                listener.onEnd(progress);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Obtiene las transferencias en curso.
+     *
+     * @return vista inmutable de las transferencias activas.
+     */
+    public static Collection<DownloadProgress> getActive() {
+        return Collections.unmodifiableSet(active);
+    }
+
+    /**
+     * Añade un observador de las transferencias.
+     *
+     * @param listener observador.
+     */
+    public static void addListener(DownloadListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Quita un observador.
+     *
+     * @param listener observador.
+     */
+    public static void removeListener(DownloadListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Obtiene el número de transferencias completadas desde la red.
+     *
+     * @return transferencias completadas.
+     */
+    public static long getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Obtiene el número de transferencias fallidas.
+     *
+     * @return transferencias fallidas.
+     */
+    public static long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Obtiene el número de artefactos servidos desde caché.
+     *
+     * @return aciertos de caché.
+     */
+    public static long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Obtiene el total de bytes transferidos.
+     *
+     * @return bytes.
+     */
+    public static long getBytes() {
+        return bytes.get();
+    }
+}
@@ -0,0 +1,337 @@
+package com.servermanager.minecraft.net;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Capa HTTP compartida por todas las descargas del gestor (manifiesto,
+ * version.json, server.jar y JDK).
+ * <p>
+ * Usa un único {@link OkHttpClient} con un grupo de conexiones, así que las
+ * descargas seguidas al mismo servidor reutilizan la conexión TLS (y HTTP/2
+ * cuando el servidor lo admite) en vez de negociarla para cada archivo. Las
+ * peticiones idempotentes se reintentan con espera exponencial ante errores de
+ * red y respuestas 408, 429 y 5xx, y cada petición deja sus métricas en un
+ * {@link HttpCallStats}.
+ * </p>
+ */
+public final class Http {
+
+    /** Intentos como máximo de una petición idempotente. */
+    private static final int MAX_ATTEMPTS = 4;
+
+    /** Espera antes del primer reintento; se dobla en cada uno. */
+    private static final long BASE_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 8_000;
+
+    private static final ConnectionPool POOL = new ConnectionPool(16, 5, TimeUnit.MINUTES);
+    private static final List<HttpListener> listeners = new CopyOnWriteArrayList<>();
+
+    private static final AtomicLong requests = new AtomicLong();
+    private static final AtomicLong failures = new AtomicLong();
+    private static final AtomicLong retries = new AtomicLong();
+    private static final AtomicLong newConnections = new AtomicLong();
+    private static final AtomicLong bytes = new AtomicLong();
+
+    private static volatile OkHttpClient client = new OkHttpClient.Builder()
+            .connectionPool(POOL)
+            .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .readTimeout(30, TimeUnit.SECONDS)
+            .writeTimeout(30, TimeUnit.SECONDS)
+            .addInterceptor(Http::retry)
+            .eventListenerFactory(StatsListener::new)
+            .build();
+
+    private Http() {
+    }
+
+    /**
+     * Obtiene el cliente compartido, para quien necesite construir peticiones a medida.
+     *
+     * @return el cliente.
+     */
+    public static OkHttpClient client() {
+        return client;
+    }
+
+    /**
+     * Activa la caché HTTP en disco para las respuestas cacheables. El grupo de
+     * conexiones se sigue compartiendo.
+     *
+     * @param directory directorio de la caché.
+     * @param maxBytes  tamaño máximo de la caché.
+     */
+    public static synchronized void enableResponseCache(Path directory, long maxBytes) {
+        client = client.newBuilder().cache(new Cache(directory.toFile(), maxBytes)).build();
+    }
+
+    /**
+     * Hace una petición GET y comprueba que la respuesta sea correcta.
+     *
+     * @param url URL a pedir.
+     * @return la respuesta; hay que cerrarla.
+     * @throws IOException si falla la red o la respuesta no es 2xx.
+     */
+    public static Response get(String url) throws IOException {
+        return get(url, null);
+    }
+
+    /**
+     * Hace una petición GET y comprueba que la respuesta sea correcta, anotando
+     * el primer byte y los reintentos en el avance de una transferencia.
+     *
+     * @param url      URL a pedir.
+     * @param progress avance de la transferencia, o null.
+     * @return la respuesta; hay que cerrarla.
+     * @throws IOException si falla la red o la respuesta no es 2xx.
+     */
+    public static Response get(String url, DownloadProgress progress) throws IOException {
+        Response response = execute(new Request.Builder().url(url).build(), progress);
+        if (!response.isSuccessful()) {
+            response.close();
+            throw new IOException("HTTP " + response.code() + " al pedir " + url);
+        }
+        return response;
+    }
+
+    /**
+     * Ejecuta una petición con el cliente compartido. No comprueba el código
+     * de respuesta, para quien necesite tratar 304 u otros.
+     *
+     * @param request petición.
+     * @return la respuesta; hay que cerrarla.
+     * @throws IOException si falla la red tras los reintentos.
+     */
+    public static Response execute(Request request) throws IOException {
+        return execute(request, null);
+    }
+
+    /**
+     * Ejecuta una petición como parte de una transferencia, anotando en su
+     * avance el primer byte y los reintentos.
+     *
+     * @param request  petición.
+     * @param progress avance de la transferencia, o null.
+     * @return la respuesta; hay que cerrarla.
+     * @throws IOException si falla la red tras los reintentos.
+     */
+    public static Response execute(Request request, DownloadProgress progress) throws IOException {
+        HttpCallStats stats = new HttpCallStats(request.url().toString());
+        stats.progress = progress;
+        return client.newCall(request.newBuilder().tag(HttpCallStats.class, stats).build()).execute();
+    }
+
+    /**
+     * Añade un observador de las peticiones terminadas.
+     *
+     * @param listener observador.
+     */
+    public static void addListener(HttpListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Quita un observador.
+     *
+     * @param listener observador.
+     */
+    public static void removeListener(HttpListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Obtiene el número de peticiones hechas.
+     *
+     * @return peticiones.
+     */
+    public static long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Obtiene el número de peticiones que terminaron en error de red.
+     *
+     * @return peticiones fallidas.
+     */
+    public static long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Obtiene el número de reintentos hechos.
+     *
+     * @return reintentos.
+     */
+    public static long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * Obtiene el número de conexiones abiertas; la diferencia con
+     * {@link #getRequests()} es lo que ha ahorrado el grupo de conexiones.
+     *
+     * @return conexiones nuevas.
+     */
+    public static long getNewConnections() {
+        return newConnections.get();
+    }
+
+    /**
+     * Obtiene los bytes de cuerpo recibidos.
+     *
+     * @return bytes.
+     */
+    public static long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Reintenta las peticiones idempotentes con espera exponencial.
+     */
+    private static Response retry(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        HttpCallStats stats = request.tag(HttpCallStats.class);
+        boolean idempotent = request.method().equals("GET") || request.method().equals("HEAD");
+        for (int attempt = 1; ; attempt++) {
+            if (stats != null) stats.attempts = attempt;
+            if (attempt > 1) {
+                retries.incrementAndGet();
+                if (stats != null && stats.progress != null) stats.progress.addRetry();
+            }
+            boolean last = !idempotent || attempt >= MAX_ATTEMPTS;
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (last || chain.call().isCanceled()) throw e;
+                sleep(backoff(attempt));
+                continue;
+            }
+            if (last || !isRetryable(response.code())) return response;
+            long wait = retryAfter(response, attempt);
+            response.close();
+            sleep(wait);
+        }
+    }
+
+    private static boolean isRetryable(int code) {
+        return code == 408 || code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    private static long retryAfter(Response response, int attempt) {
+        String header = response.header("Retry-After");
+        if (header != null) {
+            try {
+                return Math.min(MAX_BACKOFF_MILLIS, Long.parseLong(header.trim()) * 1000);
+            } catch (NumberFormatException ignored) {
+                // Fecha HTTP: se usa la espera normal
+            }
+        }
+        return backoff(attempt);
+    }
+
+    private static long backoff(int attempt) {
+        long wait = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << (attempt - 1));
+        return wait + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS / 2);
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Reintento interrumpido");
+        }
+    }
+
+    /**
+     * Rellena las métricas de una llamada con los eventos de OkHttp.
+     */
+    private static final class StatsListener extends EventListener {
+        private final HttpCallStats stats;
+
+        StatsListener(Call call) {
+            HttpCallStats tagged = call.request().tag(HttpCallStats.class);
+            this.stats = tagged != null ? tagged : new HttpCallStats(call.request().url().toString());
+        }
+
+        @Override
+        public void callStart(Call call) {
+            requests.incrementAndGet();
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            stats.newConnections++;
+            newConnections.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            stats.protocol = connection.protocol().toString();
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            if (stats.firstByteNanos < 0) stats.firstByteNanos = System.nanoTime();
+            if (stats.progress != null) stats.progress.markFirstByte();
+            stats.status = response.code();
+        }
+
+        @Override
+        public void cacheHit(Call call, Response response) {
+            stats.fromCache = true;
+            if (stats.progress != null) stats.progress.markCacheHit();
+            stats.status = response.code();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            stats.bytes += byteCount;
+            bytes.addAndGet(byteCount);
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            publish();
+        }
+
+        @Override
+        public void callFailed(Call call, IOException e) {
+            failures.incrementAndGet();
+            stats.error = e.getMessage() != null ? e.getMessage() : e.toString();
+            publish();
+        }
+
+        private void publish() {
+            stats.endNanos = System.nanoTime();
+            for (HttpListener listener : listeners) {
+                try {
+                    listener.onCallEnd(stats);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
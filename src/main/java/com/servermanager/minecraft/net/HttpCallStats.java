@@ -0,0 +1,128 @@
+package com.servermanager.minecraft.net;
+
+/**
+ * Métricas de una petición HTTP hecha con {@link Http}.
+ * <p>
+ * Se rellenan mientras la petición avanza y se publican a los
+ * {@link HttpListener} cuando termina, con éxito o con error.
+ * </p>
+ */
+public final class HttpCallStats {
+
+    private final String url;
+    private final long startNanos = System.nanoTime();
+    volatile int status = -1;
+    volatile String protocol;
+    volatile int attempts;
+    volatile int newConnections;
+    volatile long firstByteNanos = -1;
+    volatile long endNanos = -1;
+    volatile long bytes;
+    volatile boolean fromCache;
+    volatile String error;
+    /** Transferencia a la que pertenece la petición, si la hay */
+    volatile DownloadProgress progress;
+
+    HttpCallStats(String url) {
+        this.url = url;
+    }
+
+    /**
+     * Obtiene la URL pedida.
+     *
+     * @return la URL.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Obtiene el código HTTP de la última respuesta.
+     *
+     * @return el código, o -1 si no llegó respuesta.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Obtiene el protocolo negociado (por ejemplo {@code h2} o {@code http/1.1}).
+     *
+     * @return el protocolo, o null si no llegó a conectarse.
+     */
+    public String getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * Obtiene el número de reintentos hechos, sin contar el primer intento.
+     *
+     * @return reintentos.
+     */
+    public int getRetries() {
+        return Math.max(0, attempts - 1);
+    }
+
+    /**
+     * Indica si la petición reutilizó una conexión del grupo en vez de abrir una nueva.
+     *
+     * @return true si no se abrió ninguna conexión nueva.
+     */
+    public boolean isConnectionReused() {
+        return newConnections == 0;
+    }
+
+    /**
+     * Indica si la respuesta salió de la caché HTTP en disco sin tocar la red.
+     *
+     * @return true si se sirvió desde la caché.
+     */
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    /**
+     * Obtiene el tiempo hasta recibir las cabeceras de la respuesta.
+     *
+     * @return milisegundos, o -1 si no llegaron.
+     */
+    public long getTimeToFirstByteMillis() {
+        return firstByteNanos < 0 ? -1 : (firstByteNanos - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Obtiene la duración total de la petición, incluido el cuerpo.
+     *
+     * @return milisegundos, o -1 si no ha terminado.
+     */
+    public long getTotalMillis() {
+        return endNanos < 0 ? -1 : (endNanos - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Obtiene los bytes del cuerpo recibidos.
+     *
+     * @return bytes leídos.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Obtiene el error con el que terminó la petición.
+     *
+     * @return la descripción, o null si terminó bien.
+     */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return url + " -> " + (error != null ? error : status + " " + protocol)
+                + ", " + bytes + " B en " + getTotalMillis() + " ms (primer byte " + getTimeToFirstByteMillis() + " ms"
+                + (getRetries() > 0 ? ", " + getRetries() + " reintentos" : "")
+                + (isConnectionReused() ? ", conexión reutilizada" : "")
+                + (fromCache ? ", caché" : "") + ")";
+    }
+}
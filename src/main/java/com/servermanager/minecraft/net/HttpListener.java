@@ -0,0 +1,14 @@
+package com.servermanager.minecraft.net;
+
+/**
+ * Recibe las métricas de cada petición HTTP terminada.
+ */
+public interface HttpListener {
+
+    /**
+     * Se invoca cuando termina una petición, en el hilo que la hizo.
+     *
+     * @param stats métricas de la petición.
+     */
+    void onCallEnd(HttpCallStats stats);
+}
@@ -0,0 +1,22 @@
+package com.servermanager.minecraft.net;
+
+/**
+ * Observador que anota en la salida estándar cada transferencia terminada,
+ * con sus métricas; las fallidas van a la salida de errores. Los artefactos
+ * servidos desde caché sin transferir nada no se anotan.
+ * <p>
+ * {@link Downloads} lo registra de entrada: es el único sitio en el que se
+ * escriben las descargas en la consola.
+ * </p>
+ */
+final class LoggingDownloadListener implements DownloadListener {
+
+    @Override
+    public void onEnd(DownloadProgress progress) {
+        if (progress.getError() != null) {
+            System.err.println("[Descargas] " + progress);
+        } else if (!progress.isCacheHit() || progress.getBytes() > 0) {
+            System.out.println("[Descargas] " + progress);
+        }
+    }
+}
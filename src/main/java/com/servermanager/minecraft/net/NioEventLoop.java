@@ -0,0 +1,231 @@
+package com.servermanager.minecraft.net;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bucle de eventos de red con un único {@link Selector} y un único hilo.
+ * <p>
+ * Todas las conexiones de red del gestor (RCON, sondeo de estado) se atienden
+ * desde este hilo, sin crear un hilo por servidor. Los manejadores se ejecutan
+ * siempre en el hilo del bucle, así que no necesitan sincronización entre sí;
+ * desde otros hilos se usa {@link #execute(Runnable)} para entrar en él.
+ * </p>
+ * <p>
+ * Los bucles propios se cierran con {@link #close()}; el compartido vive
+ * mientras viva el gestor.
+ * </p>
+ */
+public final class NioEventLoop {
+
+    /**
+     * Manejador de los eventos de un canal registrado.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * Se invoca en el hilo del bucle cuando el canal está listo.
+         *
+         * @param key clave de selección del canal.
+         */
+        void handle(SelectionKey key);
+    }
+
+    private static volatile NioEventLoop shared;
+
+    private final Selector selector;
+    private final Thread thread;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /** Tareas diferidas, ordenadas por instante; solo las toca el hilo del bucle. */
+    private final PriorityQueue<Timer> timers = new PriorityQueue<>();
+    private final AtomicLong timerSeq = new AtomicLong();
+
+    private volatile boolean closed;
+
+    private static final class Timer implements Comparable<Timer> {
+        final long deadline;
+        final long seq;
+        final Runnable task;
+
+        Timer(long deadline, long seq, Runnable task) {
+            this.deadline = deadline;
+            this.seq = seq;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(Timer other) {
+            int c = Long.compare(deadline, other.deadline);
+            return c != 0 ? c : Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * Crea un bucle y arranca su hilo.
+     *
+     * @param name nombre del hilo.
+     * @throws IOException si no se puede abrir el selector.
+     */
+    public NioEventLoop(String name) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Obtiene el bucle compartido por todo el gestor, creándolo la primera vez.
+     *
+     * @return el bucle compartido.
+     */
+    public static NioEventLoop shared() {
+        NioEventLoop loop = shared;
+        if (loop == null) {
+            synchronized (NioEventLoop.class) {
+                loop = shared;
+                if (loop == null) {
+                    try {
+                        loop = shared = new NioEventLoop("Network-Loop");
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("No se pudo abrir el selector de red", e);
+                    }
+                }
+            }
+        }
+        return loop;
+    }
+
+    /**
+     * Ejecuta una tarea en el hilo del bucle.
+     *
+     * @param task tarea a ejecutar.
+     * @throws RejectedExecutionException si el bucle está cerrado.
+     */
+    public void execute(Runnable task) {
+        if (closed) throw new RejectedExecutionException("Bucle de red cerrado: " + thread.getName());
+        if (Thread.currentThread() == thread) {
+            task.run();
+            return;
+        }
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Ejecuta una tarea en el hilo del bucle pasado un tiempo.
+     *
+     * @param delayMillis retraso en milisegundos.
+     * @param task        tarea a ejecutar.
+     * @throws RejectedExecutionException si el bucle está cerrado.
+     */
+    public void schedule(long delayMillis, Runnable task) {
+        long deadline = System.nanoTime() + delayMillis * 1_000_000L;
+        Timer timer = new Timer(deadline, timerSeq.incrementAndGet(), task);
+        execute(() -> timers.add(timer));
+    }
+
+    /**
+     * Registra un canal no bloqueante. Debe llamarse desde el hilo del bucle
+     * (por ejemplo dentro de {@link #execute(Runnable)}).
+     *
+     * @param channel canal a registrar.
+     * @param ops     operaciones de interés.
+     * @param handler manejador de sus eventos.
+     * @return la clave de selección.
+     * @throws ClosedChannelException si el canal ya está cerrado.
+     */
+    public SelectionKey register(SelectableChannel channel, int ops, Handler handler) throws ClosedChannelException {
+        return channel.register(selector, ops, handler);
+    }
+
+    /**
+     * Indica si el hilo actual es el del bucle.
+     *
+     * @return true si se está en el hilo del bucle.
+     */
+    public boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Cierra el bucle: para su hilo, cierra los canales que sigan registrados
+     * y el selector. Las tareas pendientes se descartan y las nuevas se
+     * rechazan. Si se llama desde otro hilo, espera a que el bucle termine.
+     */
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        if (Thread.currentThread() == thread) return;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                long timeout = 0;
+                Timer next = timers.peek();
+                if (next != null) {
+                    timeout = Math.max(1, (next.deadline - System.nanoTime()) / 1_000_000L);
+                }
+                selector.select(timeout);
+
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) continue;
+                    try {
+                        ((Handler) key.attachment()).handle(key);
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+                selector.selectedKeys().clear();
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    runSafely(task);
+                }
+                long now = System.nanoTime();
+                while ((next = timers.peek()) != null && next.deadline - now <= 0) {
+                    timers.poll();
+                    runSafely(next.task);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        tasks.clear();
+        timers.clear();
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
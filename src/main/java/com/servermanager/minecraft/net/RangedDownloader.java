@@ -0,0 +1,345 @@
+package com.servermanager.minecraft.net;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Descarga de archivos grandes (JDK, server.jar) en varios tramos a la vez.
+ * <p>
+ * El archivo se divide en rangos HTTP que se piden en paralelo y se escriben
+ * con escrituras posicionales sobre un {@code .part} del tamaño final. El
+ * avance de cada tramo se guarda en un {@code .part.json}, así que si la
+ * descarga se corta (o se cierra el gestor) la siguiente continúa donde se
+ * quedó, siempre que el archivo remoto no haya cambiado. Al terminar se
+ * comprueba la suma y se mueve el archivo a su sitio de forma atómica. Como
+ * los tramos llegan desordenados, la suma se calcula releyendo el archivo.
+ * </p>
+ * <p>
+ * Si el servidor no admite rangos se descarga en un solo flujo, y la suma se
+ * calcula a la vez que se escribe, sin volver a leerlo.
+ * </p>
+ */
+public final class RangedDownloader {
+
+    /** Tramos simultáneos como máximo por archivo. */
+    private static final int MAX_SEGMENTS = 4;
+
+    /** Tamaño mínimo de un tramo: por debajo no compensa abrir otra petición. */
+    private static final long MIN_SEGMENT_BYTES = 4L * 1024 * 1024;
+
+    /** Cada cuántos bytes de un tramo se guarda el avance. */
+    private static final long SAVE_EVERY_BYTES = 2L * 1024 * 1024;
+
+    /** Intentos de cada tramo antes de dar la descarga por fallida. */
+    private static final int SEGMENT_ATTEMPTS = 4;
+
+    private static final ExecutorService SEGMENTS = Executors.newFixedThreadPool(8, r -> {
+        Thread t = new Thread(r, "Download-Segment");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Avance guardado en disco de una descarga a medias.
+     */
+    private static final class State {
+        String url;
+        String etag;
+        long length;
+        long[] starts;
+        long[] ends;
+        long[] positions;
+    }
+
+    /**
+     * El servidor no respetó un rango: el archivo remoto ha cambiado.
+     */
+    private static final class RemoteChangedException extends IOException {
+        RemoteChangedException(String message) {
+            super(message);
+        }
+    }
+
+    private RangedDownloader() {
+    }
+
+    /**
+     * Descarga un archivo, continuando una descarga anterior si la hay.
+     *
+     * @param url          URL del archivo.
+     * @param target       ruta final; mientras se descarga se usa {@code target.part}.
+     * @param algorithm    algoritmo de la suma (por ejemplo {@code SHA-1} o {@code SHA-256}), o null para no comprobarla.
+     * @param expectedHex  suma esperada en hexadecimal, o null para no comprobarla.
+     * @param expectedSize tamaño esperado, o -1 si no se conoce.
+     * @param progress     avance de la transferencia, o null.
+     * @throws IOException si la descarga falla o el archivo no coincide con la suma o el tamaño.
+     */
+    public static void download(String url, Path target, String algorithm, String expectedHex, long expectedSize,
+                                DownloadProgress progress) throws IOException {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        Path statePath = target.resolveSibling(target.getFileName() + ".part.json");
+        if (target.getParent() != null) Files.createDirectories(target.getParent());
+
+        // Un rango de un byte dice a la vez si el servidor admite rangos y el tamaño total
+        Request probe = new Request.Builder().url(url).header("Range", "bytes=0-0").build();
+        String rangeUrl;
+        String etag;
+        long length;
+        try (Response response = Http.execute(probe, progress)) {
+            if (response.code() == 200) {
+                // Sin rangos: se aprovecha esta misma respuesta y se descarga entera
+                if (progress != null) progress.setTotalBytes(response.body().contentLength());
+                MessageDigest streamed = algorithm != null && expectedHex != null ? newDigest(algorithm) : null;
+                InputStream body = response.body().byteStream();
+                if (progress != null) body = progress.track(body);
+                if (streamed != null) body = new DigestInputStream(body, streamed);
+                try (InputStream in = body;
+                     OutputStream out = Files.newOutputStream(part)) {
+                    in.transferTo(out);
+                }
+                Files.deleteIfExists(statePath);
+                finish(part, target, algorithm, expectedHex, expectedSize, statePath, streamed);
+                return;
+            }
+            if (response.code() != 206) throw new IOException("HTTP " + response.code() + " al pedir " + url);
+            length = parseTotal(response.header("Content-Range"));
+            etag = response.header("ETag");
+            rangeUrl = response.request().url().toString();
+        }
+        if (expectedSize >= 0 && length != expectedSize) {
+            throw new IOException("Tamaño incorrecto para " + url + ": el servidor anuncia " + length + " de " + expectedSize + " bytes");
+        }
+
+        State state = loadState(statePath, url, etag, length, part);
+        if (state == null) {
+            state = newState(url, etag, length);
+            try (RandomAccessFile file = new RandomAccessFile(part.toFile(), "rw")) {
+                file.setLength(length);
+            }
+            saveState(statePath, state, null);
+        }
+        if (progress != null) {
+            progress.setTotalBytes(length);
+            // Lo descargado en una sesión anterior cuenta como hecho, pero no como transferido
+            long done = 0;
+            for (int i = 0; i < state.starts.length; i++) done += state.positions[i] - state.starts[i];
+            if (done > 0) progress.markResumed(done);
+        }
+
+        AtomicLongArray positions = new AtomicLongArray(state.positions);
+        State shared = state;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            List<CompletableFuture<Void>> segments = new ArrayList<>();
+            for (int i = 0; i < state.starts.length; i++) {
+                if (positions.get(i) > state.ends[i]) continue;
+                int segment = i;
+                segments.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        fetchSegment(rangeUrl, etag, channel, shared, positions, segment, statePath, progress);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, SEGMENTS));
+            }
+            try {
+                CompletableFuture.allOf(segments.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RemoteChangedException) {
+                    // Lo ya descargado no sirve: la próxima vez se empieza de cero
+                    Files.deleteIfExists(statePath);
+                } else {
+                    saveState(statePath, state, positions);
+                }
+                if (e.getCause() instanceof IOException io) throw io;
+                throw new IOException("Error descargando " + url, e.getCause());
+            }
+        }
+        // Los tramos se escribieron desordenados: la suma exige releer el archivo
+        finish(part, target, algorithm, expectedHex, expectedSize, statePath, null);
+    }
+
+    /**
+     * Descarga un tramo desde su posición guardada, reintentando desde donde se
+     * haya quedado si se corta.
+     */
+    private static void fetchSegment(String url, String etag, FileChannel channel, State state,
+                                     AtomicLongArray positions, int segment, Path statePath,
+                                     DownloadProgress progress) throws IOException {
+        long end = state.ends[segment];
+        byte[] buffer = new byte[64 * 1024];
+        for (int attempt = 1; ; attempt++) {
+            long position = positions.get(segment);
+            if (position > end) return;
+            Request.Builder request = new Request.Builder().url(url).header("Range", "bytes=" + position + "-" + end);
+            if (etag != null) request.header("If-Range", etag);
+            try (Response response = Http.execute(request.build(), progress)) {
+                // Un 200 aquí significa que el archivo remoto cambió: no se puede continuar
+                if (response.code() != 206) throw new RemoteChangedException("HTTP " + response.code() + " al pedir un rango de " + url);
+                long sinceSave = 0;
+                try (InputStream in = response.body().byteStream()) {
+                    int n;
+                    while (position <= end && (n = in.read(buffer, 0, (int) Math.min(buffer.length, end - position + 1))) > 0) {
+                        ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, n);
+                        while (chunk.hasRemaining()) {
+                            position += channel.write(chunk, position);
+                        }
+                        positions.set(segment, position);
+                        if (progress != null) progress.addBytes(n);
+                        sinceSave += n;
+                        if (sinceSave >= SAVE_EVERY_BYTES) {
+                            saveState(statePath, state, positions);
+                            sinceSave = 0;
+                        }
+                    }
+                }
+                if (position > end) return;
+                throw new IOException("La conexión se cerró a mitad de un tramo de " + url);
+            } catch (InterruptedIOException | RemoteChangedException e) {
+                throw e;
+            } catch (IOException e) {
+                if (attempt >= SEGMENT_ATTEMPTS) throw e;
+            }
+        }
+    }
+
+    /**
+     * Comprueba el archivo descargado y lo mueve a su sitio.
+     *
+     * @param streamed suma calculada mientras se escribía el archivo, o null para calcularla releyéndolo.
+     */
+    private static void finish(Path part, Path target, String algorithm, String expectedHex, long expectedSize,
+                               Path statePath, MessageDigest streamed) throws IOException {
+        long size = Files.size(part);
+        String error = null;
+        if (expectedSize >= 0 && size != expectedSize) {
+            error = "Tamaño incorrecto para " + target.getFileName() + ": " + size + " de " + expectedSize + " bytes";
+        } else if (algorithm != null && expectedHex != null) {
+            String actual = streamed != null ? HexFormat.of().formatHex(streamed.digest()) : digest(part, algorithm);
+            if (!actual.equalsIgnoreCase(expectedHex)) {
+                error = algorithm + " incorrecto para " + target.getFileName() + ": se esperaba " + expectedHex + " y se obtuvo " + actual;
+            }
+        }
+        if (error != null) {
+            // Un archivo corrupto no se puede reanudar: se descarta entero
+            Files.deleteIfExists(part);
+            Files.deleteIfExists(statePath);
+            throw new IOException(error);
+        }
+        try {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.deleteIfExists(statePath);
+    }
+
+    /**
+     * Calcula la suma de un archivo.
+     *
+     * @param file      archivo.
+     * @param algorithm algoritmo (por ejemplo {@code SHA-256}).
+     * @return la suma en hexadecimal.
+     * @throws IOException si no se puede leer.
+     */
+    public static String digest(Path file, String algorithm) throws IOException {
+        MessageDigest digest = newDigest(algorithm);
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest(String algorithm) throws IOException {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Algoritmo de suma no disponible: " + algorithm, e);
+        }
+    }
+
+    private static long parseTotal(String contentRange) throws IOException {
+        // bytes 0-0/123456
+        int slash = contentRange == null ? -1 : contentRange.lastIndexOf('/');
+        if (slash < 0 || contentRange.endsWith("*")) throw new IOException("El servidor no indicó el tamaño del archivo");
+        return Long.parseLong(contentRange.substring(slash + 1).trim());
+    }
+
+    private static State newState(String url, String etag, long length) {
+        int count = (int) Math.max(1, Math.min(MAX_SEGMENTS, length / MIN_SEGMENT_BYTES));
+        State state = new State();
+        state.url = url;
+        state.etag = etag;
+        state.length = length;
+        state.starts = new long[count];
+        state.ends = new long[count];
+        state.positions = new long[count];
+        long size = length / count;
+        for (int i = 0; i < count; i++) {
+            state.starts[i] = i * size;
+            state.ends[i] = i == count - 1 ? length - 1 : (i + 1) * size - 1;
+            state.positions[i] = state.starts[i];
+        }
+        return state;
+    }
+
+    /**
+     * Carga el avance de una descarga anterior si corresponde al mismo archivo remoto.
+     */
+    private static State loadState(Path statePath, String url, String etag, long length, Path part) {
+        if (!Files.isRegularFile(statePath) || !Files.isRegularFile(part)) return null;
+        try (Reader reader = Files.newBufferedReader(statePath, StandardCharsets.UTF_8)) {
+            State state = new Gson().fromJson(reader, State.class);
+            if (state == null || !url.equals(state.url) || state.length != length || Files.size(part) != length) return null;
+            // Sin ETag no se puede saber si el archivo remoto cambió
+            if (etag == null || !Objects.equals(etag, state.etag)) return null;
+            return state;
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    private static synchronized void saveState(Path statePath, State state, AtomicLongArray positions) throws IOException {
+        if (positions != null) {
+            for (int i = 0; i < state.positions.length; i++) state.positions[i] = positions.get(i);
+        }
+        Path temp = statePath.resolveSibling(statePath.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            new Gson().toJson(state, writer);
+        }
+        try {
+            Files.move(temp, statePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, statePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
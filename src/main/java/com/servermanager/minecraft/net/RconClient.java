@@ -0,0 +1,325 @@
+package com.servermanager.minecraft.net;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cliente RCON no bloqueante para servidores Minecraft.
+ * <p>
+ * Usa una única conexión por servidor, atendida desde el {@link NioEventLoop}
+ * compartido. Se pueden enviar varios comandos sin esperar respuesta: cada
+ * uno lleva su identificador y su respuesta completa un futuro. Minecraft
+ * parte las respuestas largas en varios paquetes con el mismo identificador,
+ * así que tras cada comando se envía un paquete de tipo desconocido: el
+ * servidor contesta a todo en orden, y la respuesta a ese paquete marca el
+ * final de la del comando.
+ * </p>
+ * <p>
+ * Sirve también para servidores que no ha arrancado el gestor: basta con la
+ * dirección, el puerto y la contraseña RCON.
+ * </p>
+ */
+public class RconClient {
+
+    private static final int TYPE_RESPONSE = 0;
+    private static final int TYPE_COMMAND = 2;
+    private static final int TYPE_LOGIN = 3;
+
+    /** Tamaño máximo de paquete que se acepta del servidor. */
+    private static final int MAX_PACKET = 64 * 1024;
+
+    /** Tiempo máximo para conectar y autenticarse. */
+    private static final long CONNECT_TIMEOUT_MILLIS = 5_000;
+
+    /** Tiempo máximo por defecto para recibir la respuesta completa de un comando. */
+    public static final long DEFAULT_COMMAND_TIMEOUT_MILLIS = 10_000;
+
+    private final String host;
+    private final int port;
+    private final String password;
+    private final NioEventLoop loop;
+
+    /** Estado de la conexión; solo se toca en el hilo del bucle salvo indicación. */
+    private SocketChannel channel;
+    private SelectionKey key;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(MAX_PACKET).order(ByteOrder.LITTLE_ENDIAN);
+    private final ArrayDeque<ByteBuffer> writeQueue = new ArrayDeque<>();
+    private final Map<Integer, Request> requests = new HashMap<>();
+    private int nextId = 1;
+    private int loginId;
+    private CompletableFuture<Void> connected;
+    private volatile boolean open;
+    private volatile int inFlight;
+    private volatile long commandTimeoutMillis = DEFAULT_COMMAND_TIMEOUT_MILLIS;
+
+    /** Petición en curso: su respuesta se acumula hasta que llega el paquete final. */
+    private static final class Request {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Crea un cliente sobre el bucle de red compartido. No conecta hasta el primer comando.
+     *
+     * @param host     dirección del servidor.
+     * @param port     puerto RCON.
+     * @param password contraseña RCON.
+     */
+    public RconClient(String host, int port, String password) {
+        this(host, port, password, NioEventLoop.shared());
+    }
+
+    /**
+     * Crea un cliente sobre un bucle de red dado.
+     *
+     * @param host     dirección del servidor.
+     * @param port     puerto RCON.
+     * @param password contraseña RCON.
+     * @param loop     bucle que atiende la conexión.
+     */
+    public RconClient(String host, int port, String password, NioEventLoop loop) {
+        this.host = host;
+        this.port = port;
+        this.password = password;
+        this.loop = loop;
+    }
+
+    /**
+     * Conecta y se autentica, si no lo estaba ya.
+     *
+     * @return futuro que se completa al autenticarse, o falla si no se pudo.
+     */
+    public CompletableFuture<Void> connect() {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        loop.execute(() -> {
+            IOException error = connected == null ? startConnect() : null;
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            connected.whenComplete((v, failure) -> {
+                if (failure != null) result.completeExceptionally(failure);
+                else result.complete(null);
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Envía un comando. Si no hay conexión, se abre primero; los comandos se
+     * pueden encadenar sin esperar a las respuestas anteriores.
+     *
+     * @param command comando, sin barra inicial.
+     * @return futuro con el texto de la respuesta; falla con {@link TimeoutException}
+     *         si la respuesta completa no llega a tiempo.
+     */
+    public CompletableFuture<String> command(String command) {
+        Request request = new Request();
+        loop.execute(() -> {
+            IOException error = connected == null ? startConnect() : null;
+            if (error != null) {
+                request.future.completeExceptionally(error);
+                return;
+            }
+            int id = allocateId();
+            requests.put(id, request);
+            // El paquete de tipo desconocido con id+1 marca el final de la respuesta
+            requests.put(id + 1, request);
+            inFlight++;
+            send(id, TYPE_COMMAND, command);
+            send(id + 1, TYPE_RESPONSE, "");
+            loop.schedule(commandTimeoutMillis, () -> {
+                // Sin el paquete final la respuesta no se completaría nunca
+                if (requests.get(id) != request) return;
+                requests.remove(id);
+                requests.remove(id + 1);
+                inFlight--;
+                request.future.completeExceptionally(new TimeoutException("Tiempo agotado esperando la respuesta RCON a: " + command));
+            });
+        });
+        return request.future;
+    }
+
+    /**
+     * Cambia el tiempo máximo de espera de la respuesta de cada comando.
+     *
+     * @param millis milisegundos; se aplica a los comandos que se envíen después.
+     */
+    public void setCommandTimeout(long millis) {
+        this.commandTimeoutMillis = millis;
+    }
+
+    /**
+     * Cierra la conexión. Los comandos pendientes fallan.
+     */
+    public void close() {
+        loop.execute(() -> fail(new IOException("Conexión RCON cerrada")));
+    }
+
+    /**
+     * Indica si la conexión está abierta y autenticada.
+     *
+     * @return true si está lista para enviar comandos.
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Obtiene el número de comandos enviados cuya respuesta no ha llegado.
+     *
+     * @return comandos en curso.
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    private int allocateId() {
+        int id = nextId;
+        nextId += 2;
+        if (nextId > Integer.MAX_VALUE - 2) nextId = 1;
+        return id;
+    }
+
+    /**
+     * Abre la conexión y encola el login.
+     *
+     * @return el error si no se pudo ni empezar a conectar, o null.
+     */
+    private IOException startConnect() {
+        connected = new CompletableFuture<>();
+        CompletableFuture<Void> attempt = connected;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            boolean done = channel.connect(new InetSocketAddress(host, port));
+            key = loop.register(channel, done ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, this::onReady);
+            readBuffer.clear();
+            loginId = allocateId();
+            // El login va por delante de todo lo que ya estuviera en cola
+            writeQueue.addFirst(encode(loginId, TYPE_LOGIN, password));
+            if (done) key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            fail(e);
+            return e;
+        }
+        loop.schedule(CONNECT_TIMEOUT_MILLIS, () -> {
+            if (connected == attempt && !attempt.isDone()) fail(new TimeoutException("Tiempo de conexión RCON agotado"));
+        });
+        return null;
+    }
+
+    private void send(int id, int type, String body) {
+        writeQueue.add(encode(id, type, body));
+        if (key != null && key.isValid() && (key.interestOps() & SelectionKey.OP_CONNECT) == 0) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private static ByteBuffer encode(int id, int type, String body) {
+        byte[] payload = body.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(14 + payload.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(10 + payload.length).putInt(id).putInt(type).put(payload).put((byte) 0).put((byte) 0);
+        buffer.flip();
+        return buffer;
+    }
+
+    private void onReady(SelectionKey key) {
+        try {
+            if (key.isConnectable()) {
+                channel.finishConnect();
+                key.interestOps(SelectionKey.OP_READ | (writeQueue.isEmpty() ? 0 : SelectionKey.OP_WRITE));
+            }
+            if (key.isValid() && key.isWritable()) {
+                while (!writeQueue.isEmpty()) {
+                    ByteBuffer buffer = writeQueue.peek();
+                    channel.write(buffer);
+                    if (buffer.hasRemaining()) break;
+                    writeQueue.poll();
+                }
+                if (writeQueue.isEmpty()) key.interestOps(SelectionKey.OP_READ);
+            }
+            if (key.isValid() && key.isReadable()) {
+                if (channel.read(readBuffer) < 0) throw new IOException("El servidor cerró la conexión RCON");
+                readPackets();
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void readPackets() throws IOException {
+        readBuffer.flip();
+        while (readBuffer.remaining() >= 4) {
+            int length = readBuffer.getInt(readBuffer.position());
+            if (length < 10 || length > MAX_PACKET - 4) throw new IOException("Paquete RCON no válido");
+            if (readBuffer.remaining() < 4 + length) break;
+            readBuffer.getInt();
+            int id = readBuffer.getInt();
+            int type = readBuffer.getInt();
+            byte[] body = new byte[length - 10];
+            readBuffer.get(body);
+            readBuffer.get();
+            readBuffer.get();
+            onPacket(id, type, body);
+        }
+        readBuffer.compact();
+    }
+
+    private void onPacket(int id, int type, byte[] body) throws IOException {
+        if (!open) {
+            if (id == -1) throw new IOException("Contraseña RCON incorrecta");
+            if (id == loginId && type == TYPE_COMMAND) {
+                open = true;
+                connected.complete(null);
+            }
+            return;
+        }
+        Request request = requests.get(id);
+        if (request == null) return;
+        if ((id & 1) == 1) {
+            // Fragmento de la respuesta: se acumula hasta que llegue el paquete final
+            request.body.write(body, 0, body.length);
+        } else {
+            requests.remove(id);
+            requests.remove(id - 1);
+            inFlight--;
+            request.future.complete(request.body.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Cierra el canal y hace fallar la conexión y todas las peticiones pendientes.
+     */
+    private void fail(Exception error) {
+        open = false;
+        if (key != null) key.cancel();
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException ignored) {
+            // Ya se está cerrando por un error
+        }
+        channel = null;
+        key = null;
+        writeQueue.clear();
+        if (connected != null) connected.completeExceptionally(error);
+        connected = null;
+        for (Request request : requests.values()) {
+            request.future.completeExceptionally(error);
+        }
+        requests.clear();
+        inFlight = 0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.servermanager.minecraft.net;
+
+/**
+ * Resultado de un sondeo de estado de un servidor.
+ */
+public final class ServerStatus {
+
+    private final boolean reachable;
+    private final String motd;
+    private final String version;
+    private final int online;
+    private final int max;
+    private final long latencyMillis;
+    private final long time;
+    private final String error;
+
+    private ServerStatus(boolean reachable, String motd, String version, int online, int max,
+                         long latencyMillis, String error) {
+        this.reachable = reachable;
+        this.motd = motd;
+        this.version = version;
+        this.online = online;
+        this.max = max;
+        this.latencyMillis = latencyMillis;
+        this.time = System.currentTimeMillis();
+        this.error = error;
+    }
+
+    static ServerStatus of(String motd, String version, int online, int max, long latencyMillis) {
+        return new ServerStatus(true, motd, version, online, max, latencyMillis, null);
+    }
+
+    static ServerStatus failed(String error) {
+        return new ServerStatus(false, null, null, -1, -1, -1, error);
+    }
+
+    /**
+     * Indica si el servidor respondió.
+     *
+     * @return true si el sondeo tuvo éxito.
+     */
+    public boolean isReachable() {
+        return reachable;
+    }
+
+    /**
+     * Obtiene el mensaje del día.
+     *
+     * @return el MOTD en texto plano, o null si no respondió.
+     */
+    public String getMotd() {
+        return motd;
+    }
+
+    /**
+     * Obtiene el nombre de la versión que anuncia el servidor.
+     *
+     * @return la versión, o null si el protocolo no la informa (Query).
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Obtiene el número de jugadores conectados.
+     *
+     * @return jugadores conectados, o -1 si no respondió.
+     */
+    public int getOnline() {
+        return online;
+    }
+
+    /**
+     * Obtiene el número máximo de jugadores.
+     *
+     * @return máximo de jugadores, o -1 si no respondió.
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * Obtiene la latencia de ida y vuelta.
+     *
+     * @return milisegundos, o -1 si no respondió.
+     */
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * Obtiene el instante del sondeo.
+     *
+     * @return milisegundos desde la época.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Obtiene el motivo del fallo.
+     *
+     * @return descripción del error, o null si respondió.
+     */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return reachable
+                ? online + "/" + max + " jugadores, " + latencyMillis + " ms" + (motd != null ? " - " + motd : "")
+                : "sin respuesta: " + error;
+    }
+}
@@ -0,0 +1,509 @@
+package com.servermanager.minecraft.net;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sondeo periódico del estado de los servidores gestionados.
+ * <p>
+ * Para cada servidor hace un Server List Ping por TCP (MOTD, versión,
+ * jugadores y latencia con ping/pong) y, si tiene {@code enable-query}, una
+ * consulta GameSpy4 por UDP. Todas las conexiones se atienden desde el único
+ * selector del {@link NioEventLoop}, sin un hilo por servidor, así que el
+ * coste de sondear cientos de servidores es solo el de sus paquetes.
+ * </p>
+ */
+public class StatusPoller {
+
+    /** Intervalo por defecto entre sondeos. */
+    public static final long DEFAULT_INTERVAL_MILLIS = 10_000;
+
+    /** Tiempo máximo de espera de cada sondeo. */
+    private static final long PROBE_TIMEOUT_MILLIS = 3_000;
+
+    /** Tamaño máximo aceptado de la respuesta de estado (incluye el icono en base64). */
+    private static final int MAX_STATUS_BYTES = 1024 * 1024;
+
+    private final NioEventLoop loop;
+    private final Map<String, Target> targets = new ConcurrentHashMap<>();
+    private volatile long intervalMillis;
+
+    /** Generación del ciclo activo; al parar o rearrancar los ciclos viejos se descartan. Solo en el hilo del bucle. */
+    private int generation;
+    private boolean running;
+
+    /**
+     * Servidor sondeado y sus últimos resultados.
+     */
+    private static final class Target {
+        final InetSocketAddress status;
+        final InetSocketAddress query;
+        volatile ServerStatus lastStatus;
+        volatile ServerStatus lastQuery;
+        boolean statusBusy;
+        boolean queryBusy;
+
+        Target(InetSocketAddress status, InetSocketAddress query) {
+            this.status = status;
+            this.query = query;
+        }
+    }
+
+    /**
+     * Crea un sondeo sobre el bucle de red compartido.
+     *
+     * @param intervalMillis intervalo entre sondeos.
+     */
+    public StatusPoller(long intervalMillis) {
+        this(intervalMillis, NioEventLoop.shared());
+    }
+
+    /**
+     * Crea un sondeo sobre un bucle de red dado.
+     *
+     * @param intervalMillis intervalo entre sondeos.
+     * @param loop           bucle de red.
+     */
+    public StatusPoller(long intervalMillis, NioEventLoop loop) {
+        this.intervalMillis = intervalMillis;
+        this.loop = loop;
+    }
+
+    /**
+     * Añade o sustituye un servidor a sondear. Las direcciones pueden venir sin
+     * resolver ({@link InetSocketAddress#createUnresolved}): se resuelven en el
+     * hilo del bucle en cada sondeo, y un nombre que no resuelve solo hace fallar
+     * el sondeo de ese servidor.
+     *
+     * @param name   nombre del servidor.
+     * @param status dirección para el Server List Ping, o null para no hacerlo.
+     * @param query  dirección UDP de Query, o null si no tiene Query activado.
+     */
+    public void addTarget(String name, InetSocketAddress status, InetSocketAddress query) {
+        targets.put(name, new Target(status, query));
+    }
+
+    /**
+     * Deja de sondear un servidor.
+     *
+     * @param name nombre del servidor.
+     */
+    public void removeTarget(String name) {
+        targets.remove(name);
+    }
+
+    /**
+     * Obtiene el último resultado del Server List Ping.
+     *
+     * @param name nombre del servidor.
+     * @return el resultado, o null si aún no se ha sondeado.
+     */
+    public ServerStatus getStatus(String name) {
+        Target target = targets.get(name);
+        return target == null ? null : target.lastStatus;
+    }
+
+    /**
+     * Obtiene el último resultado de Query.
+     *
+     * @param name nombre del servidor.
+     * @return el resultado, o null si no tiene Query o aún no se ha sondeado.
+     */
+    public ServerStatus getQuery(String name) {
+        Target target = targets.get(name);
+        return target == null ? null : target.lastQuery;
+    }
+
+    /**
+     * Cambia el intervalo entre sondeos; se aplica a partir del siguiente ciclo.
+     *
+     * @param intervalMillis nuevo intervalo.
+     */
+    public void setInterval(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Obtiene el intervalo entre sondeos.
+     *
+     * @return milisegundos entre sondeos.
+     */
+    public long getInterval() {
+        return intervalMillis;
+    }
+
+    /**
+     * Empieza a sondear periódicamente.
+     */
+    public void start() {
+        loop.execute(() -> {
+            if (running) return;
+            running = true;
+            cycle(++generation);
+        });
+    }
+
+    /**
+     * Deja de sondear. Los sondeos en curso terminan igualmente.
+     */
+    public void stop() {
+        loop.execute(() -> {
+            running = false;
+            generation++;
+        });
+    }
+
+    private void cycle(int cycleGeneration) {
+        if (!running || cycleGeneration != generation) return;
+        try {
+            for (Target target : targets.values()) {
+                if (target.status != null && !target.statusBusy) {
+                    target.statusBusy = true;
+                    new StatusProbe(target).start();
+                }
+                if (target.query != null && !target.queryBusy) {
+                    target.queryBusy = true;
+                    new QueryProbe(target).start();
+                }
+            }
+        } finally {
+            // Un fallo inesperado con un servidor no puede detener el sondeo de los demás
+            loop.schedule(intervalMillis, () -> cycle(cycleGeneration));
+        }
+    }
+
+    /**
+     * Resuelve en el hilo del bucle una dirección creada sin resolver, para no
+     * bloquear al hilo que registró el servidor.
+     *
+     * @throws IOException si el nombre no se puede resolver.
+     */
+    private static InetSocketAddress resolve(InetSocketAddress address) throws IOException {
+        if (!address.isUnresolved()) return address;
+        InetSocketAddress resolved = new InetSocketAddress(address.getHostString(), address.getPort());
+        if (resolved.isUnresolved()) throw new IOException("no se pudo resolver " + address.getHostString());
+        return resolved;
+    }
+
+    /**
+     * Sondeo de una sola conexión, con su plazo máximo.
+     */
+    private abstract class Probe {
+        final Target target;
+        SelectableChannel channel;
+        SelectionKey key;
+        boolean done;
+
+        Probe(Target target) {
+            this.target = target;
+        }
+
+        void start() {
+            try {
+                open();
+            } catch (IOException | RuntimeException e) {
+                // fail cierra el canal si llegó a abrirse y libera el servidor para el siguiente ciclo
+                fail(e.getMessage() != null ? e.getMessage() : e.toString());
+                return;
+            }
+            loop.schedule(PROBE_TIMEOUT_MILLIS, () -> {
+                if (!done) timedOut();
+            });
+        }
+
+        abstract void open() throws IOException;
+
+        abstract void publish(ServerStatus status);
+
+        void timedOut() {
+            fail("tiempo agotado");
+        }
+
+        void onReady(SelectionKey key) {
+            try {
+                handle(key);
+            } catch (IOException | RuntimeException e) {
+                fail(e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+        }
+
+        abstract void handle(SelectionKey key) throws IOException;
+
+        void succeed(ServerStatus status) {
+            if (done) return;
+            done = true;
+            close();
+            publish(status);
+        }
+
+        void fail(String error) {
+            succeed(ServerStatus.failed(error));
+        }
+
+        void close() {
+            if (key != null) key.cancel();
+            try {
+                if (channel != null) channel.close();
+            } catch (IOException ignored) {
+                // Se descarta: el sondeo ya ha terminado
+            }
+        }
+    }
+
+    /**
+     * Server List Ping: handshake, petición de estado y ping/pong.
+     */
+    private final class StatusProbe extends Probe {
+        private ByteBuffer out;
+        private ByteBuffer in = ByteBuffer.allocate(8 * 1024);
+        private long requestAt;
+        private long statusLatency = -1;
+        private JsonObject response;
+
+        StatusProbe(Target target) {
+            super(target);
+        }
+
+        @Override
+        void open() throws IOException {
+            SocketChannel socket = SocketChannel.open();
+            channel = socket;
+            socket.configureBlocking(false);
+            socket.connect(resolve(target.status));
+            key = loop.register(socket, SelectionKey.OP_CONNECT, this::onReady);
+
+            byte[] host = target.status.getHostString().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer handshake = ByteBuffer.allocate(32 + host.length);
+            writeVarInt(handshake, 0x00);
+            writeVarInt(handshake, -1);
+            writeVarInt(handshake, host.length);
+            handshake.put(host);
+            handshake.putShort((short) target.status.getPort());
+            writeVarInt(handshake, 1);
+            handshake.flip();
+
+            out = ByteBuffer.allocate(handshake.remaining() + 8);
+            writeVarInt(out, handshake.remaining());
+            out.put(handshake);
+            // Petición de estado: longitud 1, paquete 0x00
+            out.put((byte) 1).put((byte) 0x00);
+            out.flip();
+        }
+
+        @Override
+        void handle(SelectionKey key) throws IOException {
+            SocketChannel socket = (SocketChannel) channel;
+            if (key.isConnectable()) {
+                socket.finishConnect();
+                key.interestOps(SelectionKey.OP_WRITE);
+                requestAt = System.nanoTime();
+            }
+            if (key.isValid() && key.isWritable()) {
+                socket.write(out);
+                if (!out.hasRemaining()) key.interestOps(SelectionKey.OP_READ);
+            }
+            if (key.isValid() && key.isReadable()) {
+                if (!in.hasRemaining()) {
+                    if (in.capacity() >= MAX_STATUS_BYTES) throw new IOException("respuesta de estado demasiado grande");
+                    ByteBuffer bigger = ByteBuffer.allocate(in.capacity() * 2);
+                    in.flip();
+                    bigger.put(in);
+                    in = bigger;
+                }
+                if (socket.read(in) < 0) {
+                    // Algunos servidores antiguos cierran sin contestar al ping
+                    if (response != null) finish(statusLatency);
+                    else throw new IOException("conexión cerrada");
+                    return;
+                }
+                readPackets(socket);
+            }
+        }
+
+        private void readPackets(SocketChannel socket) throws IOException {
+            in.flip();
+            while (true) {
+                int start = in.position();
+                int length = readVarInt(in);
+                if (length < 0 || in.remaining() < length) {
+                    in.position(start);
+                    break;
+                }
+                int end = in.position() + length;
+                int packetId = readVarInt(in);
+                if (packetId == 0x00 && response == null) {
+                    statusLatency = (System.nanoTime() - requestAt) / 1_000_000;
+                    int size = readVarInt(in);
+                    String json = new String(in.array(), in.position(), size, StandardCharsets.UTF_8);
+                    response = JsonParser.parseString(json).getAsJsonObject();
+                    sendPing(socket);
+                } else if (packetId == 0x01) {
+                    finish((System.nanoTime() - requestAt) / 1_000_000);
+                    return;
+                }
+                in.position(end);
+            }
+            in.compact();
+        }
+
+        private void sendPing(SocketChannel socket) {
+            out = ByteBuffer.allocate(10);
+            out.put((byte) 9).put((byte) 0x01).putLong(System.currentTimeMillis());
+            out.flip();
+            requestAt = System.nanoTime();
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+
+        private void finish(long latency) {
+            JsonObject players = response.has("players") ? response.getAsJsonObject("players") : new JsonObject();
+            JsonObject version = response.has("version") ? response.getAsJsonObject("version") : null;
+            succeed(ServerStatus.of(
+                    response.has("description") ? stripFormatting(flatten(response.get("description"))) : null,
+                    version != null && version.has("name") ? version.get("name").getAsString() : null,
+                    players.has("online") ? players.get("online").getAsInt() : -1,
+                    players.has("max") ? players.get("max").getAsInt() : -1,
+                    latency));
+        }
+
+        @Override
+        void timedOut() {
+            // Si llegó el estado pero no el pong, se da por bueno con la latencia de la petición
+            if (response != null) finish(statusLatency);
+            else super.timedOut();
+        }
+
+        @Override
+        void publish(ServerStatus status) {
+            target.lastStatus = status;
+            target.statusBusy = false;
+        }
+    }
+
+    /**
+     * Query GameSpy4: handshake con token y estadística básica.
+     */
+    private final class QueryProbe extends Probe {
+        private final int session = ThreadLocalRandom.current().nextInt() & 0x0F0F0F0F;
+        private final ByteBuffer in = ByteBuffer.allocate(2048);
+        private long sentAt;
+        private long latency;
+
+        QueryProbe(Target target) {
+            super(target);
+        }
+
+        @Override
+        void open() throws IOException {
+            DatagramChannel datagram = DatagramChannel.open();
+            channel = datagram;
+            datagram.configureBlocking(false);
+            datagram.connect(resolve(target.query));
+            key = loop.register(datagram, SelectionKey.OP_READ, this::onReady);
+            ByteBuffer handshake = ByteBuffer.allocate(7);
+            handshake.put((byte) 0xFE).put((byte) 0xFD).put((byte) 0x09).putInt(session);
+            handshake.flip();
+            sentAt = System.nanoTime();
+            datagram.write(handshake);
+        }
+
+        @Override
+        void handle(SelectionKey key) throws IOException {
+            DatagramChannel datagram = (DatagramChannel) channel;
+            in.clear();
+            if (datagram.read(in) <= 0) return;
+            in.flip();
+            if (in.remaining() < 5 || in.getInt(1) != session) return;
+            byte type = in.get();
+            in.getInt();
+            if (type == 0x09) {
+                latency = (System.nanoTime() - sentAt) / 1_000_000;
+                int token = Integer.parseInt(readString(in).trim());
+                ByteBuffer stat = ByteBuffer.allocate(11);
+                stat.put((byte) 0xFE).put((byte) 0xFD).put((byte) 0x00).putInt(session).putInt(token);
+                stat.flip();
+                datagram.write(stat);
+            } else if (type == 0x00) {
+                String motd = stripFormatting(readString(in));
+                readString(in); // tipo de juego
+                readString(in); // mapa
+                int online = Integer.parseInt(readString(in).trim());
+                int max = Integer.parseInt(readString(in).trim());
+                succeed(ServerStatus.of(motd, null, online, max, latency));
+            }
+        }
+
+        @Override
+        void publish(ServerStatus status) {
+            target.lastQuery = status;
+            target.queryBusy = false;
+        }
+    }
+
+    private static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Lee un VarInt.
+     *
+     * @return el valor, o -1 si el buffer no contiene aún el VarInt completo.
+     */
+    private static int readVarInt(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!buffer.hasRemaining()) return -1;
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("VarInt demasiado largo");
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (buffer.get() == 0) {
+                return new String(buffer.array(), start, buffer.position() - 1 - start, StandardCharsets.ISO_8859_1);
+            }
+        }
+        return new String(buffer.array(), start, buffer.position() - start, StandardCharsets.ISO_8859_1);
+    }
+
+    /** Convierte un componente de chat (texto o JSON con {@code extra}) en texto plano. */
+    private static String flatten(JsonElement element) {
+        if (element == null || element.isJsonNull()) return "";
+        if (element.isJsonPrimitive()) return element.getAsString();
+        if (element.isJsonArray()) {
+            StringBuilder text = new StringBuilder();
+            for (JsonElement part : (JsonArray) element) text.append(flatten(part));
+            return text.toString();
+        }
+        JsonObject object = element.getAsJsonObject();
+        StringBuilder text = new StringBuilder(object.has("text") ? object.get("text").getAsString() : "");
+        if (object.has("extra")) text.append(flatten(object.get("extra")));
+        return text.toString();
+    }
+
+    /** Quita los códigos de formato {@code §x}. */
+    private static String stripFormatting(String text) {
+        return text.replaceAll("§.", "");
+    }
+}
@@ -0,0 +1,210 @@
+package com.servermanager.minecraft.ui;
+
+import com.servermanager.minecraft.console.ConsoleSubscription;
+import com.servermanager.minecraft.models.Console;
+import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.KeyCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vista virtualizada de la consola de un servidor.
+ * <p>
+ * Se basa en un {@link ListView}: solo se crean celdas para las filas visibles,
+ * por lo que el coste de pintar no depende del tamaño del log. Las líneas que
+ * llegan desde la consola se acumulan y se añaden a la vista de una vez en una
+ * sola tarea del hilo de JavaFX, que solo se programa cuando hay líneas nuevas,
+ * y el número de filas retenidas está acotado.
+ * </p>
+ * <p>
+ * Las filas tienen altura fija y no se parten: las líneas largas se leen con la
+ * barra horizontal, y además muestran la línea completa en un tooltip.
+ * </p>
+ */
+public class ConsoleView extends ListView<String> {
+
+    /** Número máximo de filas retenidas por defecto. */
+    public static final int DEFAULT_MAX_ROWS = 5_000;
+
+    /** Longitud a partir de la cual una fila muestra la línea completa en un tooltip. */
+    private static final int LONG_LINE = 160;
+
+    /** Número máximo de filas retenidas en la vista. */
+    private int maxRows = DEFAULT_MAX_ROWS;
+
+    /** Líneas recibidas desde la última actualización de la vista. */
+    private Pending pending = new Pending();
+
+    /** Suscripción a la consola mostrada actualmente. */
+    private ConsoleSubscription subscription;
+
+    /**
+     * Líneas pendientes de una suscripción concreta. Al cambiar de consola se
+     * sustituye por otra, de modo que los lotes tardíos de la anterior se descartan.
+     */
+    private static final class Pending {
+        private List<String> lines = new ArrayList<>();
+        private boolean scheduled;
+
+        /**
+         * Acumula un lote.
+         *
+         * @return true si hay que programar la tarea que vacía las líneas pendientes.
+         */
+        synchronized boolean add(List<String> batch, int limit) {
+            lines.addAll(batch);
+            int excess = lines.size() - limit;
+            if (excess > 0) lines.subList(0, excess).clear();
+            if (scheduled) return false;
+            scheduled = true;
+            return true;
+        }
+
+        synchronized List<String> take() {
+            scheduled = false;
+            if (lines.isEmpty()) return null;
+            List<String> taken = lines;
+            lines = new ArrayList<>();
+            return taken;
+        }
+    }
+
+    /**
+     * Crea una vista de consola vacía.
+     */
+    public ConsoleView() {
+        setFixedCellSize(18);
+        setCellFactory(list -> new ConsoleCell());
+        setFocusTraversable(true);
+        getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        setOnKeyPressed(event -> {
+            if (event.isShortcutDown() && event.getCode() == KeyCode.C) {
+                copySelection();
+            }
+        });
+    }
+
+    /**
+     * Fila de la consola: una línea sin partir, con tooltip si es larga.
+     */
+    private static final class ConsoleCell extends ListCell<String> {
+        private final Tooltip tooltip = new Tooltip();
+
+        ConsoleCell() {
+            tooltip.setWrapText(true);
+            tooltip.setMaxWidth(800);
+        }
+
+        @Override
+        protected void updateItem(String line, boolean empty) {
+            super.updateItem(line, empty);
+            setText(empty ? null : line);
+            if (!empty && line != null && line.length() > LONG_LINE) {
+                tooltip.setText(line);
+                setTooltip(tooltip);
+            } else {
+                setTooltip(null);
+            }
+        }
+    }
+
+    /**
+     * Muestra la consola indicada: cancela la suscripción anterior, limpia la vista
+     * y se suscribe a la nueva empezando por las líneas retenidas.
+     *
+     * @param console consola a mostrar (null para dejar la vista vacía).
+     */
+    public void show(Console console) {
+        if (subscription != null) subscription.cancel();
+        subscription = null;
+        pending = new Pending();
+        getItems().clear();
+        if (console == null) return;
+        Pending target = pending;
+        // Solo se piden las últimas filas que caben en la vista
+        long from = Math.max(0, console.getLastSeq() - maxRows);
+        subscription = console.subscribe((lines, lastSeq) -> {
+            if (target.add(lines, maxRows)) Platform.runLater(() -> drain(target));
+        }, from);
+    }
+
+    /**
+     * Vuelca a la vista las líneas pendientes, salvo que sean de una consola anterior.
+     */
+    private void drain(Pending target) {
+        List<String> lines = target.take();
+        if (lines != null && target == pending) appendRows(lines);
+    }
+
+    /**
+     * Añade a la vista las líneas acumuladas desde la última tarea, recortando las más
+     * antiguas si se supera el máximo y manteniendo el desplazamiento al final
+     * si el usuario estaba siguiendo la salida.
+     */
+    private void appendRows(List<String> lines) {
+        boolean follow = isAtBottom();
+        getItems().addAll(lines);
+        int excess = getItems().size() - maxRows;
+        if (excess > 0) getItems().remove(0, excess);
+        if (follow) scrollTo(getItems().size() - 1);
+    }
+
+    /**
+     * Indica si la barra vertical está al final (o no existe todavía).
+     */
+    private boolean isAtBottom() {
+        for (Node node : lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                return !bar.isVisible() || bar.getValue() >= bar.getMax() - 0.01;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copia al portapapeles las filas seleccionadas.
+     */
+    private void copySelection() {
+        List<String> selected = getSelectionModel().getSelectedItems();
+        if (selected.isEmpty()) return;
+        ClipboardContent content = new ClipboardContent();
+        content.putString(String.join(System.lineSeparator(), selected));
+        Clipboard.getSystemClipboard().setContent(content);
+    }
+
+    /**
+     * Vacía la vista y descarta las líneas pendientes. No cancela la suscripción.
+     */
+    public void clearConsole() {
+        pending.take();
+        getItems().clear();
+    }
+
+    /**
+     * Obtiene el número máximo de filas retenidas.
+     *
+     * @return máximo de filas.
+     */
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Establece el número máximo de filas retenidas.
+     *
+     * @param maxRows nuevo máximo de filas.
+     */
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+}
@@ -0,0 +1,287 @@
+package com.servermanager.minecraft.ui;
+
+import com.servermanager.minecraft.console.ConsoleHistory;
+import com.servermanager.minecraft.console.ConsoleSearchIndex;
+import javafx.collections.ObservableListBase;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ventana que muestra el historial completo de consola de un servidor.
+ * <p>
+ * La lista es virtual: solo se leen del disco, por páginas, las líneas que
+ * están a la vista, usando el índice de {@link ConsoleHistory}. Permite saltar
+ * a un número de línea o a una hora concreta, y buscar texto mediante el
+ * {@link ConsoleSearchIndex} del servidor.
+ * </p>
+ * <p>
+ * Ninguna lectura del disco se hace en el hilo de JavaFX: las páginas, la
+ * recarga y el salto a una hora se leen en un hilo propio de la ventana, y
+ * las búsquedas en otro hilo por búsqueda.
+ * </p>
+ */
+public class FullLogWindow {
+
+    private final Stage stage = new Stage();
+    private final ConsoleHistory history;
+    private final ConsoleSearchIndex searchIndex;
+    private final ListView<String> listView = new ListView<>();
+    private final ListView<ConsoleSearchIndex.Hit> resultsView = new ListView<>();
+    private final Label status = new Label();
+    private HistoryList lines;
+
+    /** Hilo de lectura del historial de esta ventana. */
+    private final ExecutorService reader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Console-History");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Lista de solo lectura respaldada por el historial en disco. Guarda en caché
+     * unas pocas páginas de líneas recientemente mostradas. Solo se usa desde el
+     * hilo de JavaFX: una página que no está en caché se muestra vacía mientras
+     * se lee en segundo plano, y al llegar se avisa para redibujar.
+     */
+    private static final class HistoryList extends ObservableListBase<String> {
+        private static final int PAGE_SIZE = 256;
+        private static final int MAX_PAGES = 16;
+
+        private final ConsoleHistory history;
+        private final long firstLine;
+        private final int size;
+        private final Executor reader;
+        private final Runnable onPageLoaded;
+        private final Set<Long> loading = new HashSet<>();
+        private final Map<Long, List<String>> pages = new LinkedHashMap<>(MAX_PAGES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<String>> eldest) {
+                return size() > MAX_PAGES;
+            }
+        };
+
+        HistoryList(ConsoleHistory history, long firstLine, long lineCount, Executor reader, Runnable onPageLoaded) {
+            this.history = history;
+            this.firstLine = firstLine;
+            this.size = (int) Math.min(Integer.MAX_VALUE, lineCount - firstLine);
+            this.reader = reader;
+            this.onPageLoaded = onPageLoaded;
+        }
+
+        @Override
+        public String get(int index) {
+            long page = index / PAGE_SIZE;
+            List<String> lines = pages.get(page);
+            if (lines == null) {
+                load(page);
+                return "";
+            }
+            int inPage = index % PAGE_SIZE;
+            return inPage < lines.size() ? lines.get(inPage) : "";
+        }
+
+        private void load(long page) {
+            if (!loading.add(page)) return;
+            Task<List<String>> task = new Task<>() {
+                @Override
+                protected List<String> call() throws Exception {
+                    return history.readLines(firstLine + page * PAGE_SIZE, PAGE_SIZE);
+                }
+            };
+            task.setOnSucceeded(e -> {
+                loading.remove(page);
+                pages.put(page, task.getValue());
+                onPageLoaded.run();
+            });
+            task.setOnFailed(e -> {
+                loading.remove(page);
+                task.getException().printStackTrace();
+            });
+            reader.execute(task);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /** Número máximo de resultados de una búsqueda. */
+    private static final int MAX_RESULTS = 1000;
+
+    /**
+     * Crea la ventana del historial.
+     *
+     * @param title       nombre del servidor, para el título.
+     * @param history     historial a mostrar.
+     * @param searchIndex índice de búsqueda del historial, o null si el servidor no
+     *                    tiene (la búsqueda queda desactivada).
+     */
+    public FullLogWindow(String title, ConsoleHistory history, ConsoleSearchIndex searchIndex) {
+        this.history = history;
+        this.searchIndex = searchIndex;
+        listView.setFixedCellSize(18);
+        listView.setStyle("-fx-font-family: 'Consolas'; -fx-font-size: 12px;");
+
+        TextField lineInput = new TextField();
+        lineInput.setPromptText("Línea...");
+        lineInput.setOnAction(e -> goToLine(lineInput.getText()));
+
+        TextField timeInput = new TextField();
+        timeInput.setPromptText("Hora (HH:mm[:ss] o yyyy-MM-ddTHH:mm)");
+        timeInput.setOnAction(e -> goToTime(timeInput.getText()));
+
+        Button refresh = new Button("🔄 Recargar");
+        refresh.setOnAction(e -> reload());
+
+        TextField searchInput = new TextField();
+        if (searchIndex != null) {
+            searchInput.setPromptText("Buscar jugador, excepción...");
+            searchInput.setOnAction(e -> buscar(searchInput.getText()));
+        } else {
+            searchInput.setPromptText("Búsqueda disponible al arrancar el servidor");
+            searchInput.setDisable(true);
+        }
+
+        resultsView.setPrefWidth(320);
+        resultsView.getSelectionModel().selectedItemProperty().addListener((obs, old, hit) -> {
+            if (hit != null) scrollToLine(hit.getLine());
+        });
+
+        HBox controls = new HBox(10, new Label("Ir a línea:"), lineInput, new Label("Ir a hora:"), timeInput,
+                new Label("Buscar:"), searchInput, refresh, status);
+        HBox.setHgrow(searchInput, Priority.ALWAYS);
+        controls.setPadding(new Insets(10));
+
+        BorderPane root = new BorderPane(listView);
+        root.setTop(controls);
+        root.setRight(resultsView);
+        stage.setTitle("Log completo - " + title);
+        stage.setScene(new Scene(root, 900, 600));
+        stage.setOnHidden(e -> reader.shutdownNow());
+        reload();
+    }
+
+    /**
+     * Muestra la ventana.
+     */
+    public void show() {
+        stage.show();
+    }
+
+    /**
+     * Vuelve a leer el tamaño del historial y se sitúa al final.
+     */
+    private void reload() {
+        status.setText("Cargando...");
+        Task<long[]> task = new Task<>() {
+            @Override
+            protected long[] call() throws IOException {
+                history.refresh();
+                return new long[]{history.getFirstLine(), history.getLineCount()};
+            }
+        };
+        task.setOnSucceeded(e -> {
+            long[] range = task.getValue();
+            lines = new HistoryList(history, range[0], range[1], reader, listView::refresh);
+            listView.setItems(lines);
+            status.setText(lines.size() + " líneas");
+            if (lines.size() > 0) listView.scrollTo(lines.size() - 1);
+        });
+        task.setOnFailed(e -> mostrarError("No se pudo leer el historial: " + task.getException().getMessage()));
+        reader.execute(task);
+    }
+
+    private void goToLine(String text) {
+        try {
+            long line = Long.parseLong(text.trim());
+            scrollToLine(line);
+        } catch (NumberFormatException e) {
+            mostrarError("Número de línea no válido: " + text);
+        }
+    }
+
+    private void goToTime(String text) {
+        LocalDateTime when;
+        try {
+            String value = text.trim();
+            when = value.contains("T")
+                    ? LocalDateTime.parse(value)
+                    : LocalDateTime.of(LocalDate.now(), LocalTime.parse(value));
+        } catch (DateTimeParseException e) {
+            mostrarError("Hora no válida: " + text);
+            return;
+        }
+        long millis = when.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws IOException {
+                return history.findLineAt(millis);
+            }
+        };
+        task.setOnSucceeded(e -> scrollToLine(task.getValue()));
+        task.setOnFailed(e -> mostrarError("No se pudo leer el historial: " + task.getException().getMessage()));
+        reader.execute(task);
+    }
+
+    /**
+     * Lanza una búsqueda en segundo plano y muestra los resultados en el panel lateral.
+     */
+    private void buscar(String text) {
+        if (text.isBlank()) return;
+        status.setText("Buscando...");
+        long start = System.nanoTime();
+        Task<List<ConsoleSearchIndex.Hit>> task = new Task<>() {
+            @Override
+            protected List<ConsoleSearchIndex.Hit> call() throws Exception {
+                return searchIndex.search(text, MAX_RESULTS);
+            }
+        };
+        task.setOnSucceeded(e -> {
+            resultsView.getItems().setAll(task.getValue());
+            status.setText(task.getValue().size() + " resultados en " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        });
+        task.setOnFailed(e -> mostrarError("Error en la búsqueda: " + task.getException().getMessage()));
+        Thread thread = new Thread(task, "Console-Search");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void scrollToLine(long line) {
+        if (lines == null || lines.size() == 0) return;
+        int index = (int) Math.max(0, Math.min(lines.size() - 1, line - lines.firstLine));
+        listView.scrollTo(index);
+        listView.getSelectionModel().select(index);
+    }
+
+    private void mostrarError(String mensaje) {
+        Alert alert = new Alert(Alert.AlertType.ERROR, mensaje);
+        alert.initOwner(stage);
+        alert.show();
+    }
+}
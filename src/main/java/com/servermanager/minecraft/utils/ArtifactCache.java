@@ -0,0 +1,146 @@
+package com.servermanager.minecraft.utils;
+
+import com.servermanager.minecraft.net.DownloadProgress;
+import com.servermanager.minecraft.net.Downloads;
+import com.servermanager.minecraft.net.RangedDownloader;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché global de artefactos descargados (por ejemplo el server.jar),
+ * direccionada por su SHA-1.
+ * <p>
+ * Cada artefacto se descarga una sola vez (por tramos y reanudable, con
+ * {@link RangedDownloader}), se verifica y se guarda en
+ * {@code cache/artifacts/<ab>/<sha1>}. Los servidores reciben un enlace duro a
+ * ese archivo (o una copia si el sistema de archivos no admite enlaces), así
+ * que arrancar muchos servidores de la misma versión no vuelve a descargar nada.
+ * </p>
+ * <p>
+ * Como todos los enlaces comparten el mismo archivo, este queda de solo lectura
+ * tras verificarse. En cada uso se comprueba además que conserva el tamaño
+ * publicado; si no, se descarta y se vuelve a descargar.
+ * </p>
+ */
+public class ArtifactCache {
+
+    /** Directorio raíz de la caché. */
+    private static final Path BASE_DIR = Paths.get("cache", "artifacts");
+
+    /** Un cerrojo por SHA-1, para que dos servidores no descarguen lo mismo a la vez. */
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene un artefacto de la caché, descargándolo si no está.
+     *
+     * @param stage tipo de artefacto, para informar del avance.
+     * @param name  nombre del artefacto (por ejemplo la versión).
+     * @param url   URL de descarga.
+     * @param sha1  SHA-1 publicado del artefacto.
+     * @param size  tamaño publicado, o -1 si no se conoce.
+     * @return ruta del artefacto en la caché.
+     * @throws IOException si falla la descarga o el contenido no coincide con el SHA-1.
+     */
+    public static Path fetch(DownloadProgress.Stage stage, String name, String url, String sha1, long size) throws IOException {
+        String hash = sha1.toLowerCase();
+        Path cached = pathFor(hash);
+        if (isIntact(cached, size)) {
+            Downloads.cacheHit(stage, name, url);
+            return cached;
+        }
+
+        synchronized (locks.computeIfAbsent(hash, k -> new Object())) {
+            if (isIntact(cached, size)) {
+                Downloads.cacheHit(stage, name, url);
+                return cached;
+            }
+            if (Files.exists(cached)) {
+                System.err.println("Artefacto dañado en la caché, se vuelve a descargar: " + cached);
+                cached.toFile().setWritable(true);
+                Files.delete(cached);
+            }
+            DownloadProgress progress = Downloads.start(stage, name, url);
+            progress.setTotalBytes(size);
+            try {
+                // Si una descarga anterior quedó a medias, continúa donde se quedó
+                RangedDownloader.download(url, cached, "SHA-1", hash, size, progress);
+            } catch (IOException | RuntimeException e) {
+                Downloads.fail(progress, e);
+                throw e;
+            }
+            // Ya verificado: nadie debe escribir en él a través de los enlaces de los servidores
+            cached.toFile().setReadOnly();
+            Downloads.finish(progress);
+            return cached;
+        }
+    }
+
+    /**
+     * Comprueba sin leerlo un artefacto de la caché: debe existir y tener el
+     * tamaño publicado. El SHA-1 solo se comprueba al descargarlo; desde
+     * entonces el archivo es de solo lectura.
+     */
+    private static boolean isIntact(Path cached, long size) throws IOException {
+        if (!Files.isRegularFile(cached)) return false;
+        if (size >= 0 && Files.size(cached) != size) return false;
+        // Por si se le quitó la protección al sustituir un enlace (ver linkInto)
+        cached.toFile().setReadOnly();
+        return true;
+    }
+
+    /**
+     * Coloca un artefacto de la caché en el destino indicado. Si el destino ya
+     * es ese mismo artefacto no hace nada; si no, lo sustituye por un enlace duro
+     * (de solo lectura, como el original) o, si no se puede enlazar, por una
+     * copia normal.
+     *
+     * @param cached artefacto de la caché.
+     * @param sha1   SHA-1 del artefacto.
+     * @param target ruta de destino (por ejemplo {@code servers/x/server.jar}).
+     * @throws IOException si no se puede enlazar ni copiar.
+     */
+    public static void linkInto(Path cached, String sha1, Path target) throws IOException {
+        if (Files.exists(target) && isSameArtifact(cached, sha1, target)) return;
+        try {
+            Files.deleteIfExists(target);
+        } catch (AccessDeniedException e) {
+            // En Windows no se puede borrar un archivo de solo lectura (el enlace a otra versión)
+            target.toFile().setWritable(true);
+            Files.deleteIfExists(target);
+        }
+        try {
+            Files.createLink(target, cached);
+        } catch (UnsupportedOperationException | FileAlreadyExistsException e) {
+            copy(cached, target);
+        } catch (IOException e) {
+            // Otro volumen o un sistema de archivos sin enlaces duros
+            copy(cached, target);
+        }
+    }
+
+    /** La copia es solo del servidor: no hereda la protección del artefacto. */
+    private static void copy(Path cached, Path target) throws IOException {
+        Files.copy(cached, target, StandardCopyOption.REPLACE_EXISTING);
+        target.toFile().setWritable(true);
+    }
+
+    private static boolean isSameArtifact(Path cached, String sha1, Path target) throws IOException {
+        if (Files.isSameFile(cached, target)) return true;
+        // Copia de una descarga anterior: solo se calcula el hash si el tamaño coincide
+        if (Files.size(cached) != Files.size(target)) return false;
+        return RangedDownloader.digest(target, "SHA-1").equalsIgnoreCase(sha1);
+    }
+
+    private static Path pathFor(String sha1) {
+        return BASE_DIR.resolve(sha1.substring(0, 2)).resolve(sha1);
+    }
+
+}
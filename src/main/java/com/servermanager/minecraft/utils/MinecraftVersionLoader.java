@@ -1,56 +1,261 @@
 package com.servermanager.minecraft.utils;
 
-import com.google.gson.*;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.servermanager.minecraft.net.DownloadProgress;
+import com.servermanager.minecraft.net.Downloads;
+import com.servermanager.minecraft.net.Http;
 import com.servermanager.minecraft.versions.MinecraftVersion;
+import com.servermanager.minecraft.versions.VersionCatalog;
 import okhttp3.*;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Carga las versiones oficiales de Minecraft consultando el manifiesto
  * público proporcionado por Mojang a través de internet.
+ * <p>
+ * El manifiesto se guarda en disco junto con su ETag y su Last-Modified. Mientras
+ * la copia es reciente se usa sin tocar la red; cuando caduca se revalida con una
+ * petición condicional, y si la red no responde se sigue usando la copia en disco.
+ * La lista resultante se comparte en memoria entre todos los que la piden.
+ * </p>
  */
 public class MinecraftVersionLoader {
 
     /** URL del manifiesto de versiones oficial de Minecraft */
     private static final String VERSION_MANIFEST_URL = "https://piston-meta.mojang.com/mc/game/version_manifest_v2.json";
 
+    /** Directorio de la caché del manifiesto */
+    private static final Path CACHE_DIR = Paths.get("cache");
+    private static final Path MANIFEST_FILE = CACHE_DIR.resolve("version_manifest_v2.json");
+    private static final Path META_FILE = CACHE_DIR.resolve("version_manifest_v2.meta.json");
+
+    /** Nombre del manifiesto en el registro de descargas */
+    private static final String MANIFEST_NAME = "version_manifest_v2";
+
+    /** Tiempo durante el que la copia se usa sin revalidar */
+    private static final long TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /** Lista compartida y momento en que se validó por última vez */
+    private static List<MinecraftVersion> versions;
+    private static long validatedAt;
+
+    /** Catálogo indexado de la lista compartida y lista de la que se construyó */
+    private static VersionCatalog catalog;
+    private static List<MinecraftVersion> catalogSource;
+
+    /**
+     * Metadatos de la copia en disco.
+     */
+    private static class ManifestMeta {
+        String etag;
+        String lastModified;
+        long fetchedAt;
+    }
+
     /**
      * Carga todas las versiones oficiales de Minecraft desde el manifiesto remoto.
      * Ordena las versiones de forma descendente según su número de versión.
+     * <p>
+     * Devuelve la lista compartida si sigue vigente; si no, usa la copia en disco
+     * o la revalida contra Mojang.
+     * </p>
+     *
+     * @return Lista inmutable de versiones de Minecraft
+     * @throws IOException Si ocurre un error de red o lectura y no hay copia en disco
+     */
+    public static synchronized List<MinecraftVersion> loadAllVersions() throws IOException {
+        long now = System.currentTimeMillis();
+        if (versions != null && now - validatedAt < TTL_MILLIS) return versions;
+
+        ManifestMeta meta = readMeta();
+        boolean onDisk = meta != null && Files.isRegularFile(MANIFEST_FILE);
+        if (onDisk && now - meta.fetchedAt < TTL_MILLIS) {
+            Downloads.cacheHit(DownloadProgress.Stage.MANIFEST, MANIFEST_NAME, VERSION_MANIFEST_URL);
+            if (versions == null) versions = parse(MANIFEST_FILE);
+            validatedAt = meta.fetchedAt;
+            return versions;
+        }
+
+        try {
+            boolean changed = fetch(onDisk ? meta : null);
+            if (changed || versions == null) versions = parse(MANIFEST_FILE);
+        } catch (IOException e) {
+            if (!onDisk) throw e;
+            System.err.println("No se pudo revalidar el manifiesto de versiones, se usa la copia en disco: " + e.getMessage());
+            if (versions == null) versions = parse(MANIFEST_FILE);
+        }
+        validatedAt = now;
+        return versions;
+    }
+
+    /**
+     * Obtiene el catálogo indexado de las versiones. Se construye una sola vez
+     * por cada lista cargada con {@link #loadAllVersions()}.
      *
-     * @return Lista de versiones de Minecraft
-     * @throws IOException Si ocurre un error de red o lectura
+     * @return El catálogo compartido.
+     * @throws IOException Si ocurre un error de red o lectura y no hay copia en disco
      */
-    public static List<MinecraftVersion> loadAllVersions() throws IOException {
-        List<MinecraftVersion> versions = new ArrayList<>();
+    public static synchronized VersionCatalog loadCatalog() throws IOException {
+        List<MinecraftVersion> current = loadAllVersions();
+        if (catalog == null || catalogSource != current) {
+            catalog = new VersionCatalog(current);
+            catalogSource = current;
+        }
+        return catalog;
+    }
 
-        OkHttpClient client = new OkHttpClient();
-        Request request = new Request.Builder()
-                .url(VERSION_MANIFEST_URL)
-                .build();
+    /**
+     * Descarga el manifiesto a disco, condicionado a la copia que ya hubiera.
+     * El cuerpo se vuelca al archivo según llega, sin pasar por memoria.
+     *
+     * @param meta metadatos de la copia en disco, o null si no hay.
+     * @return true si se descargó un manifiesto nuevo, false si la copia en disco sigue siendo válida.
+     */
+    private static boolean fetch(ManifestMeta meta) throws IOException {
+        Request.Builder request = new Request.Builder().url(VERSION_MANIFEST_URL);
+        if (meta != null) {
+            if (meta.etag != null) request.header("If-None-Match", meta.etag);
+            if (meta.lastModified != null) request.header("If-Modified-Since", meta.lastModified);
+        }
 
-        try (Response response = client.newCall(request).execute()) {
+        DownloadProgress progress = Downloads.start(DownloadProgress.Stage.MANIFEST, MANIFEST_NAME, VERSION_MANIFEST_URL);
+        try (Response response = Http.execute(request.build(), progress)) {
+            ManifestMeta updated = new ManifestMeta();
+            updated.fetchedAt = System.currentTimeMillis();
+            if (response.code() == 304 && meta != null) {
+                updated.etag = meta.etag;
+                updated.lastModified = meta.lastModified;
+                writeMeta(updated);
+                progress.markCacheHit();
+                Downloads.finish(progress);
+                return false;
+            }
             if (!response.isSuccessful()) throw new IOException("Unexpected code " + response);
 
             assert response.body() != null;
-            String json = response.body().string();
-            JsonObject root = JsonParser.parseString(json).getAsJsonObject();
-            JsonArray versionArray = root.getAsJsonArray("versions");
-
-            for (JsonElement element : versionArray) {
-                JsonObject obj = element.getAsJsonObject();
-                String id = obj.get("id").getAsString();
-                String type = obj.get("type").getAsString();
-                String versionUrl = obj.get("url").getAsString();
-                boolean isStable = type.equals("release");
-
-                versions.add(new MinecraftVersion(id, isStable, versionUrl));
+            progress.setTotalBytes(response.body().contentLength());
+            Files.createDirectories(CACHE_DIR);
+            Path temp = Files.createTempFile(CACHE_DIR, MANIFEST_FILE.getFileName().toString(), ".tmp");
+            try {
+                try (InputStream in = progress.track(response.body().byteStream())) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                moveAtomically(temp, MANIFEST_FILE);
+            } finally {
+                Files.deleteIfExists(temp);
             }
+            updated.etag = response.header("ETag");
+            updated.lastModified = response.header("Last-Modified");
+            writeMeta(updated);
+            Downloads.finish(progress);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            Downloads.fail(progress, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Convierte el manifiesto en la lista ordenada de versiones.
+     * <p>
+     * Se lee como flujo con {@link JsonReader}: cada entrada se convierte en su
+     * {@link MinecraftVersion} al leerla, sin construir el árbol JSON completo
+     * ni cargar el archivo entero en memoria. Los campos que no se usan (como
+     * {@code time} o {@code sha1}) se saltan sin crear objetos.
+     * </p>
+     */
+    static List<MinecraftVersion> parse(Path file) throws IOException {
+        List<MinecraftVersion> versions = new ArrayList<>(1024);
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("versions")) {
+                    readVersions(reader, versions);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Manifiesto de versiones no válido: " + file, e);
         }
         versions.sort(new MinecraftVersionComparator());
-        return versions;
+        return Collections.unmodifiableList(versions);
+    }
+
+    /**
+     * Lee el array {@code versions} del manifiesto. Las entradas sin id o sin URL se ignoran.
+     */
+    private static void readVersions(JsonReader reader, List<MinecraftVersion> versions) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String id = null;
+            String type = null;
+            String versionUrl = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id" -> id = reader.nextString();
+                    case "type" -> type = reader.nextString();
+                    case "url" -> versionUrl = reader.nextString();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (id != null && versionUrl != null) {
+                versions.add(new MinecraftVersion(id, "release".equals(type), versionUrl));
+            }
+        }
+        reader.endArray();
+    }
+
+    private static ManifestMeta readMeta() {
+        if (!Files.isRegularFile(META_FILE)) return null;
+        try (Reader reader = Files.newBufferedReader(META_FILE, StandardCharsets.UTF_8)) {
+            return new Gson().fromJson(reader, ManifestMeta.class);
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    private static void writeMeta(ManifestMeta meta) throws IOException {
+        Files.createDirectories(CACHE_DIR);
+        writeAtomically(META_FILE, new Gson().toJson(meta));
+    }
+
+    static void writeAtomically(Path file, String content) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(content);
+            }
+            moveAtomically(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void moveAtomically(Path temp, Path file) throws IOException {
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 }
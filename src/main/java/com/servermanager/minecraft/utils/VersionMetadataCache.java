@@ -0,0 +1,187 @@
+package com.servermanager.minecraft.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.servermanager.minecraft.net.DownloadProgress;
+import com.servermanager.minecraft.net.Downloads;
+import com.servermanager.minecraft.net.Http;
+import com.servermanager.minecraft.versions.MinecraftVersion;
+import com.servermanager.minecraft.versions.VersionMetadata;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caché de los metadatos de cada versión ({@link VersionMetadata}).
+ * <p>
+ * Cada version.json se descarga una sola vez: el resultado se guarda en
+ * {@code cache/versions/<id>.json}, junto al manifiesto, y en memoria. Si
+ * varios hilos piden la misma versión a la vez, solo uno la descarga y el
+ * resto espera su resultado.
+ * </p>
+ */
+public class VersionMetadataCache {
+
+    /** Directorio de los metadatos en disco */
+    private static final Path CACHE_DIR = Paths.get("cache", "versions");
+
+    /** Descargas simultáneas como máximo durante la precarga */
+    private static final int PREFETCH_THREADS = 4;
+
+    private static final ExecutorService PREFETCH = Executors.newFixedThreadPool(PREFETCH_THREADS, r -> {
+        Thread t = new Thread(r, "Version-Metadata");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Metadatos en memoria, o en curso de obtenerse, por URL del version.json */
+    private static final Map<String, CompletableFuture<VersionMetadata>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene los metadatos de una versión, de memoria, de disco o de la red.
+     *
+     * @param version Versión de Minecraft.
+     * @return Sus metadatos.
+     * @throws IOException Si no están en caché y no se pueden descargar.
+     */
+    public static VersionMetadata get(MinecraftVersion version) throws IOException {
+        try {
+            return lookup(version, false).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException("No se pudieron obtener los metadatos de " + version.getVersion(), e.getCause());
+        }
+    }
+
+    /**
+     * Obtiene los metadatos de una versión solo si ya se conocen, de memoria o
+     * de disco, sin tocar la red.
+     *
+     * @param version Versión de Minecraft.
+     * @return Sus metadatos, o null si habría que descargarlos.
+     */
+    public static VersionMetadata peek(MinecraftVersion version) {
+        String url = version.getManifestUrl();
+        if (url == null) return null;
+        CompletableFuture<VersionMetadata> entry = entries.get(url);
+        if (entry != null) {
+            return entry.isDone() && !entry.isCompletedExceptionally() ? entry.join() : null;
+        }
+        VersionMetadata cached = readFromDisk(cacheFile(version.getVersion()), url);
+        if (cached != null) entries.putIfAbsent(url, CompletableFuture.completedFuture(cached));
+        return cached;
+    }
+
+    /**
+     * Precarga en segundo plano los metadatos de varias versiones, con un
+     * número limitado de descargas simultáneas.
+     *
+     * @param versions Versiones a precargar; se ignoran los null y los repetidos.
+     * @return Futuro que se completa cuando han terminado todas (con o sin error).
+     */
+    public static CompletableFuture<Void> prefetch(Collection<MinecraftVersion> versions) {
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        for (MinecraftVersion version : versions) {
+            if (version == null || version.getManifestUrl() == null) continue;
+            pending.add(lookup(version, true).handle((metadata, error) -> {
+                if (error != null) {
+                    System.err.println("No se pudieron precargar los metadatos de " + version.getVersion() + ": " + error.getMessage());
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Busca la entrada de una versión y, si no la había, la crea y la resuelve.
+     *
+     * @param async true para resolverla en el grupo de precarga, false para hacerlo en el hilo actual.
+     */
+    private static CompletableFuture<VersionMetadata> lookup(MinecraftVersion version, boolean async) {
+        String url = version.getManifestUrl();
+        if (url == null) {
+            return CompletableFuture.failedFuture(new IOException("La versión " + version.getVersion() + " no tiene URL de manifiesto"));
+        }
+        CompletableFuture<VersionMetadata> created = new CompletableFuture<>();
+        CompletableFuture<VersionMetadata> existing = entries.putIfAbsent(url, created);
+        if (existing != null) return existing;
+
+        Runnable resolve = () -> {
+            try {
+                created.complete(resolve(version.getVersion(), url));
+            } catch (IOException | RuntimeException e) {
+                // Un fallo no se guarda: la próxima petición lo vuelve a intentar
+                entries.remove(url, created);
+                created.completeExceptionally(e);
+            }
+        };
+        if (async) PREFETCH.execute(resolve);
+        else resolve.run();
+        return created;
+    }
+
+    private static VersionMetadata resolve(String id, String url) throws IOException {
+        Path file = cacheFile(id);
+        VersionMetadata cached = readFromDisk(file, url);
+        if (cached != null) {
+            Downloads.cacheHit(DownloadProgress.Stage.VERSION_METADATA, id, url);
+            return cached;
+        }
+
+        VersionMetadata metadata;
+        DownloadProgress progress = Downloads.start(DownloadProgress.Stage.VERSION_METADATA, id, url);
+        try (Response response = Http.get(url, progress);
+             Reader reader = new InputStreamReader(progress.track(response.body().byteStream()), StandardCharsets.UTF_8)) {
+            progress.setTotalBytes(response.body().contentLength());
+            JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
+            metadata = VersionMetadata.fromJson(url, root);
+        } catch (IOException | RuntimeException e) {
+            Downloads.fail(progress, e);
+            throw e;
+        }
+        Downloads.finish(progress);
+
+        Files.createDirectories(CACHE_DIR);
+        MinecraftVersionLoader.writeAtomically(file, new Gson().toJson(metadata));
+        return metadata;
+    }
+
+    private static Path cacheFile(String id) {
+        return CACHE_DIR.resolve(id.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    /**
+     * Lee la copia en disco si corresponde a la URL pedida.
+     *
+     * @return los metadatos, o null si no hay copia válida.
+     */
+    private static VersionMetadata readFromDisk(Path file, String url) {
+        if (!Files.isRegularFile(file)) return null;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            VersionMetadata cached = new Gson().fromJson(reader, VersionMetadata.class);
+            // Si Mojang republica la versión cambia la URL y se vuelve a descargar
+            return cached != null && url.equals(cached.getManifestUrl()) ? cached : null;
+        } catch (IOException | JsonParseException e) {
+            // Copia dañada: se descarga de nuevo
+            return null;
+        }
+    }
+}
@@ -1,15 +1,8 @@
 package com.servermanager.minecraft.versions;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.servermanager.minecraft.utils.VersionMetadataCache;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.Objects;
 /**
  * Representa una versión de Minecraft con información asociada,
@@ -20,6 +13,9 @@ public class MinecraftVersion {
     private final boolean isStable;
     private String manifestURL;
     private int requiredJavaVersion; // e.g. 8, 17, 21
+    private transient volatile VersionMetadata metadata;
+    /** Clave de orden precalculada; 0 si aún no se ha calculado (instancias leídas con Gson) */
+    private transient long sortKey;
 
     /**
      * Crea una instancia de MinecraftVersion.
@@ -30,6 +26,7 @@ public class MinecraftVersion {
         this.version = version;
         this.isStable = isStable;
         this.manifestURL=null;
+        this.sortKey = VersionSortKey.of(version);
     }
     /**
      * Crea una instancia de MinecraftVersion con la URL del manifiesto.
@@ -41,6 +38,7 @@ public class MinecraftVersion {
         this.version = version;
         this.isStable = isStable;
         this.manifestURL=url;
+        this.sortKey = VersionSortKey.of(version);
     }
     /**
      * Obtiene la versión de Minecraft.
@@ -54,32 +52,49 @@ public class MinecraftVersion {
      */
     public boolean isStable() { return isStable; }
 
+    /**
+     * Obtiene la clave de orden de la versión: cuanto mayor, más reciente.
+     * Distingue versiones finales, release candidates, pre-releases y snapshots.
+     * Se calcula una sola vez, así que comparar no crea objetos.
+     * @return La clave de orden.
+     */
+    public long getSortKey() {
+        long key = sortKey;
+        if (key == 0) {
+            // Gson no pasa por el constructor
+            key = VersionSortKey.of(version);
+            sortKey = key;
+        }
+        return key;
+    }
+
+    /**
+     * Obtiene los metadatos de esta versión (JAR del servidor y versión de Java).
+     * Se obtienen una sola vez, de la caché en disco o de la red, y se guardan
+     * en memoria; también actualizan la versión requerida de Java.
+     *
+     * @return Los metadatos.
+     * @throws IOException Si no están en caché y no se pueden descargar.
+     */
+    public VersionMetadata getMetadata() throws IOException {
+        VersionMetadata result = metadata;
+        if (result == null) {
+            result = VersionMetadataCache.get(this);
+            this.requiredJavaVersion = result.getJavaMajor();
+            metadata = result;
+        }
+        return result;
+    }
+
     /**
      * Obtiene la URL del archivo JAR del servidor para esta versión.
-     * Este método descarga y procesa el manifiesto JSON para extraer la URL
-     * y también obtiene la versión requerida de Java.
+     * También obtiene la versión requerida de Java.
      *
      * @return URL del JAR del servidor o null si ocurre un error.
      */
     public String getJarUrl() {
         try {
-            URL url = new URL(this.manifestURL); // `this.url` es la URL de `version.json`
-            HttpURLConnection con = (HttpURLConnection) url.openConnection();
-            con.setRequestMethod("GET");
-
-            try (InputStream is = con.getInputStream();
-                 Reader reader = new InputStreamReader(is)) {
-
-                JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
-                JsonObject downloads = root.getAsJsonObject("downloads");
-                JsonObject server = downloads.getAsJsonObject("server");
-                JsonObject javaVersion=root.getAsJsonObject("javaVersion");
-                JsonElement majorVersion=javaVersion.get("majorVersion");
-                this.requiredJavaVersion= majorVersion.getAsInt();
-
-                return server.get("url").getAsString();
-            }
-
+            return getMetadata().getJarUrl();
         } catch (IOException e) {
             e.printStackTrace();
             return null;
@@ -91,7 +106,7 @@ public class MinecraftVersion {
      * Obtiene la URL del manifiesto JSON para esta versión.
      * @return La URL del manifiesto.
      */
-    private String getManifestUrl() {
+    public String getManifestUrl() {
         return this.manifestURL;
     }
 
@@ -127,11 +142,17 @@ public class MinecraftVersion {
     }
     /**
      * Obtiene la versión requerida de Java para esta versión de Minecraft.
-     * Se actualiza cuando se llama a {@link #getJarUrl()}.
-     * @return Versión requerida de Java (por ejemplo, 8, 17, 21).
+     * Si aún no se conoce, se obtiene de los metadatos de la versión.
+     * @return Versión requerida de Java (por ejemplo, 8, 17, 21), o 0 si no se pudo obtener.
      */
     public int getRequiredJavaVersion() {
+        if (requiredJavaVersion == 0 && manifestURL != null) {
+            try {
+                getMetadata();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
         return requiredJavaVersion;
     }
 }
-
@@ -0,0 +1,133 @@
+package com.servermanager.minecraft.versions;
+
+import com.servermanager.minecraft.utils.VersionMetadataCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Catálogo inmutable de las versiones de Minecraft del manifiesto, indexado
+ * para que la interfaz y los servidores no tengan que recorrer la lista.
+ * <p>
+ * Se construye una vez por manifiesto (ver
+ * {@link com.servermanager.minecraft.utils.MinecraftVersionLoader#loadCatalog()})
+ * con un índice por id y las vistas ya calculadas de releases, snapshots y
+ * versiones por Java requerido. Todas las vistas conservan el orden del
+ * manifiesto (de la más reciente a la más antigua).
+ * </p>
+ */
+public final class VersionCatalog {
+
+    private final List<MinecraftVersion> all;
+    private final Map<String, MinecraftVersion> byId;
+    private final List<MinecraftVersion> releases;
+    private final List<MinecraftVersion> snapshots;
+    private final Map<Integer, List<MinecraftVersion>> byJavaMajor;
+
+    /**
+     * Crea el catálogo a partir de la lista de versiones ya ordenada.
+     * <p>
+     * La vista por Java solo incluye las versiones cuyos metadatos ya estaban
+     * en memoria o en disco: construir el catálogo nunca toca la red.
+     * </p>
+     *
+     * @param versions Versiones ordenadas.
+     */
+    public VersionCatalog(List<MinecraftVersion> versions) {
+        Map<String, MinecraftVersion> byId = new HashMap<>(versions.size() * 2);
+        List<MinecraftVersion> releases = new ArrayList<>();
+        List<MinecraftVersion> snapshots = new ArrayList<>();
+        Map<Integer, List<MinecraftVersion>> byJavaMajor = new TreeMap<>();
+        for (MinecraftVersion version : versions) {
+            if (version.getVersion() == null) continue;
+            byId.putIfAbsent(version.getVersion(), version);
+            (version.isStable() ? releases : snapshots).add(version);
+            VersionMetadata metadata = VersionMetadataCache.peek(version);
+            if (metadata != null) {
+                byJavaMajor.computeIfAbsent(metadata.getJavaMajor(), k -> new ArrayList<>()).add(version);
+            }
+        }
+        byJavaMajor.replaceAll((major, list) -> Collections.unmodifiableList(list));
+
+        this.all = Collections.unmodifiableList(new ArrayList<>(versions));
+        this.byId = byId;
+        this.releases = Collections.unmodifiableList(releases);
+        this.snapshots = Collections.unmodifiableList(snapshots);
+        this.byJavaMajor = Collections.unmodifiableMap(byJavaMajor);
+    }
+
+    /**
+     * Busca una versión por su id.
+     *
+     * @param id Id de la versión (por ejemplo "1.20.1").
+     * @return La versión, o null si no está en el manifiesto.
+     */
+    public MinecraftVersion find(String id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    /**
+     * Sustituye una versión (por ejemplo la leída de la configuración de un
+     * servidor) por la instancia del catálogo con el mismo id, que tiene la URL
+     * del manifiesto y comparte los metadatos ya obtenidos.
+     *
+     * @param version Versión a resolver.
+     * @return La instancia del catálogo, o la misma versión si no está en él.
+     */
+    public MinecraftVersion resolve(MinecraftVersion version) {
+        if (version == null) return null;
+        MinecraftVersion found = byId.get(version.getVersion());
+        return found != null ? found : version;
+    }
+
+    /**
+     * Obtiene todas las versiones.
+     *
+     * @return Lista inmutable ordenada.
+     */
+    public List<MinecraftVersion> getAll() {
+        return all;
+    }
+
+    /**
+     * Obtiene las versiones estables.
+     *
+     * @return Lista inmutable ordenada.
+     */
+    public List<MinecraftVersion> getReleases() {
+        return releases;
+    }
+
+    /**
+     * Obtiene las snapshots y demás versiones no estables.
+     *
+     * @return Lista inmutable ordenada.
+     */
+    public List<MinecraftVersion> getSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * Obtiene las versiones que necesitan una versión concreta de Java, entre
+     * las que ya tenían sus metadatos al crear el catálogo.
+     *
+     * @param javaMajor Versión mayor de Java (por ejemplo, 21).
+     * @return Lista inmutable ordenada, vacía si no hay ninguna.
+     */
+    public List<MinecraftVersion> getByJavaMajor(int javaMajor) {
+        return byJavaMajor.getOrDefault(javaMajor, List.of());
+    }
+
+    /**
+     * Obtiene el número de versiones del catálogo.
+     *
+     * @return Número de versiones.
+     */
+    public int size() {
+        return all.size();
+    }
+}
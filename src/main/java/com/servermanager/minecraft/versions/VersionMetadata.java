@@ -0,0 +1,83 @@
+package com.servermanager.minecraft.versions;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Datos de una versión de Minecraft que se obtienen de su version.json:
+ * el JAR del servidor y la versión de Java que necesita.
+ * <p>
+ * El version.json de una versión no cambia mientras no cambie su URL, así que
+ * estos datos se pueden guardar en disco y reutilizar indefinidamente.
+ * </p>
+ */
+public final class VersionMetadata {
+    private final String manifestUrl;
+    private final String jarUrl;
+    private final String jarSha1;
+    private final long jarSize;
+    private final int javaMajor;
+
+    /**
+     * Crea los metadatos de una versión.
+     * @param manifestUrl URL del version.json del que se obtuvieron.
+     * @param jarUrl URL del JAR del servidor.
+     * @param jarSha1 SHA-1 del JAR del servidor.
+     * @param jarSize Tamaño del JAR en bytes, o -1 si no se conoce.
+     * @param javaMajor Versión mayor de Java requerida (por ejemplo, 21).
+     */
+    public VersionMetadata(String manifestUrl, String jarUrl, String jarSha1, long jarSize, int javaMajor) {
+        this.manifestUrl = manifestUrl;
+        this.jarUrl = jarUrl;
+        this.jarSha1 = jarSha1;
+        this.jarSize = jarSize;
+        this.javaMajor = javaMajor;
+    }
+
+    /**
+     * Extrae los metadatos de un version.json.
+     * @param manifestUrl URL del version.json.
+     * @param root Objeto raíz del version.json.
+     * @return Los metadatos.
+     */
+    public static VersionMetadata fromJson(String manifestUrl, JsonObject root) {
+        JsonObject server = root.getAsJsonObject("downloads").getAsJsonObject("server");
+        JsonObject javaVersion = root.getAsJsonObject("javaVersion");
+        return new VersionMetadata(
+                manifestUrl,
+                server.get("url").getAsString(),
+                server.has("sha1") ? server.get("sha1").getAsString() : null,
+                server.has("size") ? server.get("size").getAsLong() : -1,
+                // Las versiones muy antiguas no declaran Java: funcionan con Java 8
+                javaVersion != null ? javaVersion.get("majorVersion").getAsInt() : 8);
+    }
+
+    /**
+     * Obtiene la URL del version.json del que se obtuvieron estos datos.
+     * @return La URL.
+     */
+    public String getManifestUrl() { return manifestUrl; }
+
+    /**
+     * Obtiene la URL del JAR del servidor.
+     * @return La URL.
+     */
+    public String getJarUrl() { return jarUrl; }
+
+    /**
+     * Obtiene el SHA-1 del JAR del servidor.
+     * @return SHA-1 en hexadecimal, o null si no se publica.
+     */
+    public String getJarSha1() { return jarSha1; }
+
+    /**
+     * Obtiene el tamaño del JAR del servidor.
+     * @return Tamaño en bytes, o -1 si no se conoce.
+     */
+    public long getJarSize() { return jarSize; }
+
+    /**
+     * Obtiene la versión mayor de Java requerida.
+     * @return Versión de Java (por ejemplo, 8, 17, 21).
+     */
+    public int getJavaMajor() { return javaMajor; }
+}
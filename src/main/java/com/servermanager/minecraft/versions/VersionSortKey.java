@@ -0,0 +1,139 @@
+package com.servermanager.minecraft.versions;
+
+/**
+ * Calcula la clave de orden de un identificador de versión de Minecraft.
+ * <p>
+ * La clave es un {@code long} que se compara directamente: cuanto mayor,
+ * más reciente. De más a menos significativo guarda:
+ * </p>
+ * <ul>
+ *     <li>la familia: versiones numeradas ({@code 1.20.1}, {@code 26.1}) &gt;
+ *     snapshots semanales ({@code 24w14a}) &gt; beta ({@code b1.7.3}) &gt;
+ *     alpha ({@code a1.2.6}) &gt; el resto ({@code rd-132211}, {@code inf-20100618}...);</li>
+ *     <li>en las numeradas, mayor, menor y parche, y después la fase: snapshot
+ *     de la versión ({@code 26.1-snapshot-1}) &lt; pre-release ({@code 1.21-pre1},
+ *     {@code 1.14 Pre-Release 1}) &lt; release candidate ({@code 1.21-rc1}) &lt;
+ *     versión final, con el número de la fase;</li>
+ *     <li>en los snapshots semanales, año, semana y letra.</li>
+ * </ul>
+ * <p>
+ * El cálculo recorre la cadena una sola vez sin crear objetos.
+ * </p>
+ */
+final class VersionSortKey {
+
+    private static final long OTHER = 1;
+    private static final long ALPHA = 2;
+    private static final long BETA = 3;
+    private static final long WEEKLY_SNAPSHOT = 4;
+    private static final long NUMBERED = 5;
+
+    private static final long PHASE_SNAPSHOT = 0;
+    private static final long PHASE_PRE = 1;
+    private static final long PHASE_RC = 2;
+    private static final long PHASE_RELEASE = 3;
+
+    private static final int MAX_COMPONENT = 0x3FF;
+    private static final int MAX_PHASE_NUMBER = 0xFFFF;
+
+    private VersionSortKey() {
+    }
+
+    /**
+     * Calcula la clave de un identificador.
+     *
+     * @param id identificador de la versión (por ejemplo {@code 1.20.1} o {@code 24w14a}).
+     * @return la clave; nunca es 0.
+     */
+    static long of(String id) {
+        if (id == null || id.isEmpty()) return family(OTHER);
+        int n = id.length();
+
+        // Snapshot semanal: 24w14a
+        if (n >= 5 && isDigit(id, 0) && isDigit(id, 1) && id.charAt(2) == 'w' && isDigit(id, 3) && isDigit(id, 4)) {
+            long year = digit(id, 0) * 10 + digit(id, 1);
+            long week = digit(id, 3) * 10 + digit(id, 4);
+            char c = n > 5 ? id.charAt(5) : 0;
+            long letter = c >= 'a' && c <= 'z' ? c - 'a' + 1 : 0;
+            return family(WEEKLY_SNAPSHOT) | year << 20 | week << 12 | letter << 4;
+        }
+
+        long family = NUMBERED;
+        int pos = 0;
+        if ((id.charAt(0) == 'b' || id.charAt(0) == 'a') && isDigit(id, 1)) {
+            family = id.charAt(0) == 'b' ? BETA : ALPHA;
+            pos = 1;
+        } else if (!isDigit(id, 0)) {
+            return family(OTHER);
+        }
+
+        // Mayor, menor y parche
+        long major = 0, minor = 0, patch = 0;
+        int components = 0;
+        while (components < 3) {
+            int value = 0;
+            int digits = 0;
+            while (pos < n && isDigit(id, pos)) {
+                value = Math.min(MAX_COMPONENT, value * 10 + digit(id, pos));
+                digits++;
+                pos++;
+            }
+            if (digits == 0) return family(OTHER);
+            if (components == 0) major = value;
+            else if (components == 1) minor = value;
+            else patch = value;
+            components++;
+            if (pos < n && id.charAt(pos) == '.') pos++;
+            else break;
+        }
+        if (components < 2 && family == NUMBERED) return family(OTHER);
+
+        // Fase: -snapshot-1, -pre1, " Pre-Release 1", -rc1, " Release Candidate 1", _02
+        long phase = PHASE_RELEASE;
+        long phaseNumber = 0;
+        if (pos < n) {
+            char separator = id.charAt(pos);
+            if (separator != '-' && separator != ' ' && separator != '_') return family(OTHER);
+            if (contains(id, pos, "snapshot")) phase = PHASE_SNAPSHOT;
+            else if (contains(id, pos, "pre")) phase = PHASE_PRE;
+            else if (contains(id, pos, "rc") || contains(id, pos, "candidate")) phase = PHASE_RC;
+            phaseNumber = lastNumber(id, pos);
+        }
+
+        return family(family) | major << 50 | minor << 40 | patch << 30 | phase << 28 | phaseNumber << 12;
+    }
+
+    private static long family(long family) {
+        return family << 60;
+    }
+
+    private static boolean isDigit(String s, int i) {
+        if (i >= s.length()) return false;
+        char c = s.charAt(i);
+        return c >= '0' && c <= '9';
+    }
+
+    private static int digit(String s, int i) {
+        return s.charAt(i) - '0';
+    }
+
+    private static boolean contains(String s, int from, String word) {
+        for (int i = from; i + word.length() <= s.length(); i++) {
+            if (s.regionMatches(true, i, word, 0, word.length())) return true;
+        }
+        return false;
+    }
+
+    // Último grupo de cifras a partir de una posición (el 2 de "-pre2")
+    private static long lastNumber(String s, int from) {
+        int end = s.length();
+        while (end > from && !isDigit(s, end - 1)) end--;
+        int start = end;
+        while (start > from && isDigit(s, start - 1)) start--;
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = Math.min(MAX_PHASE_NUMBER, value * 10 + digit(s, i));
+        }
+        return value;
+    }
+}
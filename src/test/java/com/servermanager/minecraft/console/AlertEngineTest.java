@@ -0,0 +1,37 @@
+package com.servermanager.minecraft.console;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la compilación de reglas de {@link AlertEngine}.
+ */
+class AlertEngineTest {
+
+    private static void feed(AlertEngine engine, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        LogLine line = new LogLine();
+        LogLineParser.parse(bytes, 0, bytes.length, line);
+        engine.onLogLine(line);
+    }
+
+    @Test
+    void ignoresEmptyKeywords() {
+        AlertRule mixed = new AlertRule("mixta", Arrays.asList("", null, "boom"), null, 0);
+        AlertRule empty = new AlertRule("vacia", List.of(""), null, 0);
+        AlertEngine engine = new AlertEngine("prueba", List.of(mixed, empty));
+
+        assertEquals(List.of(mixed), engine.getRules());
+        assertEquals(List.of("boom"), mixed.getKeywords());
+
+        feed(engine, "[12:00:00] [Server thread/INFO]: todo en orden");
+        feed(engine, "[12:00:01] [Server thread/ERROR]: BOOM");
+        assertEquals(Map.of("mixta", 1L), engine.getHits());
+    }
+}
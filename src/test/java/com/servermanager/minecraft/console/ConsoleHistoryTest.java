@@ -0,0 +1,51 @@
+package com.servermanager.minecraft.console;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link ConsoleHistory} sobre un historial que sigue creciendo mientras se lee.
+ */
+class ConsoleHistoryTest {
+
+    @TempDir
+    File dir;
+
+    private static void write(ConsoleSpool spool, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte[] line = ("linea " + i).getBytes(StandardCharsets.UTF_8);
+            spool.onLine(line, 0, line.length);
+        }
+        spool.flush();
+    }
+
+    @Test
+    void readsLinesAddedAfterTheIndexWasLoaded() throws IOException {
+        ConsoleSpool spool = new ConsoleSpool(dir);
+        ConsoleHistory history = new ConsoleHistory(dir);
+        try {
+            write(spool, 0, 100);
+            history.refresh();
+            assertEquals(100, history.getLineCount());
+            assertEquals(List.of("linea 70", "linea 71"), history.readLines(70, 2));
+
+            // Varias veces el índice inicial, para que la copia en memoria crezca
+            int total = 100 + 200 * ConsoleHistory.INDEX_INTERVAL;
+            write(spool, 100, total);
+            assertEquals(total, history.getLineCount());
+            assertEquals(List.of("linea 99", "linea 100"), history.readLines(99, 2));
+            int late = total - ConsoleHistory.INDEX_INTERVAL - 3;
+            assertEquals(List.of("linea " + late), history.readLines(late, 1));
+            assertEquals(List.of("linea " + (total - 1)), history.readLines(total - 1, 5));
+        } finally {
+            spool.close();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.servermanager.minecraft.console;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del límite de memoria de {@link ConsoleSearchIndex}.
+ */
+class ConsoleSearchIndexTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    void gramEntriesCountAgainstTheBudget() throws Exception {
+        int maxEntries = 20_000;
+        int lines = 5000;
+        ConsoleSpool spool = new ConsoleSpool(dir);
+        ConsoleSearchIndex index = new ConsoleSearchIndex(spool, maxEntries);
+        try {
+            // Cada línea trae palabras que no se repiten (identificadores, UUIDs...)
+            for (int i = 0; i < lines; i++) {
+                byte[] line = String.format("[12:00:00] [Server thread/INFO]: jugador%012dx entidad%012dy", i, i)
+                        .getBytes(StandardCharsets.UTF_8);
+                spool.onLine(line, 0, line.length);
+                index.onLine(line, 0, line.length);
+            }
+            spool.flush();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (index.getIndexedLines() < lines && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(lines, index.getIndexedLines());
+
+            // Si los fragmentos no contaran en el límite, se retendrían más de 250.000 entradas
+            long entries = index.getPostingCount() + index.getGramCount();
+            assertTrue(entries <= maxEntries + 200, "entradas retenidas: " + entries);
+            assertFalse(index.search("jugador" + String.format("%012d", lines - 1), 10).isEmpty());
+        } finally {
+            index.close();
+            spool.close();
+        }
+    }
+}
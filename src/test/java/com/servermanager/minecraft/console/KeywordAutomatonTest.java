@@ -0,0 +1,99 @@
+package com.servermanager.minecraft.console;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link KeywordAutomaton}: coincidencias solapadas, enlaces de fallo
+ * y comparación con una búsqueda directa.
+ */
+class KeywordAutomatonTest {
+
+    private static KeywordAutomaton compile(String... keywords) {
+        List<byte[]> list = new ArrayList<>();
+        for (String keyword : keywords) list.add(keyword.getBytes(StandardCharsets.UTF_8));
+        return new KeywordAutomaton(list);
+    }
+
+    private static List<Integer> scan(KeywordAutomaton automaton, String text) {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        List<Integer> matches = new ArrayList<>();
+        automaton.scan(data, 0, data.length, matches::add);
+        return matches;
+    }
+
+    @Test
+    void reportsOverlappingKeywordsThroughOutputLinks() {
+        KeywordAutomaton automaton = compile("he", "she", "his", "hers");
+        // "she" y "he" terminan en la misma posición; "hers" empieza dentro de "she"
+        assertEquals(List.of(1, 0, 3), scan(automaton, "ushers"));
+        assertEquals(List.of(2), scan(automaton, "ahis"));
+    }
+
+    @Test
+    void followsFailureLinksAfterPartialMatch() {
+        KeywordAutomaton automaton = compile("abcd", "bce", "c");
+        // Tras "abc" falla la 'e' en la rama de "abcd" y debe seguir por "bc" hasta "bce"
+        assertEquals(List.of(2, 1), scan(automaton, "abce"));
+        assertEquals(List.of(2, 0), scan(automaton, "xabcd"));
+    }
+
+    @Test
+    void reportsRepeatedAndNestedKeywords() {
+        KeywordAutomaton automaton = compile("aa", "a");
+        // Cada posición notifica primero la palabra más larga y después, por el enlace de salida, "a"
+        assertEquals(List.of(1, 0, 1, 0, 1), scan(automaton, "aaa"));
+    }
+
+    @Test
+    void ignoresAsciiCaseAndKeepsOtherBytes() {
+        KeywordAutomaton automaton = compile("Can't keep up", "niño");
+        assertEquals(List.of(0), scan(automaton, "[WARN]: CAN'T KEEP UP! Is the server overloaded?"));
+        assertEquals(List.of(1), scan(automaton, "el NIño"));
+        // Las mayúsculas fuera de ASCII no se pliegan
+        assertTrue(scan(automaton, "NIÑO").isEmpty());
+    }
+
+    @Test
+    void scansOnlyTheRequestedRange() {
+        KeywordAutomaton automaton = compile("error");
+        byte[] data = "error|ok|error".getBytes(StandardCharsets.UTF_8);
+        List<Integer> matches = new ArrayList<>();
+        automaton.scan(data, 5, 9, matches::add);
+        assertTrue(matches.isEmpty());
+        automaton.scan(data, 9, data.length, matches::add);
+        assertEquals(List.of(0), matches);
+    }
+
+    @Test
+    void matchesNaiveSearchOnRandomText() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            String[] keywords = new String[1 + random.nextInt(40)];
+            for (int k = 0; k < keywords.length; k++) keywords[k] = randomWord(random, 1 + random.nextInt(5));
+            KeywordAutomaton automaton = compile(keywords);
+            String text = randomWord(random, 200);
+
+            int[] expected = new int[keywords.length];
+            for (int k = 0; k < keywords.length; k++) {
+                for (int i = text.indexOf(keywords[k]); i >= 0; i = text.indexOf(keywords[k], i + 1)) expected[k]++;
+            }
+            int[] actual = new int[keywords.length];
+            for (int keyword : scan(automaton, text)) actual[keyword]++;
+            assertArrayEquals(expected, actual, "ronda " + round);
+        }
+    }
+
+    /** Texto sobre un alfabeto pequeño para forzar muchos prefijos compartidos. */
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) word.append((char) ('a' + random.nextInt(3)));
+        return word.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.servermanager.minecraft.console;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link LogLineParser} con los formatos de cabecera habituales.
+ */
+class LogLineParserTest {
+
+    private final LogLine line = new LogLine();
+
+    /** Analiza el texto colocado en mitad de un buffer, como lo entrega la bomba de salida. */
+    private boolean parse(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] buffer = new byte[bytes.length + 10];
+        System.arraycopy(bytes, 0, buffer, 5, bytes.length);
+        return LogLineParser.parse(buffer, 5, bytes.length, line);
+    }
+
+    @Test
+    void parsesVanillaHeader() {
+        assertTrue(parse("[12:34:56] [Server thread/INFO]: Done (3.2s)! For help, type \"help\""));
+        assertTrue(line.hasHeader());
+        assertEquals(LogLevel.INFO, line.getLevel());
+        assertEquals(12 * 3600 + 34 * 60 + 56, line.getSecondOfDay());
+        assertEquals(-1, line.getMillis());
+        assertEquals("Server thread", line.getThread());
+        assertNull(line.getLogger());
+        assertEquals("Done (3.2s)! For help, type \"help\"", line.getMessage());
+    }
+
+    @Test
+    void parsesPaperHeader() {
+        assertTrue(parse("[08:00:01 WARN]: Can't keep up!"));
+        assertEquals(LogLevel.WARN, line.getLevel());
+        assertEquals(8 * 3600 + 1, line.getSecondOfDay());
+        assertNull(line.getThread());
+        assertEquals("Can't keep up!", line.getMessage());
+    }
+
+    @Test
+    void parsesForgeHeaderWithDateMillisAndLogger() {
+        assertTrue(parse("[26Jan2024 23:59:58.7] [Server thread/ERROR] [minecraft/DedicatedServer]: Boom"));
+        assertEquals(LogLevel.ERROR, line.getLevel());
+        assertEquals(23 * 3600 + 59 * 60 + 58, line.getSecondOfDay());
+        assertEquals(700, line.getMillis());
+        assertEquals("Server thread", line.getThread());
+        assertEquals("minecraft/DedicatedServer", line.getLogger());
+        assertEquals("Boom", line.getMessage());
+    }
+
+    @Test
+    void parsesFabricLoggerInParentheses() {
+        assertTrue(parse("[10:00:00] [main/INFO] (Minecraft) Loading 12 mods"));
+        assertEquals("main", line.getThread());
+        assertEquals("Minecraft", line.getLogger());
+        assertEquals("Loading 12 mods", line.getMessage());
+    }
+
+    @Test
+    void splitsThreadAtLastSlash() {
+        assertTrue(parse("[10:00:00] [Worker-Main/3/WARNING]: Legacy level"));
+        assertEquals(LogLevel.WARN, line.getLevel());
+        assertEquals("Worker-Main/3", line.getThread());
+        assertEquals("Legacy level", line.getMessage());
+    }
+
+    @Test
+    void leavesLinesWithoutHeaderAsUnknown() {
+        String[] lines = {
+                "\tat net.minecraft.server.Main.main(Main.java:42)",
+                "java.lang.IllegalStateException: boom",
+                "[12:34:56]",
+                "[12:34:56] [Server thread/VERBOSE]: nivel desconocido",
+                "[no es una hora] [Server thread/INFO]: x",
+                "",
+        };
+        for (String text : lines) {
+            assertFalse(parse(text), text);
+            assertFalse(line.hasHeader(), text);
+            assertEquals(LogLevel.UNKNOWN, line.getLevel(), text);
+            assertEquals(-1, line.getSecondOfDay(), text);
+            assertNull(line.getThread(), text);
+            assertEquals(text, line.getMessage(), text);
+        }
+    }
+
+    @Test
+    void keepsMultiByteTextIntact() {
+        assertTrue(parse("[12:00:00] [Hilo ñandú/INFO]: <José> ¡Hola, 世界! 🎉"));
+        assertEquals("Hilo ñandú", line.getThread());
+        assertEquals("<José> ¡Hola, 世界! 🎉", line.getMessage());
+        assertTrue(line.messageStartsWith("<José>".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(line.messageEndsWith("🎉".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void resetsStateBetweenLines() {
+        assertTrue(parse("[01:02:03] [Server thread/INFO] [minecraft/Foo]: primera"));
+        assertFalse(parse("sin cabecera"));
+        assertNull(line.getLogger());
+        assertEquals(-1, line.getMillis());
+        assertEquals("sin cabecera", line.getMessage());
+    }
+
+    @Test
+    void copyOwnsItsBytes() {
+        byte[] buffer = "[12:00:00] [Server thread/INFO]: original".getBytes(StandardCharsets.UTF_8);
+        assertTrue(LogLineParser.parse(buffer, 0, buffer.length, line));
+        LogLine copy = line.copy();
+        buffer[buffer.length - 1] = 'X';
+        assertEquals("original", copy.getMessage());
+        assertEquals("Server thread", copy.getThread());
+    }
+}
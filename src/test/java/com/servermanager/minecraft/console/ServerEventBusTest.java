@@ -0,0 +1,63 @@
+package com.servermanager.minecraft.console;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del reconocimiento de entradas y salidas de jugadores en {@link ServerEventBus}.
+ */
+class ServerEventBusTest {
+
+    private final ServerEventBus bus = new ServerEventBus("prueba");
+
+    private void feed(String message) {
+        byte[] data = ("[12:00:00] [Server thread/INFO]: " + message).getBytes(StandardCharsets.UTF_8);
+        LogLine line = new LogLine();
+        assertTrue(LogLineParser.parse(data, 0, data.length, line));
+        bus.onLogLine(line);
+    }
+
+    @Test
+    void tracksPlayersJoiningAndLeaving() {
+        feed("Steve joined the game");
+        feed("Alex_2024 joined the game");
+        assertEquals(Set.of("Alex_2024", "Steve"), bus.getOnlinePlayers());
+
+        feed("Steve left the game");
+        assertEquals(Set.of("Alex_2024"), bus.getOnlinePlayers());
+        assertEquals(2, bus.getCount(ServerEvent.Type.PLAYER_JOINED));
+        assertEquals(1, bus.getCount(ServerEvent.Type.PLAYER_LEFT));
+    }
+
+    @Test
+    void acceptsRenamedPlayers() {
+        feed("NewName (formerly known as OldName) joined the game");
+        assertEquals(Set.of("NewName"), bus.getOnlinePlayers());
+    }
+
+    @Test
+    void ignoresTextThatOnlyEndsLikeAJoin() {
+        feed("* Steve joined the game");
+        feed("Steve says he joined the game");
+        feed("ThisNameIsWayTooLong joined the game");
+        feed(" joined the game");
+        feed("Ste-ve joined the game");
+        feed("NewName (formerly known as a b) joined the game");
+        feed("* Alex left the game");
+
+        assertTrue(bus.getOnlinePlayers().isEmpty());
+        assertEquals(0, bus.getCount(ServerEvent.Type.PLAYER_JOINED));
+        assertEquals(0, bus.getCount(ServerEvent.Type.PLAYER_LEFT));
+    }
+
+    @Test
+    void keepsChatSeparateFromJoins() {
+        feed("<Steve> Alex joined the game");
+        assertTrue(bus.getOnlinePlayers().isEmpty());
+        assertEquals(1, bus.getCount(ServerEvent.Type.CHAT));
+    }
+}
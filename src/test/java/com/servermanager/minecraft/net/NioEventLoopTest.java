@@ -0,0 +1,44 @@
+package com.servermanager.minecraft.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del cierre de {@link NioEventLoop}.
+ */
+class NioEventLoopTest {
+
+    @Test
+    void closeReleasesChannelsAndRejectsTasks() throws Exception {
+        NioEventLoop loop = new NioEventLoop("Loop-Test");
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        channel.configureBlocking(false);
+
+        CompletableFuture<Void> registered = new CompletableFuture<>();
+        loop.execute(() -> {
+            try {
+                loop.register(channel, SelectionKey.OP_ACCEPT, key -> {});
+                registered.complete(null);
+            } catch (IOException e) {
+                registered.completeExceptionally(e);
+            }
+        });
+        registered.get(5, TimeUnit.SECONDS);
+
+        loop.close();
+        assertFalse(channel.isOpen());
+        assertThrows(RejectedExecutionException.class, () -> loop.execute(() -> {}));
+        assertThrows(RejectedExecutionException.class, () -> loop.schedule(10, () -> {}));
+    }
+}
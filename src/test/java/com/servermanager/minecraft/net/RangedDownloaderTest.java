@@ -0,0 +1,190 @@
+package com.servermanager.minecraft.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link RangedDownloader} contra un servidor HTTP local.
+ */
+class RangedDownloaderTest {
+
+    /** Más de cuatro tramos mínimos, para que se use el máximo de tramos. */
+    private static final int SIZE = 17 * 1024 * 1024;
+
+    private static byte[] data;
+    private static String sha1;
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private String url;
+
+    /** El servidor responde 200 con el archivo entero aunque se pida un rango. */
+    private volatile boolean ignoreRanges;
+    /** El servidor corta cada respuesta tras este número de bytes (o nunca si es negativo). */
+    private volatile long cutAfter = -1;
+    /** ETag actual del archivo remoto. */
+    private volatile String etag = "\"v1\"";
+    /** ETag que toma el archivo justo después de la primera petición. */
+    private volatile String etagAfterProbe;
+
+    private final AtomicLong served = new AtomicLong();
+    private final Set<String> ranges = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void startServer() throws Exception {
+        if (data == null) {
+            data = new byte[SIZE];
+            new Random(42).nextBytes(data);
+            sha1 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(data));
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/file", this::handle);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/file";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+        String current = etag;
+        if (etagAfterProbe != null) {
+            etag = etagAfterProbe;
+            etagAfterProbe = null;
+        }
+        exchange.getResponseHeaders().add("ETag", current);
+
+        long start = 0;
+        long end = data.length - 1;
+        int code = 200;
+        boolean rangeValid = range != null && !ignoreRanges && (ifRange == null || ifRange.equals(current));
+        if (rangeValid) {
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            start = Long.parseLong(bounds[0]);
+            end = Long.parseLong(bounds[1]);
+            code = 206;
+            ranges.add(range);
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + data.length);
+        }
+        long length = end - start + 1;
+        exchange.sendResponseHeaders(code, length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            long sent = 0;
+            for (long pos = start; pos <= end; ) {
+                int n = (int) Math.min(64 * 1024, end - pos + 1);
+                if (cutAfter >= 0 && length > 1 && sent >= cutAfter) {
+                    // Corte a mitad de respuesta
+                    exchange.close();
+                    return;
+                }
+                out.write(data, (int) pos, n);
+                pos += n;
+                sent += n;
+                served.addAndGet(n);
+            }
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    @Test
+    void downloadsInParallelRanges() throws Exception {
+        Path target = dir.resolve("server.jar");
+        RangedDownloader.download(url, target, "SHA-1", sha1, SIZE, null);
+
+        assertArrayEquals(data, Files.readAllBytes(target));
+        // La sonda de un byte más un rango por tramo
+        assertTrue(ranges.size() >= 5, "rangos pedidos: " + ranges);
+        assertFalse(Files.exists(dir.resolve("server.jar.part")));
+        assertFalse(Files.exists(dir.resolve("server.jar.part.json")));
+    }
+
+    @Test
+    void fallsBackToSingleStreamWithoutRanges() throws Exception {
+        ignoreRanges = true;
+        Path target = dir.resolve("server.jar");
+        RangedDownloader.download(url, target, "SHA-1", sha1, SIZE, null);
+
+        assertArrayEquals(data, Files.readAllBytes(target));
+        assertTrue(ranges.isEmpty());
+        assertEquals(SIZE, served.get());
+    }
+
+    @Test
+    void resumesFromSavedState() throws Exception {
+        Path target = dir.resolve("server.jar");
+        // Cada tramo avanza poco en cada intento y agota sus reintentos
+        cutAfter = 512 * 1024;
+        assertThrows(IOException.class, () -> RangedDownloader.download(url, target, "SHA-1", sha1, SIZE, null));
+        assertTrue(Files.exists(dir.resolve("server.jar.part.json")));
+
+        cutAfter = -1;
+        served.set(0);
+        DownloadProgress progress = new DownloadProgress(DownloadProgress.Stage.SERVER_JAR, "server.jar", url);
+        RangedDownloader.download(url, target, "SHA-1", sha1, SIZE, progress);
+
+        assertArrayEquals(data, Files.readAllBytes(target));
+        assertTrue(served.get() < SIZE, "se volvieron a descargar " + served.get() + " bytes");
+        assertTrue(progress.getResumedBytes() > 0);
+        assertEquals(SIZE, progress.getResumedBytes() + progress.getBytes());
+        assertEquals(1.0, progress.getFraction());
+        assertFalse(Files.exists(dir.resolve("server.jar.part.json")));
+    }
+
+    @Test
+    void discardsStateWhenRemoteChanges() {
+        Path target = dir.resolve("server.jar");
+        // La sonda ve v1 y los tramos, pedidos con If-Range: v1, ya encuentran v2
+        etagAfterProbe = "\"v2\"";
+
+        IOException error = assertThrows(IOException.class,
+                () -> RangedDownloader.download(url, target, "SHA-1", sha1, SIZE, null));
+        assertTrue(error.getMessage().contains("HTTP 200"), error.getMessage());
+        assertFalse(Files.exists(dir.resolve("server.jar.part.json")));
+        assertFalse(Files.exists(target));
+    }
+
+    @Test
+    void deletesPartFileOnChecksumMismatch() {
+        Path target = dir.resolve("server.jar");
+        String wrong = (sha1.charAt(0) == '0' ? "1" : "0") + sha1.substring(1);
+
+        IOException error = assertThrows(IOException.class,
+                () -> RangedDownloader.download(url, target, "SHA-1", wrong, SIZE, null));
+        assertTrue(error.getMessage().contains("SHA-1 incorrecto"), error.getMessage());
+        assertFalse(Files.exists(dir.resolve("server.jar.part")));
+        assertFalse(Files.exists(dir.resolve("server.jar.part.json")));
+        assertFalse(Files.exists(target));
+    }
+}
@@ -0,0 +1,240 @@
+package com.servermanager.minecraft.net;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link RconClient} contra un servidor RCON de prueba en el mismo proceso.
+ * <p>
+ * El servidor de prueba entiende estos comandos:
+ * {@code echo <texto>} devuelve el texto, {@code big <n>} devuelve n bytes
+ * partidos en paquetes de 4096, {@code hang} responde al comando pero no al
+ * paquete final y {@code drop} cierra la conexión.
+ * </p>
+ */
+class RconClientTest {
+
+    private static final String PASSWORD = "secreto";
+    private static final int CHUNK = 4096;
+
+    private static NioEventLoop loop;
+
+    private StubServer stub;
+    private RconClient client;
+
+    @BeforeAll
+    static void startLoop() throws IOException {
+        loop = new NioEventLoop("Rcon-Test-Loop");
+    }
+
+    @AfterAll
+    static void closeLoop() {
+        loop.close();
+    }
+
+    @BeforeEach
+    void start() throws IOException {
+        stub = new StubServer();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        if (client != null) client.close();
+        stub.close();
+    }
+
+    @Test
+    void authenticatesWithRightPassword() throws Exception {
+        client = new RconClient("127.0.0.1", stub.port(), PASSWORD, loop);
+        client.connect().get(5, TimeUnit.SECONDS);
+        assertTrue(client.isOpen());
+        assertEquals("hola", client.command("echo hola").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failsWithWrongPassword() {
+        client = new RconClient("127.0.0.1", stub.port(), "otra", loop);
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> client.connect().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, error.getCause());
+        assertFalse(client.isOpen());
+    }
+
+    @Test
+    void joinsMultiPacketResponses() throws Exception {
+        client = new RconClient("127.0.0.1", stub.port(), PASSWORD, loop);
+        String response = client.command("big " + (3 * CHUNK + 100)).get(5, TimeUnit.SECONDS);
+        assertEquals(3 * CHUNK + 100, response.length());
+        assertEquals(expectedBig(3 * CHUNK + 100), response);
+    }
+
+    @Test
+    void completesPipelinedCommandsInOrder() throws Exception {
+        client = new RconClient("127.0.0.1", stub.port(), PASSWORD, loop);
+        List<Integer> completed = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int n = i;
+            futures.add(client.command("echo " + i).whenComplete((r, e) -> completed.add(n)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(String.valueOf(i), futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        for (int i = 0; i < completed.size(); i++) {
+            assertEquals(i, completed.get(i));
+        }
+        assertEquals(0, client.getInFlight());
+    }
+
+    @Test
+    void failsPendingCommandsWhenConnectionIsLost() throws Exception {
+        client = new RconClient("127.0.0.1", stub.port(), PASSWORD, loop);
+        client.connect().get(5, TimeUnit.SECONDS);
+        CompletableFuture<String> pending = client.command("hang");
+        CompletableFuture<String> dropped = client.command("drop");
+
+        ExecutionException first = assertThrows(ExecutionException.class, () -> pending.get(5, TimeUnit.SECONDS));
+        ExecutionException second = assertThrows(ExecutionException.class, () -> dropped.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, first.getCause());
+        assertInstanceOf(IOException.class, second.getCause());
+        assertFalse(client.isOpen());
+        assertEquals(0, client.getInFlight());
+    }
+
+    @Test
+    void timesOutWhenEndMarkerNeverArrives() throws Exception {
+        client = new RconClient("127.0.0.1", stub.port(), PASSWORD, loop);
+        client.setCommandTimeout(300);
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> client.command("hang").get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertEquals(0, client.getInFlight());
+
+        // La conexión sigue sirviendo para los comandos siguientes
+        assertEquals("sigue", client.command("echo sigue").get(5, TimeUnit.SECONDS));
+    }
+
+    private static String expectedBig(int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) text.append((char) ('a' + i % 26));
+        return text.toString();
+    }
+
+    /**
+     * Servidor RCON mínimo: una conexión por hilo, con el mismo formato de
+     * paquetes que Minecraft.
+     */
+    private static final class StubServer {
+        private final ServerSocket server;
+        private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<>());
+
+        StubServer() throws IOException {
+            server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "Rcon-Stub");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        void close() throws IOException {
+            server.close();
+            synchronized (sockets) {
+                for (Socket socket : sockets) socket.close();
+            }
+        }
+
+        private void accept() {
+            try {
+                while (true) {
+                    Socket socket = server.accept();
+                    sockets.add(socket);
+                    Thread handler = new Thread(() -> serve(socket), "Rcon-Stub-Conn");
+                    handler.setDaemon(true);
+                    handler.start();
+                }
+            } catch (IOException e) {
+                // Servidor cerrado
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket) {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                OutputStream out = socket.getOutputStream();
+                boolean authenticated = false;
+                boolean skipNextMarker = false;
+                while (true) {
+                    int length = Integer.reverseBytes(in.readInt());
+                    int id = Integer.reverseBytes(in.readInt());
+                    int type = Integer.reverseBytes(in.readInt());
+                    byte[] body = new byte[length - 10];
+                    in.readFully(body);
+                    in.readFully(new byte[2]);
+                    String text = new String(body, StandardCharsets.UTF_8);
+
+                    if (type == 3) {
+                        authenticated = PASSWORD.equals(text);
+                        write(out, authenticated ? id : -1, 2, "");
+                    } else if (!authenticated) {
+                        write(out, -1, 2, "");
+                    } else if (type == 2) {
+                        if (text.equals("drop")) return;
+                        if (text.equals("hang")) {
+                            write(out, id, 0, "colgado");
+                            skipNextMarker = true;
+                        } else if (text.startsWith("big ")) {
+                            String big = expectedBig(Integer.parseInt(text.substring(4)));
+                            for (int i = 0; i < big.length(); i += CHUNK) {
+                                write(out, id, 0, big.substring(i, Math.min(big.length(), i + CHUNK)));
+                            }
+                        } else if (text.startsWith("echo ")) {
+                            write(out, id, 0, text.substring(5));
+                        } else {
+                            write(out, id, 0, "Unknown command");
+                        }
+                    } else if (skipNextMarker) {
+                        skipNextMarker = false;
+                    } else {
+                        // Minecraft contesta así a los paquetes de tipo desconocido
+                        write(out, id, 0, "Unknown request " + Integer.toHexString(type));
+                    }
+                }
+            } catch (IOException e) {
+                // Conexión cerrada por el cliente
+            }
+        }
+
+        private static void write(OutputStream out, int id, int type, String body) throws IOException {
+            byte[] payload = body.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(14 + payload.length).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(10 + payload.length).putInt(id).putInt(type).put(payload).put((byte) 0).put((byte) 0);
+            out.write(buffer.array());
+            out.flush();
+        }
+    }
+}
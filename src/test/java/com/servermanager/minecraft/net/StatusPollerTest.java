@@ -0,0 +1,59 @@
+package com.servermanager.minecraft.net;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link StatusPoller} con servidores que no responden.
+ */
+class StatusPollerTest {
+
+    private final StatusPoller poller = new StatusPoller(100, NioEventLoop.shared());
+
+    @AfterEach
+    void stop() {
+        poller.stop();
+    }
+
+    /** Puerto local en el que no escucha nadie. */
+    private static int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static ServerStatus await(StatusPoller poller, String name, long after) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            ServerStatus status = poller.getStatus(name);
+            if (status == null) status = poller.getQuery(name);
+            if (status != null && status.getTime() > after) return status;
+            Thread.sleep(20);
+        }
+        return fail("sin resultado para " + name);
+    }
+
+    @Test
+    void unresolvedHostDoesNotStopPollingOtherServers() throws Exception {
+        poller.addTarget("mal", InetSocketAddress.createUnresolved("no-existe.invalid", 25565),
+                InetSocketAddress.createUnresolved("no-existe.invalid", 25565));
+        poller.addTarget("cerrado", InetSocketAddress.createUnresolved("127.0.0.1", closedPort()), null);
+        poller.start();
+
+        ServerStatus bad = await(poller, "mal", 0);
+        assertFalse(bad.isReachable());
+        ServerStatus first = await(poller, "cerrado", 0);
+        assertFalse(first.isReachable());
+
+        // Siguen llegando ciclos nuevos para ambos
+        assertFalse(await(poller, "cerrado", first.getTime()).isReachable());
+        assertFalse(await(poller, "mal", bad.getTime()).isReachable());
+    }
+}
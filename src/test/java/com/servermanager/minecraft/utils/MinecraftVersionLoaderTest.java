@@ -0,0 +1,80 @@
+package com.servermanager.minecraft.utils;
+
+import com.servermanager.minecraft.versions.MinecraftVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del lector en flujo del manifiesto de versiones de {@link MinecraftVersionLoader}.
+ */
+class MinecraftVersionLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    private List<MinecraftVersion> parse(String json) throws IOException {
+        Path file = dir.resolve("version_manifest_v2.json");
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+        return MinecraftVersionLoader.parse(file);
+    }
+
+    @Test
+    void readsEntriesAndSkipsUnknownFields() throws IOException {
+        List<MinecraftVersion> versions = parse("""
+                {
+                  "latest": {"release": "1.21", "snapshot": "24w14a"},
+                  "extra": [1, {"anidado": [true, null]}, "x"],
+                  "versions": [
+                    {"id": "1.20.1", "type": "release", "url": "https://example.com/1.20.1.json",
+                     "time": "2023-06-12T13:25:51+00:00", "releaseTime": "2023-06-07T09:25:26+00:00",
+                     "sha1": "abc", "complianceLevel": 1, "futuro": {"a": [1, 2, {"b": "c"}]}},
+                    {"id": "24w14a", "type": "snapshot", "url": "https://example.com/24w14a.json"},
+                    {"id": "1.21", "type": "release", "url": "https://example.com/1.21.json"}
+                  ],
+                  "despues": "ignorado"
+                }
+                """);
+
+        // Ordenadas por el comparador de versiones: las numeradas antes que los snapshots semanales
+        assertEquals(List.of("1.21", "1.20.1", "24w14a"), versions.stream().map(MinecraftVersion::getVersion).toList());
+        MinecraftVersion release = versions.get(1);
+        assertTrue(release.isStable());
+        assertEquals("https://example.com/1.20.1.json", release.getManifestUrl());
+        assertFalse(versions.get(2).isStable());
+    }
+
+    @Test
+    void dropsEntriesWithoutIdOrUrl() throws IOException {
+        List<MinecraftVersion> versions = parse("""
+                {"versions": [
+                  {"id": "1.19", "type": "release"},
+                  {"type": "release", "url": "https://example.com/sin-id.json"},
+                  {"id": "1.18", "type": "release", "url": "https://example.com/1.18.json"}
+                ]}
+                """);
+
+        assertEquals(1, versions.size());
+        assertEquals("1.18", versions.get(0).getVersion());
+    }
+
+    @Test
+    void returnsEmptyListWithoutVersions() throws IOException {
+        assertTrue(parse("{\"latest\": {}}").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> parse("{}").add(new MinecraftVersion("1.0", true)));
+    }
+
+    @Test
+    void reportsMalformedManifestAsIOException() {
+        assertThrows(IOException.class, () -> parse("{\"versions\": {\"id\": \"1.20\"}}"));
+        assertThrows(IOException.class, () -> parse("{\"versions\": [{\"id\": \"1.20\""));
+        assertThrows(IOException.class, () -> parse("[]"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.servermanager.minecraft.versions;
+
+import com.servermanager.minecraft.utils.MinecraftVersionComparator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del orden que define {@link VersionSortKey}.
+ */
+class VersionSortKeyTest {
+
+    /** Comprueba que cada identificador es estrictamente anterior al siguiente. */
+    private static void assertAscending(String... ids) {
+        for (int i = 1; i < ids.length; i++) {
+            long before = VersionSortKey.of(ids[i - 1]);
+            long after = VersionSortKey.of(ids[i]);
+            assertTrue(before < after, ids[i - 1] + " debería ser anterior a " + ids[i]);
+        }
+    }
+
+    @Test
+    void ordersPhasesOfTheSameVersion() {
+        assertAscending("1.21-pre1", "1.21-pre2", "1.21-rc1", "1.21");
+        assertAscending("1.20.5-rc3", "1.20.5", "1.20.6");
+        assertAscending("26.1-snapshot-1", "26.1-snapshot-2", "26.1-pre-1", "26.1-rc-1", "26.1");
+    }
+
+    @Test
+    void ordersPhaseNumbersNumerically() {
+        assertAscending("1.14-pre9", "1.14-pre10");
+        assertAscending("1.13-pre10", "1.13");
+    }
+
+    @Test
+    void understandsOldLongPhaseNames() {
+        assertAscending("1.14 Pre-Release 1", "1.14 Pre-Release 2", "1.14-pre3", "1.14");
+        assertAscending("1.16 Release Candidate 1", "1.16");
+        assertEquals(VersionSortKey.of("1.14 Pre-Release 3"), VersionSortKey.of("1.14-pre3"));
+    }
+
+    @Test
+    void ordersComponentsNumerically() {
+        assertAscending("1.9", "1.9.4", "1.10", "1.10.2", "1.20", "1.20.1", "1.21");
+        assertAscending("1.21.11", "26.1");
+    }
+
+    @Test
+    void ordersWeeklySnapshots() {
+        assertAscending("23w51b", "24w14a", "24w14b", "24w33a");
+    }
+
+    @Test
+    void ordersFamilies() {
+        assertAscending("rd-132211", "a1.0.4");
+        assertAscending("inf-20100618", "a1.0.4", "a1.2.6", "b1.0", "b1.7.3", "24w14a", "1.0");
+        assertAscending("c0.30_01c", "a1.0.4");
+    }
+
+    @Test
+    void neverReturnsZero() {
+        for (String id : new String[]{null, "", "x", "1", "1.", "rd-132211", "3D Shareware v1.34", "1.21"}) {
+            assertNotEquals(0, VersionSortKey.of(id), String.valueOf(id));
+        }
+    }
+
+    @Test
+    void comparatorSortsNewestFirst() {
+        List<String> expected = List.of("1.21", "1.21-rc1", "1.21-pre1", "1.20.6", "1.14", "1.14 Pre-Release 1",
+                "1.9", "1.0", "24w14b", "24w14a", "b1.7.3", "a1.2.6", "rd-132211");
+        List<MinecraftVersion> versions = new ArrayList<>();
+        for (String id : expected) versions.add(new MinecraftVersion(id, !id.contains("-") && !id.contains(" ")));
+        Collections.shuffle(versions, new Random(1));
+        versions.sort(new MinecraftVersionComparator());
+        assertEquals(expected, versions.stream().map(MinecraftVersion::getVersion).toList());
+    }
+}